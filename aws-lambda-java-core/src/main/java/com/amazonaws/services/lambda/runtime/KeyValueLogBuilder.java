@@ -0,0 +1,45 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime;
+
+import com.amazonaws.services.lambda.runtime.logging.LogBuilder;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+
+/**
+ * Default {@link LogBuilder} for loggers without structured logging support, appending the fields to the message as
+ * key=value pairs.
+ */
+final class KeyValueLogBuilder implements LogBuilder {
+    private final LambdaLogger logger;
+    private final LogLevel logLevel;
+    private final StringBuilder fields = new StringBuilder();
+
+    KeyValueLogBuilder(LambdaLogger logger, LogLevel logLevel) {
+        this.logger = logger;
+        this.logLevel = logLevel;
+    }
+
+    public LogBuilder with(String key, String value) {
+        fields.append(' ').append(key).append('=').append(value);
+        return this;
+    }
+
+    public LogBuilder with(String key, long value) {
+        fields.append(' ').append(key).append('=').append(value);
+        return this;
+    }
+
+    public LogBuilder with(String key, double value) {
+        fields.append(' ').append(key).append('=').append(value);
+        return this;
+    }
+
+    public LogBuilder with(String key, boolean value) {
+        fields.append(' ').append(key).append('=').append(value);
+        return this;
+    }
+
+    public void log(String message) {
+        logger.log(message + fields, logLevel);
+    }
+}
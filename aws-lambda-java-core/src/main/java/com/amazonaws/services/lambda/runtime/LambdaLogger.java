@@ -2,7 +2,10 @@
 
 package com.amazonaws.services.lambda.runtime;
 
+import com.amazonaws.services.lambda.runtime.logging.LogBuilder;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * A low level Lambda runtime logger
@@ -55,6 +58,96 @@ public interface LambdaLogger {
         log(message);
     }
 
+    /**
+     * LogLevel aware logging backend function for a range of a byte array, so logging frameworks can hand over
+     * reused buffers. The array may be reused by the caller once this returns.
+     *
+     * @param message buffer containing the message
+     * @param offset index of the first byte of the message
+     * @param length number of bytes in the message
+     * @param logLevel
+     */
+    default void log(byte[] message, int offset, int length, LogLevel logLevel) {
+        log(Arrays.copyOfRange(message, offset, offset + length), logLevel);
+    }
+
+    /**
+     * Returns whether messages logged at the given level are written. Messages logged without a level
+     * ({@link LogLevel#UNDEFINED}) are always written.
+     *
+     * @param logLevel
+     * @return false if messages at this level are filtered out by the configured minimum log level
+     */
+    default boolean isEnabled(LogLevel logLevel) {
+        return true;
+    }
+
+    /**
+     * LogLevel aware logging function that only builds the message if the level is enabled.
+     *
+     * @param messageSupplier supplies the message in String format
+     * @param logLevel
+     */
+    default void log(Supplier<String> messageSupplier, LogLevel logLevel) {
+        if (isEnabled(logLevel)) {
+            log(messageSupplier.get(), logLevel);
+        }
+    }
+
+    /**
+     * Starts a log message with key-value fields at the given level. If the level is not enabled, the returned builder
+     * discards the fields and the message. With the JSON log format, the Lambda runtime writes the fields as top-level
+     * fields of the log line; other loggers append them to the message as key=value pairs.
+     *
+     * @param logLevel
+     * @return a builder to add fields to and log the message with
+     */
+    default LogBuilder atLevel(LogLevel logLevel) {
+        return isEnabled(logLevel) ? new KeyValueLogBuilder(this, logLevel) : LogBuilder.NOOP;
+    }
+
+    /**
+     * LogLevel aware logging function that only formats the message if the level is enabled. The message is built
+     * with {@link String#format(String, Object...)}.
+     *
+     * @param logLevel
+     * @param format format string
+     * @param arg argument referenced by the format specifier in the format string
+     */
+    default void log(LogLevel logLevel, String format, Object arg) {
+        if (isEnabled(logLevel)) {
+            log(String.format(format, arg), logLevel);
+        }
+    }
+
+    /**
+     * LogLevel aware logging function that only formats the message if the level is enabled. The message is built
+     * with {@link String#format(String, Object...)}.
+     *
+     * @param logLevel
+     * @param format format string
+     * @param arg1 first argument referenced by the format specifiers in the format string
+     * @param arg2 second argument referenced by the format specifiers in the format string
+     */
+    default void log(LogLevel logLevel, String format, Object arg1, Object arg2) {
+        if (isEnabled(logLevel)) {
+            log(String.format(format, arg1, arg2), logLevel);
+        }
+    }
+
+    /**
+     * LogLevel aware logging function that only formats the message if the level is enabled. The message is built
+     * with {@link String#format(String, Object...)}.
+     *
+     * @param logLevel
+     * @param format format string
+     * @param args arguments referenced by the format specifiers in the format string
+     */
+    default void log(LogLevel logLevel, String format, Object... args) {
+        if (isEnabled(logLevel)) {
+            log(String.format(format, args), logLevel);
+        }
+    }
 
 }
 
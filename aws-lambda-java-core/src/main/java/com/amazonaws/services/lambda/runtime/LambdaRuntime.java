@@ -1,6 +1,8 @@
 /* Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
 package com.amazonaws.services.lambda.runtime;
 
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import com.amazonaws.services.lambda.runtime.logging.LogMetrics;
 import java.io.IOException;
 
 public final class LambdaRuntime {
@@ -22,6 +24,31 @@ public final class LambdaRuntime {
         }
     };
 
+    private static volatile LogLevel minimumLogLevel = LogLevel.UNDEFINED;
+
+    private static final LogMetrics NO_LOG_METRICS = new LogMetrics() {
+
+        public long getMessagesWritten() {
+            return 0;
+        }
+
+        public long getBytesWritten() {
+            return 0;
+        }
+
+        public long getSinkBlockedNanos() {
+            return 0;
+        }
+
+        public long getFormattingNanos() {
+            return 0;
+        }
+    };
+
+    private static volatile LogMetrics invocationLogMetrics = NO_LOG_METRICS;
+
+    private static volatile LogMetrics totalLogMetrics = NO_LOG_METRICS;
+
     /**
      * Returns the global lambda logger instance
      *
@@ -29,4 +56,30 @@ public final class LambdaRuntime {
 	public static LambdaLogger getLogger() {
         return logger;
     }
+
+    /**
+     * Returns the minimum log level configured for the function, so logging frameworks can skip building messages
+     * that would be filtered out. {@link LogLevel#UNDEFINED} means that no minimum level is configured and all
+     * messages are written.
+     */
+    public static LogLevel getMinimumLogLevel() {
+        return minimumLogLevel;
+    }
+
+    /**
+     * Returns the logging counters of the current invocation. When the function handles several invocations
+     * concurrently, the counters cover everything logged since the runtime started instead. Outside of the Lambda
+     * runtime, all counters are zero.
+     */
+    public static LogMetrics getInvocationLogMetrics() {
+        return invocationLogMetrics;
+    }
+
+    /**
+     * Returns the logging counters accumulated since the runtime started. Outside of the Lambda runtime, all counters
+     * are zero.
+     */
+    public static LogMetrics getTotalLogMetrics() {
+        return totalLogMetrics;
+    }
 }
@@ -2,6 +2,9 @@
 
 package com.amazonaws.services.lambda.runtime;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * This class is used internally by Lambda Runtime.
  */
@@ -10,6 +13,8 @@ public final class LambdaRuntimeInternal {
 
     private static boolean useLog4jAppender;
 
+    private static final List<Runnable> logFlushers = new CopyOnWriteArrayList<>();
+
     public static void setUseLog4jAppender(boolean useLog4j) {
         useLog4jAppender = useLog4j;
     }
@@ -17,4 +22,18 @@ public final class LambdaRuntimeInternal {
     public static boolean getUseLog4jAppender() {
         return useLog4jAppender;
     }
+
+    /**
+     * Registers a callback that writes out log messages a logging framework has queued, such as the events held by
+     * log4j2 async loggers. The runtime runs the callbacks before it reports the outcome of an invocation.
+     */
+    public static void addLogFlusher(Runnable logFlusher) {
+        logFlushers.add(logFlusher);
+    }
+
+    public static void flushLogs() {
+        for (Runnable logFlusher : logFlushers) {
+            logFlusher.run();
+        }
+    }
 }
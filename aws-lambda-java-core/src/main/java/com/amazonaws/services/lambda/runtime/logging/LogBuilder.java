@@ -0,0 +1,60 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.logging;
+
+/**
+ * Builds a log message with key-value fields, returned by
+ * {@link com.amazonaws.services.lambda.runtime.LambdaLogger#atLevel(LogLevel)}. With the JSON log format, the runtime
+ * writes each field as a top-level field of the log line, so the fields can be queried without parsing the message.
+ * Fields named like the fields the runtime writes itself, such as "message" or "level", are written with a "_"
+ * prefix, and a key that is added twice is written once, with the last value.
+ *
+ * <pre>
+ * {@code logger.atLevel(LogLevel.INFO).with("orderId", orderId).with("items", 3).log("Order processed");}
+ * </pre>
+ *
+ * A builder must be used for a single message and not kept once {@link #log(String)} has been called, because the
+ * runtime reuses it for the next message logged on the same thread.
+ */
+public interface LogBuilder {
+
+    /**
+     * A builder that discards everything, returned for levels that are not enabled.
+     */
+    LogBuilder NOOP = new LogBuilder() {
+
+        public LogBuilder with(String key, String value) {
+            return this;
+        }
+
+        public LogBuilder with(String key, long value) {
+            return this;
+        }
+
+        public LogBuilder with(String key, double value) {
+            return this;
+        }
+
+        public LogBuilder with(String key, boolean value) {
+            return this;
+        }
+
+        public void log(String message) {
+        }
+    };
+
+    LogBuilder with(String key, String value);
+
+    LogBuilder with(String key, long value);
+
+    LogBuilder with(String key, double value);
+
+    LogBuilder with(String key, boolean value);
+
+    /**
+     * Logs the message with the fields added so far.
+     *
+     * @param message in String format
+     */
+    void log(String message);
+}
@@ -0,0 +1,30 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.logging;
+
+/**
+ * Counters describing how much work the runtime spent on logging. Values are read when the getters are called.
+ */
+public interface LogMetrics {
+
+    /**
+     * Returns the number of log messages written to the function's log destination.
+     */
+    long getMessagesWritten();
+
+    /**
+     * Returns the number of bytes written to the function's log destination, including framing.
+     */
+    long getBytesWritten();
+
+    /**
+     * Returns the time in nanoseconds logging threads were blocked handing messages to the runtime's log sink, waiting
+     * for other threads' writes and for their own.
+     */
+    long getSinkBlockedNanos();
+
+    /**
+     * Returns the time in nanoseconds spent formatting log messages.
+     */
+    long getFormattingNanos();
+}
@@ -0,0 +1,172 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.util.LoaderUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for log4j2 to hand the events it has queued to the started LambdaAppenders, so that events logged through
+ * async loggers or an AsyncAppender during an invocation are written before the runtime reports its outcome. The runtime
+ * runs {@link #flush()} through {@code LambdaRuntimeInternal.addLogFlusher}.
+ * <p>
+ * log4j2 has no API to flush its queues, so this polls them until they are empty and no LambdaAppender is in the middle
+ * of appending an event taken from one. Async logger ring buffers only free a slot once the event in it has been
+ * appended, but an AsyncAppender takes an event off its queue before dispatching it, so when one is configured the idle
+ * state is confirmed once more after a short pause. Threads that keep logging can keep the queues busy, so the wait is
+ * bounded. Configurations without async loggers or an AsyncAppender append on the logging thread, so there is nothing
+ * to wait for, even while other threads are logging.
+ * <p>
+ * The async logger ring buffer of an appender's configuration is looked up once, on the first flush that needs it. A
+ * reconfiguration starts new appenders, which look up the ring buffer of the new configuration.
+ */
+final class AsyncLoggingFlusher {
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // async loggers are only available when the LMAX disruptor is on the classpath
+    private static final boolean DISRUPTOR_AVAILABLE = LoaderUtil.isClassAvailable("com.lmax.disruptor.RingBuffer");
+
+    private static final Map<LambdaAppender, QueueProbe> appenders = new ConcurrentHashMap<>();
+
+    private AsyncLoggingFlusher() {
+    }
+
+    static void register(LambdaAppender appender) {
+        appenders.put(appender, new QueueProbe(appender.getConfiguration()));
+    }
+
+    static void unregister(LambdaAppender appender) {
+        appenders.remove(appender);
+    }
+
+    static void flush() {
+        boolean hasAsyncAppender = false;
+        boolean hasRingBuffer = false;
+        for (QueueProbe probe : appenders.values()) {
+            hasAsyncAppender |= probe.hasAsyncAppender();
+            hasRingBuffer |= probe.hasRingBuffer();
+        }
+        if (!hasAsyncAppender && !hasRingBuffer) {
+            // every event was appended by the thread that logged it
+            return;
+        }
+
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        boolean confirmed = false;
+        while (System.nanoTime() - deadline < 0) {
+            if (isBusy()) {
+                confirmed = false;
+            } else if (confirmed || !hasAsyncAppender) {
+                return;
+            } else {
+                confirmed = true;
+            }
+            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+        }
+    }
+
+    private static boolean isBusy() {
+        for (Map.Entry<LambdaAppender, QueueProbe> entry : appenders.entrySet()) {
+            if (entry.getKey().isAppendingQueuedEvent() || entry.getValue().hasQueuedEvents()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the queues of one configuration for events that have not been appended yet.
+     */
+    private static final class QueueProbe {
+        private final Configuration configuration;
+        private volatile boolean ringBuffersResolved;
+        private volatile RingBufferAdmin[] ringBuffers;
+
+        QueueProbe(Configuration configuration) {
+            this.configuration = configuration;
+        }
+
+        boolean hasAsyncAppender() {
+            if (configuration != null) {
+                for (Appender appender : configuration.getAppenders().values()) {
+                    if (appender instanceof AsyncAppender) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean hasRingBuffer() {
+            return configuration != null && DISRUPTOR_AVAILABLE && getRingBuffers().length > 0;
+        }
+
+        boolean hasQueuedEvents() {
+            if (configuration == null) {
+                return false;
+            }
+            for (Appender appender : configuration.getAppenders().values()) {
+                if (appender instanceof AsyncAppender && ((AsyncAppender) appender).getQueueSize() > 0) {
+                    return true;
+                }
+            }
+            if (DISRUPTOR_AVAILABLE) {
+                for (RingBufferAdmin ringBuffer : getRingBuffers()) {
+                    if (ringBuffer.getRemainingCapacity() < ringBuffer.getBufferSize()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private RingBufferAdmin[] getRingBuffers() {
+            if (ringBuffersResolved) {
+                return ringBuffers;
+            }
+            RingBufferAdmin[] found = findRingBuffers(configuration);
+            // a disruptor that has not started yet has no ring buffer, so look again on the next flush
+            for (RingBufferAdmin ringBuffer : found) {
+                if (ringBuffer.getBufferSize() == 0) {
+                    return found;
+                }
+            }
+            ringBuffers = found;
+            ringBuffersResolved = true;
+            return found;
+        }
+
+        private static RingBufferAdmin[] findRingBuffers(Configuration configuration) {
+            LoggerContext loggerContext = configuration.getLoggerContext();
+            RingBufferAdmin contextRingBuffer = loggerContext instanceof AsyncLoggerContext
+                    ? ((AsyncLoggerContext) loggerContext).createRingBufferAdmin()
+                    : null;
+            RingBufferAdmin configRingBuffer = null;
+            for (LoggerConfig loggerConfig : configuration.getLoggers().values()) {
+                // mixed sync and async loggers all share one ring buffer, so the first async logger is enough
+                if (loggerConfig instanceof AsyncLoggerConfig) {
+                    String contextName = loggerContext != null ? loggerContext.getName() : "";
+                    configRingBuffer = ((AsyncLoggerConfig) loggerConfig).createRingBufferAdmin(contextName);
+                    break;
+                }
+            }
+            if (contextRingBuffer != null && configRingBuffer != null) {
+                return new RingBufferAdmin[]{contextRingBuffer, configRingBuffer};
+            } else if (contextRingBuffer != null || configRingBuffer != null) {
+                return new RingBufferAdmin[]{contextRingBuffer != null ? contextRingBuffer : configRingBuffer};
+            }
+            return new RingBufferAdmin[0];
+        }
+    }
+}
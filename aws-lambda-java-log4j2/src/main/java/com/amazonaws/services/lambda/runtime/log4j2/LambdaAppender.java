@@ -12,24 +12,38 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.Log4jThread;
 
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class to append log4j2 logs from AWS Lambda function to CloudWatch
  * Created by adsuresh on 6/9/17.
+ *
+ * <p>Events are encoded by the layout into a reused per-thread buffer that is handed to the runtime logger as one
+ * message, so appending does not allocate when the layout is garbage-free. Events queued by async loggers or an
+ * AsyncAppender are written before the runtime reports the outcome of an invocation.</p>
  */
 @Plugin(name = LambdaAppender.PLUGIN_NAME, category = LambdaAppender.PLUGIN_CATEGORY,
         elementType = LambdaAppender.PLUGIN_TYPE, printObject = true)
 public class LambdaAppender extends AbstractAppender {
     static {
         LambdaRuntimeInternal.setUseLog4jAppender(true);
+        try {
+            LambdaRuntimeInternal.addLogFlusher(AsyncLoggingFlusher::flush);
+        } catch (NoSuchMethodError e) {
+            // runtimes with aws-lambda-java-core older than 1.5.0 do not flush logging frameworks
+        }
     }
 
     public static final String PLUGIN_NAME = "Lambda";
@@ -40,6 +54,17 @@ public class LambdaAppender extends AbstractAppender {
 
     private static LogFormat logFormat = LogFormat.TEXT;
 
+    // LambdaLogger.log(byte[], int, int, LogLevel) is missing from aws-lambda-java-core older than 1.5.0
+    private static final boolean RANGE_LOGGING_SUPPORTED = isRangeLoggingSupported();
+
+    // log4j2 does not use thread locals in web applications, where they could keep class loaders alive
+    private static final ThreadLocal<LogEventBuffer> eventBuffer =
+            Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(LogEventBuffer::new) : null;
+
+    private final Configuration configuration;
+    // appends running on log4j2's AsyncAppender and async logger threads, which write events taken from their queues
+    private final AtomicInteger appendingQueuedEvents = new AtomicInteger();
+
     private static final Map<Level, LogLevel> logLevelMapper = new HashMap<Level, LogLevel>() {{
         put(Level.TRACE, LogLevel.TRACE);
         put(Level.DEBUG, LogLevel.DEBUG);
@@ -74,7 +99,8 @@ public class LambdaAppender extends AbstractAppender {
             } else {
                 layout = lambdaJsonFormat != null ? lambdaJsonFormat.getLayout() : super.getOrCreateLayout();
             }
-            return new LambdaAppender(super.getName(), super.getFilter(), layout, super.isIgnoreExceptions());
+            return new LambdaAppender(super.getName(), super.getFilter(), layout, super.isIgnoreExceptions(),
+                    super.getConfiguration());
         }
     }
 
@@ -94,9 +120,24 @@ public class LambdaAppender extends AbstractAppender {
      * @param filter filter specified in xml
      * @param layout layout specified in xml
      * @param ignoreExceptions whether to show exceptions or not specified in xml
+     * @param configuration the configuration the appender belongs to, used to find async queues when flushing
      */
-    private LambdaAppender(String name, Filter filter, Layout<? extends Serializable> layout, boolean ignoreExceptions) {
+    private LambdaAppender(String name, Filter filter, Layout<? extends Serializable> layout, boolean ignoreExceptions,
+                           Configuration configuration) {
         super(name, filter, layout, ignoreExceptions);
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        AsyncLoggingFlusher.register(this);
+    }
+
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        AsyncLoggingFlusher.unregister(this);
+        return super.stop(timeout, timeUnit);
     }
 
     /**
@@ -113,6 +154,47 @@ public class LambdaAppender extends AbstractAppender {
      * @param event log4j event
      */
     public void append(LogEvent event) {
-        logger.log(getLayout().toByteArray(event), toLambdaLogLevel(event.getLevel()));
+        boolean queuedEvent = Thread.currentThread() instanceof Log4jThread;
+        if (queuedEvent) {
+            appendingQueuedEvents.incrementAndGet();
+        }
+        try {
+            if (RANGE_LOGGING_SUPPORTED) {
+                LogEventBuffer buffer = eventBuffer != null ? eventBuffer.get() : new LogEventBuffer();
+                try {
+                    getLayout().encode(event, buffer);
+                    logger.log(buffer.array(), 0, buffer.size(), toLambdaLogLevel(event.getLevel()));
+                } finally {
+                    buffer.clear();
+                }
+            } else {
+                logger.log(getLayout().toByteArray(event), toLambdaLogLevel(event.getLevel()));
+            }
+        } finally {
+            if (queuedEvent) {
+                appendingQueuedEvents.decrementAndGet();
+            }
+        }
+    }
+
+    Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return true while an event taken from an async queue is being appended. Events that application threads append
+     * directly are not counted, since flushing does not wait for them.
+     */
+    boolean isAppendingQueuedEvent() {
+        return appendingQueuedEvents.get() > 0;
+    }
+
+    private static boolean isRangeLoggingSupported() {
+        try {
+            LambdaLogger.class.getMethod("log", byte[].class, int.class, int.class, LogLevel.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 }
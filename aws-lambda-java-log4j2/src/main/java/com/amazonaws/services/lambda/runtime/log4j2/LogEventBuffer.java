@@ -0,0 +1,66 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Destination that layouts encode a single log event into, so the event can be handed to the runtime as one message
+ * without allocating a byte array for it. Instead of writing out a full buffer, {@link #drain(ByteBuffer)} grows it,
+ * keeping a large event in one piece. Buffers grown for unusually large events are released by {@link #clear()}.
+ */
+final class LogEventBuffer implements ByteBufferDestination {
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public ByteBuffer drain(ByteBuffer buf) {
+        return ensureRemaining(buf.capacity());
+    }
+
+    @Override
+    public void writeBytes(ByteBuffer data) {
+        ensureRemaining(data.remaining()).put(data);
+    }
+
+    @Override
+    public void writeBytes(byte[] data, int offset, int length) {
+        ensureRemaining(length).put(data, offset, length);
+    }
+
+    /**
+     * Returns the array holding the encoded event. Only the first {@link #size()} bytes are valid.
+     */
+    byte[] array() {
+        return buffer.array();
+    }
+
+    int size() {
+        return buffer.position();
+    }
+
+    void clear() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        } else {
+            buffer.clear();
+        }
+    }
+
+    private ByteBuffer ensureRemaining(int length) {
+        if (buffer.remaining() < length) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        return buffer;
+    }
+}
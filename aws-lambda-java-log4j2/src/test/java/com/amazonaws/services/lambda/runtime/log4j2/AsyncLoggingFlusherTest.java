@@ -0,0 +1,119 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncLoggingFlusherTest {
+
+    private static final int MESSAGES = 50;
+    // slow enough that the queue cannot be drained by the time the last message is logged
+    private static final long WRITE_DELAY_MILLIS = 2;
+
+    @Test
+    public void flushDrainsAsyncAppender() throws Exception {
+        assertFlushDrains("/log4j2-async-appender.xml");
+    }
+
+    @Test
+    public void flushDrainsAsyncLoggers() throws Exception {
+        assertFlushDrains("/log4j2-async-logger.xml");
+    }
+
+    @Test
+    public void flushReturnsOnceIdle() throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(0)) {
+            LoggerContext context = start("/log4j2-async-logger.xml");
+            try {
+                context.getLogger("test").info("message");
+                AsyncLoggingFlusher.flush();
+
+                // nothing queued, so repeated flushes return well before the flush timeout
+                long start = System.nanoTime();
+                for (int i = 0; i < 100; i++) {
+                    AsyncLoggingFlusher.flush();
+                }
+                assertTrue(System.nanoTime() - start < 500_000_000L);
+                assertEquals(1, lambdaLogger.messages.size());
+            } finally {
+                context.stop();
+            }
+        }
+    }
+
+    @Test
+    public void flushDoesNotWaitForSynchronousAppends() throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(WRITE_DELAY_MILLIS)) {
+            LoggerContext context = start("/log4j2-sync.xml");
+            AtomicBoolean logging = new AtomicBoolean(true);
+            // enough threads that one of them is appending at any time
+            List<Thread> otherInvocations = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread otherInvocation = new Thread(() -> {
+                    Logger logger = context.getLogger("other");
+                    while (logging.get()) {
+                        logger.info("message");
+                    }
+                });
+                otherInvocations.add(otherInvocation);
+                otherInvocation.start();
+            }
+            try {
+                while (lambdaLogger.messages.isEmpty()) {
+                    Thread.sleep(1);
+                }
+
+                // appends of other threads are no reason to wait, each flush would otherwise take the flush timeout
+                long start = System.nanoTime();
+                for (int i = 0; i < 10; i++) {
+                    AsyncLoggingFlusher.flush();
+                }
+                assertTrue(System.nanoTime() - start < 500_000_000L);
+            } finally {
+                logging.set(false);
+                for (Thread otherInvocation : otherInvocations) {
+                    otherInvocation.join();
+                }
+                context.stop();
+            }
+        }
+    }
+
+    private static void assertFlushDrains(String configLocation) throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(WRITE_DELAY_MILLIS)) {
+            LoggerContext context = start(configLocation);
+            try {
+                Logger logger = context.getLogger("test");
+                for (int i = 0; i < MESSAGES; i++) {
+                    logger.info("message {}", i);
+                }
+                AsyncLoggingFlusher.flush();
+
+                assertEquals(MESSAGES, lambdaLogger.messages.size());
+                for (int i = 0; i < MESSAGES; i++) {
+                    assertEquals("message " + i + System.lineSeparator(), lambdaLogger.messages.get(i));
+                }
+            } finally {
+                context.stop();
+            }
+        }
+    }
+
+    private static LoggerContext start(String configLocation) throws Exception {
+        URI configUri = AsyncLoggingFlusherTest.class.getResource(configLocation).toURI();
+        LoggerContext context = new LoggerContext(configLocation, null, configUri);
+        Configuration configuration = ConfigurationFactory.getInstance().getConfiguration(context, configLocation, configUri);
+        context.start(configuration);
+        return context;
+    }
+}
@@ -0,0 +1,67 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how the LambdaAppender turns an event into the bytes it hands to the runtime logger: the layout's
+ * toByteArray, which allocates a String and a byte array per event, as the appender used to, against encoding into a
+ * reused LogEventBuffer. Add {@code -prof gc} to the runner options to compare allocation rates. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.amazonaws.services.lambda.runtime.log4j2.LambdaAppenderEncodeBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LambdaAppenderEncodeBenchmark {
+
+    private final PatternLayout layout = PatternLayout.newBuilder()
+            .withPattern("%d{yyyy-MM-dd HH:mm:ss} %X{AWSRequestId} %-5p %c{1} - %m%n")
+            .build();
+    private final LogEvent event = Log4jLogEvent.newBuilder()
+            .setLoggerName("com.example.OrderHandler")
+            .setLevel(Level.INFO)
+            .setMessage(new SimpleMessage("Processing order 12345 for customer example with 3 items"))
+            .setTimeMillis(System.currentTimeMillis())
+            .build();
+    private final LogEventBuffer buffer = new LogEventBuffer();
+
+    @Benchmark
+    public byte[] toByteArray() {
+        return layout.toByteArray(event);
+    }
+
+    @Benchmark
+    public int encode() {
+        layout.encode(event, buffer);
+        int size = buffer.size();
+        buffer.clear();
+        return size;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LambdaAppenderEncodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LambdaAppenderTest {
+
+    private static final PatternLayout LAYOUT = PatternLayout.newBuilder()
+            .withPattern("%-5p %c{1} - %m%n")
+            .build();
+
+    @Test
+    public void appendWritesWhatTheLayoutEncodes() throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(0)) {
+            LambdaAppender appender = newAppender();
+            LogEvent event = event(Level.INFO, "Processing order 12345");
+
+            appender.append(event);
+
+            assertEquals(1, lambdaLogger.messages.size());
+            assertEquals(new String(LAYOUT.toByteArray(event), StandardCharsets.UTF_8), lambdaLogger.messages.get(0));
+            assertEquals("INFO  OrderHandler - Processing order 12345" + System.lineSeparator(), lambdaLogger.messages.get(0));
+        }
+    }
+
+    @Test
+    public void appendMapsLevels() throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(0)) {
+            LambdaAppender appender = newAppender();
+            Level[] levels = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR, Level.FATAL, Level.forName("NOTICE", 350)};
+
+            for (Level level : levels) {
+                appender.append(event(level, "message"));
+            }
+
+            assertEquals(Arrays.asList(LogLevel.TRACE, LogLevel.DEBUG, LogLevel.INFO, LogLevel.WARN, LogLevel.ERROR,
+                    LogLevel.FATAL, LogLevel.UNDEFINED), lambdaLogger.levels);
+        }
+    }
+
+    @Test
+    public void appendKeepsLargeEventsWholeAndReusesTheBuffer() throws Exception {
+        try (RecordingLambdaLogger lambdaLogger = new RecordingLambdaLogger(0)) {
+            LambdaAppender appender = newAppender();
+            char[] large = new char[100 * 1024];
+            Arrays.fill(large, 'x');
+            LogEvent largeEvent = event(Level.INFO, new String(large));
+            LogEvent smallEvent = event(Level.INFO, "small");
+
+            appender.append(largeEvent);
+            appender.append(smallEvent);
+            appender.append(largeEvent);
+
+            assertEquals(3, lambdaLogger.messages.size());
+            assertEquals(new String(LAYOUT.toByteArray(largeEvent), StandardCharsets.UTF_8), lambdaLogger.messages.get(0));
+            assertEquals(new String(LAYOUT.toByteArray(smallEvent), StandardCharsets.UTF_8), lambdaLogger.messages.get(1));
+            assertEquals(lambdaLogger.messages.get(0), lambdaLogger.messages.get(2));
+        }
+    }
+
+    private static LambdaAppender newAppender() {
+        LambdaAppender appender = LambdaAppender.newBuilder()
+                .setName("Lambda")
+                .setLayout(LAYOUT)
+                .build();
+        appender.start();
+        return appender;
+    }
+
+    private static LogEvent event(Level level, String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("com.example.OrderHandler")
+                .setLevel(level)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+}
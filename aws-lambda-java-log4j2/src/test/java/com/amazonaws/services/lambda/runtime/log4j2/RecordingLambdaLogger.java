@@ -0,0 +1,67 @@
+package com.amazonaws.services.lambda.runtime.log4j2;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LambdaLogger that keeps what the LambdaAppender hands it, installed as the runtime logger for the duration of a test.
+ * Appenders pick up the runtime logger when they are created, so it has to be installed before log4j2 is configured.
+ */
+class RecordingLambdaLogger implements LambdaLogger, AutoCloseable {
+    final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+    final List<LogLevel> levels = Collections.synchronizedList(new ArrayList<>());
+    private final long writeDelayMillis;
+    private final LambdaLogger previous;
+
+    RecordingLambdaLogger(long writeDelayMillis) throws ReflectiveOperationException {
+        this.writeDelayMillis = writeDelayMillis;
+        this.previous = LambdaRuntime.getLogger();
+        setRuntimeLogger(this);
+    }
+
+    @Override
+    public void log(String message) {
+        log(message.getBytes(StandardCharsets.UTF_8), LogLevel.UNDEFINED);
+    }
+
+    @Override
+    public void log(byte[] message) {
+        log(message, LogLevel.UNDEFINED);
+    }
+
+    @Override
+    public void log(byte[] message, LogLevel logLevel) {
+        log(message, 0, message.length, logLevel);
+    }
+
+    @Override
+    public void log(byte[] message, int offset, int length, LogLevel logLevel) {
+        if (writeDelayMillis > 0) {
+            try {
+                Thread.sleep(writeDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        messages.add(new String(message, offset, length, StandardCharsets.UTF_8));
+        levels.add(logLevel);
+    }
+
+    @Override
+    public void close() throws ReflectiveOperationException {
+        setRuntimeLogger(previous);
+    }
+
+    private static void setRuntimeLogger(LambdaLogger logger) throws ReflectiveOperationException {
+        Field field = LambdaRuntime.class.getDeclaredField("logger");
+        field.setAccessible(true);
+        field.set(null, logger);
+    }
+}
@@ -6,12 +6,15 @@ SPDX-License-Identifier: Apache-2.0
 package com.amazonaws.services.lambda.runtime.api.client;
 
 import com.amazonaws.services.lambda.crac.Core;
-import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.api.client.LambdaRequestHandler.UserFaultHandler;
+import com.amazonaws.services.lambda.runtime.api.client.logging.AsyncLogSink;
 import com.amazonaws.services.lambda.runtime.api.client.logging.FramedTelemetryLogSink;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
+import com.amazonaws.services.lambda.runtime.api.client.logging.LogFiltering;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LogSink;
+import com.amazonaws.services.lambda.runtime.api.client.logging.LoggingMetrics;
 import com.amazonaws.services.lambda.runtime.api.client.logging.StdOutLogSink;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.InvocationResponseStream;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClient;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClientImpl;
@@ -22,7 +25,9 @@ import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.converters.XR
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
 import com.amazonaws.services.lambda.runtime.api.client.util.ConcurrencyConfig;
 import com.amazonaws.services.lambda.runtime.api.client.util.LambdaOutputStream;
+import com.amazonaws.services.lambda.runtime.api.client.util.ReusableByteArrayOutputStream;
 import com.amazonaws.services.lambda.runtime.api.client.util.UnsafeUtil;
+import com.amazonaws.services.lambda.runtime.api.client.util.VirtualThreads;
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
@@ -39,6 +44,7 @@ import java.security.Security;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import software.amazon.awssdk.utilslite.SdkInternalThreadLocal;
 
@@ -55,7 +61,12 @@ import software.amazon.awssdk.utilslite.SdkInternalThreadLocal;
  */
 public class AWSLambda {
 
+    static final String CONCURRENT_TRACE_ID_KEY = "AWS_LAMBDA_X_TRACE_ID";
+
     private static URLClassLoader customerClassLoader;
+
+    // set when System.out and System.err should be written to the telemetry log sink as frames
+    private static boolean captureStdOut;
     
     private static final String TRUST_STORE_PROPERTY = "javax.net.ssl.trustStore";
 
@@ -75,8 +86,6 @@ public class AWSLambda {
 
     private static final String AWS_LAMBDA_INITIALIZATION_TYPE = System.getenv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_INITIALIZATION_TYPE);
 
-    private static final String CONCURRENT_TRACE_ID_KEY = "AWS_LAMBDA_X_TRACE_ID";
-    
     static {
         // Override the disabledAlgorithms setting to match configuration for openjdk8-u181.
         // This is to keep DES ciphers around while we deploying security updates.
@@ -146,8 +155,13 @@ public class AWSLambda {
     private static LambdaRequestHandler getLambdaRequestHandlerObject(String handler, LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient) throws ClassNotFoundException, IOException {
         UnsafeUtil.disableIllegalAccessWarning();
 
-        System.setOut(new PrintStream(new LambdaOutputStream(System.out), false, "UTF-8"));
-        System.setErr(new PrintStream(new LambdaOutputStream(System.err), false, "UTF-8"));
+        if (captureStdOut) {
+            System.setOut(new PrintStream(lambdaLogger.newCaptureStream(System.out), false, "UTF-8"));
+            System.setErr(new PrintStream(lambdaLogger.newCaptureStream(System.err), false, "UTF-8"));
+        } else {
+            System.setOut(new PrintStream(new LambdaOutputStream(System.out), false, "UTF-8"));
+            System.setErr(new PrintStream(new LambdaOutputStream(System.err), false, "UTF-8"));
+        }
         setupRuntimeLogger(lambdaLogger);
 
         String taskRoot = System.getProperty("user.dir");
@@ -163,6 +177,7 @@ public class AWSLambda {
             requestHandler = findRequestHandler(handler, customerClassLoader);
         } catch (UserFault userFault) {
             lambdaLogger.log(userFault.reportableError(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+            lambdaLogger.flush();
             LambdaError error = new LambdaError(
                     LambdaErrorConverter.fromUserFault(userFault),
                     RapidErrorType.BadFunctionCode);
@@ -177,14 +192,22 @@ public class AWSLambda {
         return requestHandler;
     }
 
-    private static void setupRuntimeLogger(LambdaLogger lambdaLogger)
+    private static void setupRuntimeLogger(LambdaContextLogger lambdaLogger)
             throws ClassNotFoundException {
+        Class<?> lambdaRuntime = Class.forName("com.amazonaws.services.lambda.runtime.LambdaRuntime");
         ReflectUtil.setStaticField(
-                Class.forName("com.amazonaws.services.lambda.runtime.LambdaRuntime"),
+                lambdaRuntime,
                 "logger",
                 true,
                 lambdaLogger
         );
+        try {
+            ReflectUtil.setStaticField(lambdaRuntime, "minimumLogLevel", true, lambdaLogger.getMinimumLogLevel());
+            ReflectUtil.setStaticField(lambdaRuntime, "invocationLogMetrics", true, LoggingMetrics.invocation());
+            ReflectUtil.setStaticField(lambdaRuntime, "totalLogMetrics", true, LoggingMetrics.total());
+        } catch (ReflectUtil.ReflectException e) {
+            // aws-lambda-java-core older than 1.5.0 does not expose the minimum log level or log metrics
+        }
     }
 
     /**
@@ -218,7 +241,7 @@ public class AWSLambda {
 
     public static void main(String[] args) throws Throwable {
         try (LambdaContextLogger lambdaLogger = initLogger()) {
-            LambdaRuntimeApiClient runtimeClient = new LambdaRuntimeApiClientImpl(LambdaEnvironment.RUNTIME_API);
+            LambdaRuntimeApiClient runtimeClient = new LambdaRuntimeApiClientImpl(LambdaEnvironment.RUNTIME_API, LambdaEnvironment.DIRECT_PAYLOAD_BUFFER);
             LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandlerObject(args[0], lambdaLogger, runtimeClient);
             ConcurrencyConfig concurrencyConfig = new ConcurrencyConfig(lambdaLogger);
             startRuntimeLoops(lambdaRequestHandler, lambdaLogger, concurrencyConfig, runtimeClient);
@@ -229,10 +252,17 @@ public class AWSLambda {
 
     private static LambdaContextLogger initLogger() {
         LogSink logSink = createLogSink();
+        // StdOutLogSink writes to System.out, so capturing it into the sink only works with the telemetry FD
+        captureStdOut = LambdaEnvironment.CAPTURE_STDOUT && logSink instanceof FramedTelemetryLogSink;
+        if (LambdaEnvironment.ASYNC_LOGGING) {
+            logSink = new AsyncLogSink(logSink);
+        }
         LambdaContextLogger logger = new LambdaContextLogger(
                 logSink,
                 LogLevel.fromString(LambdaEnvironment.LAMBDA_LOG_LEVEL),
-                LogFormat.fromString(LambdaEnvironment.LAMBDA_LOG_FORMAT));
+                LogFormat.fromString(LambdaEnvironment.LAMBDA_LOG_FORMAT),
+                LogFiltering.createFilters(LambdaEnvironment.LOG_RATE_LIMIT, LambdaEnvironment.LOG_SAMPLE_RATE,
+                        LambdaEnvironment.LOG_SUPPRESS_DUPLICATES));
 
         return logger;
     }
@@ -247,8 +277,45 @@ public class AWSLambda {
         });
     }
 
+    private static void startVirtualThreadRuntimeLoops(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, ConcurrencyConfig concurrencyConfig, LambdaRuntimeApiClient runtimeClient) {
+        Semaphore inFlightInvocations = new Semaphore(concurrencyConfig.getNumberOfPlatformThreads());
+        ExecutorService handlerExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor("lambda-handler-");
+        ExecutorService pollerExecutor = Executors.newFixedThreadPool(concurrencyConfig.getNumberOfPollerThreads());
+        ExecutorService reporterExecutor = Executors.newFixedThreadPool(concurrencyConfig.getNumberOfReporterThreads());
+        LambdaRuntimeApiClient reportingClient = new PlatformThreadRuntimeApiClient(runtimeClient, reporterExecutor);
+        try {
+            for (int i = 0; i < concurrencyConfig.getNumberOfPollerThreads(); i++) {
+                pollerExecutor.submit(() -> {
+                    try {
+                        pollInvocations(lambdaRequestHandler, lambdaLogger, reportingClient, inFlightInvocations, handlerExecutor);
+                    } catch (Exception e) {
+                        lambdaLogger.log(String.format("Runtime Loop on Thread ID: %s Failed.\n%s", Thread.currentThread().getName(), UserFault.trace(e)), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+                    }
+                });
+            }
+        } finally {
+            pollerExecutor.shutdown();
+            try {
+                pollerExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                handlerExecutor.shutdown();
+                handlerExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                reporterExecutor.shutdown();
+                reporterExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     protected static void startRuntimeLoops(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, ConcurrencyConfig concurrencyConfig, LambdaRuntimeApiClient runtimeClient) throws Exception {
-        if (concurrencyConfig.isMultiConcurrent()) {
+        if (concurrencyConfig.isMultiConcurrent() && concurrencyConfig.useVirtualThreads()) {
+            lambdaLogger.log(concurrencyConfig.getConcurrencyConfigMessage(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.INFO : LogLevel.UNDEFINED);
+            startVirtualThreadRuntimeLoops(lambdaRequestHandler, lambdaLogger, concurrencyConfig, runtimeClient);
+        } else if (concurrencyConfig.isMultiConcurrent() && concurrencyConfig.usePipelinedDispatcher()) {
+            lambdaLogger.log(concurrencyConfig.getConcurrencyConfigMessage(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.INFO : LogLevel.UNDEFINED);
+            new PipelinedDispatcher(lambdaRequestHandler, lambdaLogger, runtimeClient, concurrencyConfig.getNumberOfPollerThreads(),
+                    concurrencyConfig.getNumberOfPlatformThreads(), concurrencyConfig.getNumberOfReporterThreads(), LambdaEnvironment.RESPONSE_STREAMING).run();
+        } else if (concurrencyConfig.isMultiConcurrent()) {
             lambdaLogger.log(concurrencyConfig.getConcurrencyConfigMessage(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.INFO : LogLevel.UNDEFINED);
             ExecutorService platformThreadExecutor = Executors.newFixedThreadPool(concurrencyConfig.getNumberOfPlatformThreads());
             try {
@@ -268,7 +335,7 @@ public class AWSLambda {
         }
     }
 
-    private static LambdaError createLambdaErrorFromThrowableOrUserFault(Throwable t) {
+    static LambdaError createLambdaErrorFromThrowableOrUserFault(Throwable t) {
         if (t instanceof UserFault) {
             return new LambdaError(
                     LambdaErrorConverter.fromUserFault((UserFault) t),
@@ -289,7 +356,7 @@ public class AWSLambda {
         }
     }
 
-    private static void reportNonLoopTerminatingException(LambdaContextLogger lambdaLogger, Throwable t) {
+    static void reportNonLoopTerminatingException(LambdaContextLogger lambdaLogger, Throwable t) {
         lambdaLogger.log(
                 String.format(
                         "Runtime Loop on Thread ID: %s Faced and Exception. This exception will not stop the runtime loop.\nException:\n%s",
@@ -297,6 +364,15 @@ public class AWSLambda {
                 lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
     }
 
+    static void reportInvocationSuccess(LambdaRuntimeApiClient runtimeClient, String requestId, ByteArrayOutputStream payload) throws IOException {
+        if (payload instanceof ReusableByteArrayOutputStream) {
+            // post straight from the handler's output buffer instead of a toByteArray() copy
+            runtimeClient.reportInvocationSuccess(requestId, ((ReusableByteArrayOutputStream) payload).getBuffer(), payload.size());
+        } else {
+            runtimeClient.reportInvocationSuccess(requestId, payload.toByteArray());
+        }
+    }
+
     /*
      * In multiconcurrent mode (exitLoopOnErrors = false), The Runtime Loop will not exit unless LambdaRuntimeClientMaxRetriesExceededException is thrown when calling nextInvocationWithExponentialBackoff.
      * In normal/sequential mode (exitLoopOnErrors = true), The Runtime Loop will exit if nextInvocation call fails, when UserFault is fatal, or an Error of type VirtualMachineError or IOError is thrown.
@@ -305,34 +381,112 @@ public class AWSLambda {
         boolean shouldExit = false;
         while (!shouldExit) {
             try {
-                UserFault userFault = null;
                 InvocationRequest request = exitLoopOnErrors ? runtimeClient.nextInvocation() : runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger);
-                if (exitLoopOnErrors) {
-                    setEnvVarForXrayTraceId(request);
-                } else {
-                    SdkInternalThreadLocal.put(CONCURRENT_TRACE_ID_KEY, request.getXrayTraceId());
+                shouldExit = handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient, request, exitLoopOnErrors, LambdaEnvironment.RESPONSE_STREAMING);
+            } catch (Throwable t) {
+                if (exitLoopOnErrors || t instanceof LambdaRuntimeClientMaxRetriesExceededException) {
+                    throw t;
                 }
 
-                try {
-                    ByteArrayOutputStream payload = lambdaRequestHandler.call(request);
-                    runtimeClient.reportInvocationSuccess(request.getId(), payload.toByteArray());
-                    // clear interrupted flag in case if it was set by user's code
-                    Thread.interrupted();
-                } catch (Throwable t) {
-                    UserFault.filterStackTrace(t);
-                    userFault = UserFault.makeUserFault(t);
-                    shouldExit = exitLoopOnErrors && (t instanceof VirtualMachineError || t instanceof IOError || userFault.fatal);
-                    LambdaError error = createLambdaErrorFromThrowableOrUserFault(t);
-                    runtimeClient.reportInvocationError(request.getId(), error);
-                } finally {
-                    if (userFault != null) {
-                        lambdaLogger.log(userFault.reportableError(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
-                    }
+                reportNonLoopTerminatingException(lambdaLogger, t);
+            }
+        }
+    }
 
-                    SdkInternalThreadLocal.remove(CONCURRENT_TRACE_ID_KEY);
-                }
+    /*
+     * Runs the handler for one invocation and reports its result. Returns true if the runtime loop should exit.
+     */
+    static boolean handleInvocation(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient, InvocationRequest request, boolean exitLoopOnErrors, boolean streamResponse) throws Exception {
+        boolean shouldExit = false;
+        if (exitLoopOnErrors) {
+            setEnvVarForXrayTraceId(request);
+            LoggingMetrics.startInvocation();
+        } else {
+            SdkInternalThreadLocal.put(CONCURRENT_TRACE_ID_KEY, request.getXrayTraceId());
+        }
+
+        InvocationResponseStream responseStream = null;
+        try {
+            if (streamResponse && lambdaRequestHandler.streamsResponse()) {
+                responseStream = runtimeClient.openInvocationResponseStream(request.getId(), LambdaEnvironment.RESPONSE_STREAMING_CONTENT_TYPE);
+                // the invocation's logs are written before the response ends, also when the handler closes the stream
+                responseStream.beforeFinish(lambdaLogger::flush);
+                lambdaRequestHandler.call(request, responseStream);
+                responseStream.close();
+            } else {
+                ByteArrayOutputStream payload = lambdaRequestHandler.call(request);
+                lambdaLogger.flush();
+                reportInvocationSuccess(runtimeClient, request.getId(), payload);
+            }
+            // clear interrupted flag in case if it was set by user's code
+            Thread.interrupted();
+        } catch (Throwable t) {
+            UserFault.filterStackTrace(t);
+            UserFault userFault = UserFault.makeUserFault(t);
+            shouldExit = exitLoopOnErrors && (t instanceof VirtualMachineError || t instanceof IOError || userFault.fatal);
+            LambdaError error = createLambdaErrorFromThrowableOrUserFault(t);
+            // logged before the flush, so it is written out with the rest of the invocation's logs
+            lambdaLogger.log(userFault.reportableError(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+            lambdaLogger.flush();
+            if (responseStream != null && responseStream.isStarted()) {
+                // part of the response is already sent, so the error goes into the response trailers
+                closeWithError(lambdaLogger, responseStream, error);
+            } else {
+                runtimeClient.reportInvocationError(request.getId(), error);
+            }
+        } finally {
+            // once per invocation and after everything else it logged. Metrics are only reported when invocations are
+            // handled one at a time, since concurrent invocations share the counters
+            if (exitLoopOnErrors && LambdaEnvironment.LOG_METRICS) {
+                lambdaLogger.logInvocationMetrics(LambdaEnvironment.FUNCTION_NAME);
+            }
+            SdkInternalThreadLocal.remove(CONCURRENT_TRACE_ID_KEY);
+        }
+        return shouldExit;
+    }
+
+    /*
+     * Reports the error in the trailers of a started streamed response. The streamed request may have failed already,
+     * in which case the error cannot be reported anymore, so it is only logged and the runtime loop goes on.
+     */
+    static void closeWithError(LambdaContextLogger lambdaLogger, InvocationResponseStream responseStream, LambdaError error) {
+        try {
+            responseStream.closeWithError(error);
+        } catch (Exception e) {
+            reportNonLoopTerminatingException(lambdaLogger, e);
+        }
+    }
+
+    private static void handleInvocationOnVirtualThread(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient, InvocationRequest request, Semaphore inFlightInvocations) {
+        try {
+            // streamed responses keep per-thread native state across calls, which virtual threads cannot rely on
+            // because they may move between carriers
+            handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient, request, false, false);
+        } catch (Throwable t) {
+            reportNonLoopTerminatingException(lambdaLogger, t);
+        } finally {
+            inFlightInvocations.release();
+        }
+    }
+
+    /*
+     * Virtual thread mode: platform threads poll the Runtime API and hand every invocation to a new virtual thread.
+     * The JNI calls block in native code and would pin a virtual thread's carrier, so next() only runs here, and the
+     * PlatformThreadRuntimeApiClient posts the responses and errors of the virtual threads from its own platform
+     * threads. The semaphore keeps the number of in-flight invocations at the configured concurrency. Like startRuntimeLoop in
+     * multiconcurrent mode, the loop only exits when LambdaRuntimeClientMaxRetriesExceededException is thrown.
+     */
+    private static void pollInvocations(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient, Semaphore inFlightInvocations, ExecutorService handlerExecutor) throws Exception {
+        while (true) {
+            inFlightInvocations.acquire();
+            try {
+                InvocationRequest request = runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger);
+                // a direct payload buffer belongs to this polling thread and is overwritten by its next poll
+                request.detachContentBuffer();
+                handlerExecutor.execute(() -> handleInvocationOnVirtualThread(lambdaRequestHandler, lambdaLogger, runtimeClient, request, inFlightInvocations));
             } catch (Throwable t) {
-                if (exitLoopOnErrors || t instanceof LambdaRuntimeClientMaxRetriesExceededException) {
+                inFlightInvocations.release();
+                if (t instanceof LambdaRuntimeClientMaxRetriesExceededException) {
                     throw t;
                 }
 
@@ -344,6 +498,8 @@ public class AWSLambda {
     private static void onInitComplete(final LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient) throws IOException {
         try {
             Core.getGlobalContext().beforeCheckpoint(null);
+            // messages still queued in the log sink would otherwise be captured in the snapshot
+            lambdaLogger.flush();
             runtimeClient.restoreNext();
         } catch (Exception e1) {
             logExceptionCloudWatch(lambdaLogger, e1);
@@ -368,6 +524,8 @@ public class AWSLambda {
         UserFault.filterStackTrace(exc);
         UserFault userFault = UserFault.makeUserFault(exc, true);
         lambdaLogger.log(userFault.reportableError(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+        // the runtime exits right after logging these
+        lambdaLogger.flush();
     }
 
     protected static URLClassLoader getCustomerClassLoader() {
@@ -0,0 +1,124 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue-depth and stage-latency counters of the {@link PipelinedDispatcher}. All counters are cumulative since the
+ * dispatcher started and can be read from any thread.
+ */
+public class DispatcherMetrics {
+
+    private static volatile DispatcherMetrics current;
+
+    private final Map<Stage, StageCounters> stages = new EnumMap<>(Stage.class);
+    private final BlockingQueue<?> invocationQueue;
+    private final BlockingQueue<?> resultQueue;
+    private final LongAccumulator maxInvocationQueueDepth = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxResultQueueDepth = new LongAccumulator(Math::max, 0);
+
+    DispatcherMetrics(BlockingQueue<?> invocationQueue, BlockingQueue<?> resultQueue) {
+        this.invocationQueue = invocationQueue;
+        this.resultQueue = resultQueue;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageCounters());
+        }
+    }
+
+    /**
+     * @return the metrics of the running dispatcher, or null if the runtime does not use the pipelined dispatcher
+     */
+    public static DispatcherMetrics current() {
+        return current;
+    }
+
+    static void setCurrent(DispatcherMetrics metrics) {
+        current = metrics;
+    }
+
+    void record(Stage stage, long nanos) {
+        StageCounters counters = stages.get(stage);
+        counters.count.increment();
+        counters.totalNanos.add(nanos);
+        counters.maxNanos.accumulate(nanos);
+    }
+
+    void recordQueueDepths() {
+        maxInvocationQueueDepth.accumulate(invocationQueue.size());
+        maxResultQueueDepth.accumulate(resultQueue.size());
+    }
+
+    public int getInvocationQueueDepth() {
+        return invocationQueue.size();
+    }
+
+    public long getMaxInvocationQueueDepth() {
+        return maxInvocationQueueDepth.get();
+    }
+
+    public int getResultQueueDepth() {
+        return resultQueue.size();
+    }
+
+    public long getMaxResultQueueDepth() {
+        return maxResultQueueDepth.get();
+    }
+
+    public long getCount(Stage stage) {
+        return stages.get(stage).count.sum();
+    }
+
+    public long getTotalNanos(Stage stage) {
+        return stages.get(stage).totalNanos.sum();
+    }
+
+    public long getMaxNanos(Stage stage) {
+        return stages.get(stage).maxNanos.get();
+    }
+
+    public long getAverageNanos(Stage stage) {
+        long count = getCount(stage);
+        return count == 0 ? 0 : getTotalNanos(stage) / count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Dispatcher metrics: invocationQueueDepth=");
+        sb.append(getInvocationQueueDepth()).append(" (max ").append(getMaxInvocationQueueDepth()).append(')');
+        sb.append(", resultQueueDepth=").append(getResultQueueDepth()).append(" (max ").append(getMaxResultQueueDepth()).append(')');
+        for (Stage stage : Stage.values()) {
+            sb.append(", ").append(stage).append("={count=").append(getCount(stage));
+            sb.append(", avgMicros=").append(TimeUnit.NANOSECONDS.toMicros(getAverageNanos(stage)));
+            sb.append(", maxMicros=").append(TimeUnit.NANOSECONDS.toMicros(getMaxNanos(stage))).append('}');
+        }
+        return sb.toString();
+    }
+
+    public enum Stage {
+        /** Time spent in the Runtime API next call. */
+        POLL,
+        /** Time an invocation waited in the hand-off queue for a handler worker. */
+        INVOCATION_QUEUE_WAIT,
+        /** Time spent running the handler. */
+        HANDLER,
+        /** Time a result waited for a reporter. */
+        RESULT_QUEUE_WAIT,
+        /** Time spent posting the result to the Runtime API. */
+        REPORT
+    }
+
+    private static final class StageCounters {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -17,18 +17,22 @@ import com.amazonaws.services.lambda.runtime.api.client.api.LambdaCognitoIdentit
 import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import com.amazonaws.services.lambda.runtime.api.client.util.ReusableByteArrayOutputStream;
 import com.amazonaws.services.lambda.runtime.api.client.util.UnsafeUtil;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
 import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
 import com.amazonaws.services.lambda.runtime.serialization.factories.GsonFactory;
 import com.amazonaws.services.lambda.runtime.serialization.factories.JacksonFactory;
-import com.amazonaws.services.lambda.runtime.serialization.util.Functions;
 import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -37,13 +41,16 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import static com.amazonaws.services.lambda.runtime.api.client.UserFault.filterStackTrace;
 import static com.amazonaws.services.lambda.runtime.api.client.UserFault.makeUserFault;
 import static com.amazonaws.services.lambda.runtime.api.client.UserFault.trace;
@@ -51,16 +58,30 @@ import static com.amazonaws.services.lambda.runtime.api.client.UserFault.trace;
 public final class EventHandlerLoader {
     private static final byte[] _JsonNull = new byte[]{'n', 'u', 'l', 'l'};
 
+    // parameters and return type POJO and stream handler methods are adapted to, see adaptHandlerMethod
+    private static final MethodType POJO_METHOD_SHAPE = MethodType.methodType(Object.class, Object.class, Context.class);
+    private static final MethodType STREAM_METHOD_SHAPE =
+            MethodType.methodType(void.class, InputStream.class, OutputStream.class, Context.class);
+    private static final MethodType LOG4J_CONTEXT_PUT_SHAPE = MethodType.methodType(void.class, String.class, String.class);
+
+    // put methods of the log4j 1.x MDC and log4j2 ThreadContext found on the customer class path, resolved once on
+    // the first invocation that needs them rather than with a class lookup and reflection on every invocation
+    private static volatile MethodHandle[] log4jContextPutMethods;
+
     private enum Platform {
         ANDROID,
         IOS,
         UNKNOWN
     }
 
-    private static volatile ThreadLocal<PojoSerializer<LambdaClientContext>> contextSerializer = new ThreadLocal<>();
-    private static volatile ThreadLocal<PojoSerializer<LambdaCognitoIdentity>> cognitoSerializer = new ThreadLocal<>();
+    private static volatile PojoSerializer<LambdaClientContext> contextSerializer;
+    private static volatile PojoSerializer<LambdaCognitoIdentity> cognitoSerializer;
 
-    private static final ThreadLocal<EnumMap<Platform, Map<Type, PojoSerializer<Object>>>> typeCache = ThreadLocal.withInitial(() -> new EnumMap<>(Platform.class));
+    // Serializers are immutable once built, so a single instance per (platform, type) is shared by all threads instead
+    // of every runtime thread building its own copies.
+    private static final EnumMap<Platform, ConcurrentMap<Type, PojoSerializer<Object>>> typeCache = newTypeCache();
+    private static final LongAdder typeCacheHits = new LongAdder();
+    private static final LongAdder typeCacheMisses = new LongAdder();
 
     private static final Comparator<Method> methodPriority = new Comparator<Method>() {
         public int compare(Method lhs, Method rhs) {
@@ -126,35 +147,127 @@ public final class EventHandlerLoader {
         return JacksonFactory.getInstance().getSerializer(type);
     }
 
-    private static PojoSerializer<Object> getSerializerCached(Platform platform, Type type) {
-        EnumMap<Platform, Map<Type, PojoSerializer<Object>>> threadTypeCache = typeCache.get();
-        Map<Type, PojoSerializer<Object>> cache = threadTypeCache.get(platform);
-        if (cache == null) {
-            cache = new HashMap<>();
-            threadTypeCache.put(platform, cache);
+    private static EnumMap<Platform, ConcurrentMap<Type, PojoSerializer<Object>>> newTypeCache() {
+        EnumMap<Platform, ConcurrentMap<Type, PojoSerializer<Object>>> cache = new EnumMap<>(Platform.class);
+        for (Platform platform : Platform.values()) {
+            cache.put(platform, new ConcurrentHashMap<>());
         }
+        return cache;
+    }
+
+    private static PojoSerializer<Object> getSerializerCached(Platform platform, Type type) {
+        ConcurrentMap<Type, PojoSerializer<Object>> cache = typeCache.get(platform);
 
+        // plain get first, computeIfAbsent locks the bin even when the serializer is present
         PojoSerializer<Object> serializer = cache.get(type);
-        if (serializer == null) {
-            serializer = getSerializer(platform, type);
-            cache.put(type, serializer);
+        if (serializer != null) {
+            typeCacheHits.increment();
+            return serializer;
         }
 
-        return serializer;
+        return cache.computeIfAbsent(type, t -> {
+            typeCacheMisses.increment();
+            return getSerializer(platform, t);
+        });
+    }
+
+    /**
+     * @return number of serializer lookups answered from the process-wide serializer cache
+     */
+    public static long getSerializerCacheHits() {
+        return typeCacheHits.sum();
+    }
+
+    /**
+     * @return number of serializers built because the process-wide serializer cache did not have them yet
+     */
+    public static long getSerializerCacheMisses() {
+        return typeCacheMisses.sum();
+    }
+
+    /**
+     * Round-trips a sample value of the given type through its serializer, so that Jackson builds the deserializers
+     * and serializers it would otherwise create on the first invocation. Without a sample event a minimal synthetic
+     * value is used, which materializes the root (de)serializers but not those of properties absent from it.
+     * A failed round-trip only costs the warm-up, so it is logged at debug level, unless the JVM itself is failing.
+     *
+     * @return true if the round-trip succeeded
+     */
+    static boolean warmUpSerializer(Type type, byte[] sampleEvent) {
+        try {
+            PojoSerializer<Object> serializer = getSerializerCached(Platform.UNKNOWN, type);
+            byte[] sample = sampleEvent != null ? sampleEvent : syntheticWarmUpValue(type);
+            Object value = serializer.fromJson(new ByteArrayInputStream(sample));
+            serializer.toJson(value, new ReusableByteArrayOutputStream(sample.length));
+            return true;
+        } catch (VirtualMachineError e) {
+            throw e;
+        } catch (Throwable t) {
+            com.amazonaws.services.lambda.runtime.LambdaRuntime.getLogger().log(
+                    "Serializer warm-up for " + type.getTypeName() + " failed: " + t, LogLevel.DEBUG);
+            return false;
+        }
+    }
+
+    private static byte[] syntheticWarmUpValue(Type type) {
+        Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+        if (!(rawType instanceof Class)) {
+            return _JsonNull;
+        }
+        Class<?> clazz = (Class<?>) rawType;
+        if (CharSequence.class.isAssignableFrom(clazz)) {
+            return new byte[]{'"', '"'};
+        } else if (clazz == boolean.class || clazz == Boolean.class) {
+            return new byte[]{'f', 'a', 'l', 's', 'e'};
+        } else if (clazz.isPrimitive() || Number.class.isAssignableFrom(clazz)) {
+            return new byte[]{'0'};
+        } else if (clazz.isArray() || Collection.class.isAssignableFrom(clazz)) {
+            return new byte[]{'[', ']'};
+        }
+        return new byte[]{'{', '}'};
+    }
+
+    private static byte[] loadWarmUpEvent(String resourceName) {
+        if (resourceName == null) {
+            return null;
+        }
+        ClassLoader classLoader = AWSLambda.getCustomerClassLoader() != null
+                ? AWSLambda.getCustomerClassLoader()
+                : EventHandlerLoader.class.getClassLoader();
+        try (InputStream input = classLoader.getResourceAsStream(resourceName)) {
+            if (input == null) {
+                System.err.println("Serializer warm-up event " + resourceName + " not found on the classpath");
+                return null;
+            }
+            ReusableByteArrayOutputStream output = new ReusableByteArrayOutputStream(4096);
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                output.write(chunk, 0, read);
+            }
+            return output.toByteArray();
+        } catch (IOException e) {
+            System.err.println("Failed to read serializer warm-up event " + resourceName + ": " + e);
+            return null;
+        }
     }
 
     private static PojoSerializer<LambdaClientContext> getContextSerializer() {
-        if (contextSerializer.get() == null) {
-            contextSerializer.set(GsonFactory.getInstance().getSerializer(LambdaClientContext.class));
+        PojoSerializer<LambdaClientContext> serializer = contextSerializer;
+        if (serializer == null) {
+            serializer = GsonFactory.getInstance().getSerializer(LambdaClientContext.class);
+            contextSerializer = serializer;
         }
-        return contextSerializer.get();
+        return serializer;
     }
 
     private static PojoSerializer<LambdaCognitoIdentity> getCognitoSerializer() {
-        if (cognitoSerializer.get() == null) {
-            cognitoSerializer.set(GsonFactory.getInstance().getSerializer(LambdaCognitoIdentity.class));
+        PojoSerializer<LambdaCognitoIdentity> serializer = cognitoSerializer;
+        if (serializer == null) {
+            serializer = GsonFactory.getInstance().getSerializer(LambdaCognitoIdentity.class);
+            cognitoSerializer = serializer;
         }
-        return cognitoSerializer.get();
+        return serializer;
     }
 
 
@@ -528,15 +641,11 @@ public final class EventHandlerLoader {
 
     private static LambdaRequestHandler wrapRequestStreamHandler(final RequestStreamHandler handler) {
         return new LambdaRequestHandler() {
-            private final ThreadLocal<ByteArrayOutputStream> outputBuffers = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
-            private ThreadLocal<Functions.V2<String, String>> log4jContextPutMethod = new ThreadLocal<>();
-
-            private void safeAddRequestIdToLog4j(String log4jContextClassName, InvocationRequest request, Class contextMapValueClass) {
+            private final ThreadLocal<ByteArrayOutputStream> outputBuffers = ThreadLocal.withInitial(() -> new ReusableByteArrayOutputStream(1024));
+            private void safeAddRequestIdToLog4j(MethodHandle log4jContextPutMethod, InvocationRequest request) {
                 try {
-                    Class<?> log4jContextClass = ReflectUtil.loadClass(AWSLambda.getCustomerClassLoader(), log4jContextClassName);
-                    log4jContextPutMethod.set(ReflectUtil.loadStaticV2(log4jContextClass, "put", false, String.class, contextMapValueClass));
-                    log4jContextPutMethod.get().call("AWSRequestId", request.getId());
-                } catch (Exception e) {
+                    log4jContextPutMethod.invokeExact("AWSRequestId", request.getId());
+                } catch (Throwable t) {
                     // nothing to do here
                 }
             }
@@ -557,10 +666,24 @@ public final class EventHandlerLoader {
                 }
             }
 
+            @Override
+            public boolean streamsResponse() {
+                // POJO handlers are adapted to stream handlers, but serialize their result only once they return
+                if (handler instanceof StreamMethodRequestHandler) {
+                    return ((StreamMethodRequestHandler) handler).needsOutput;
+                }
+                return !(handler instanceof PojoHandlerAsStreamHandler);
+            }
+
             public ByteArrayOutputStream call(InvocationRequest request) throws Error, Exception {
                 ByteArrayOutputStream output = outputBuffers.get();
                 output.reset();
+                call(request, output);
+                return output;
+            }
 
+            @Override
+            public void call(InvocationRequest request, OutputStream output) throws Error, Exception {
                 LambdaCognitoIdentity cognitoIdentity = null;
                 if (request.getCognitoIdentity() != null && !request.getCognitoIdentity().isEmpty()) {
                     cognitoIdentity = getCognitoSerializer().fromJson(request.getCognitoIdentity());
@@ -590,23 +713,62 @@ public final class EventHandlerLoader {
                 safeAddContextToLambdaLogger(context);
 
                 if (LambdaRuntimeInternal.getUseLog4jAppender()) {
-                    safeAddRequestIdToLog4j("org.apache.log4j.MDC", request, Object.class);
-                    safeAddRequestIdToLog4j("org.apache.logging.log4j.ThreadContext", request, String.class);
-                    // if put method not assigned in either call to safeAddRequestIdtoLog4j then log4jContextPutMethod = null
-                    if (log4jContextPutMethod.get() == null) {
+                    MethodHandle[] putMethods = getLog4jContextPutMethods();
+                    for (MethodHandle putMethod : putMethods) {
+                        safeAddRequestIdToLog4j(putMethod, request);
+                    }
+                    if (putMethods.length == 0) {
                         System.err.println("Customer using log4j appender but unable to load either " 
                             + "org.apache.log4j.MDC or org.apache.logging.log4j.ThreadContext. " 
                             + "Customer cannot see RequestId in log4j log lines.");
                     }
                 }
 
-                ByteArrayInputStream bais = new ByteArrayInputStream(request.getContent());
-                handler.handleRequest(bais, output, context);
-                return output;
+                handler.handleRequest(request.getContentAsStream(), output, context);
             }
         };
     }
 
+    private static MethodHandle[] getLog4jContextPutMethods() {
+        MethodHandle[] putMethods = log4jContextPutMethods;
+        if (putMethods == null) {
+            MethodHandle mdcPut = findLog4jContextPutMethod("org.apache.log4j.MDC", Object.class);
+            MethodHandle threadContextPut = findLog4jContextPutMethod("org.apache.logging.log4j.ThreadContext", String.class);
+            putMethods = Arrays.stream(new MethodHandle[]{mdcPut, threadContextPut}).filter(Objects::nonNull).toArray(MethodHandle[]::new);
+            log4jContextPutMethods = putMethods;
+        }
+        return putMethods;
+    }
+
+    private static MethodHandle findLog4jContextPutMethod(String log4jContextClassName, Class<?> contextMapValueClass) {
+        try {
+            Class<?> log4jContextClass = ReflectUtil.loadClass(AWSLambda.getCustomerClassLoader(), log4jContextClassName);
+            MethodType putType = MethodType.methodType(void.class, String.class, contextMapValueClass);
+            return MethodHandles.publicLookup().findStatic(log4jContextClass, "put", putType).asType(LOG4J_CONTEXT_PUT_SHAPE);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a method handle that calls {@code m} on {@code instance} with the parameters of {@code shape}, skipping
+     * the ones {@code m} does not take. Unlike Method.invoke, calling it allocates no argument array and does not wrap
+     * exceptions thrown by the handler in an InvocationTargetException.
+     */
+    private static MethodHandle adaptHandlerMethod(Method m, Object instance, MethodType shape, boolean... takesParameter)
+            throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(m);
+        if (instance != null) {
+            handle = handle.bindTo(instance);
+        }
+        for (int i = 0; i < takesParameter.length; i++) {
+            if (!takesParameter[i]) {
+                handle = MethodHandles.dropArguments(handle, i, shape.parameterType(i));
+            }
+        }
+        return handle.asType(shape);
+    }
+
     /**
      * Wraps a RequestHandler as a lower level stream handler using supplied types.
      * Optional types mean that the input and/or output should be ignored respectiveley
@@ -635,6 +797,11 @@ public final class EventHandlerLoader {
             if (outputType.isPresent()) {
                 getSerializerCached(Platform.UNKNOWN, outputType.get());
             }
+
+            if (LambdaEnvironment.SERIALIZER_WARMUP) {
+                inputType.ifPresent(type -> warmUpSerializer(type, loadWarmUpEvent(LambdaEnvironment.SERIALIZER_WARMUP_EVENT)));
+                outputType.ifPresent(type -> warmUpSerializer(type, null));
+            }
         }
 
         @SuppressWarnings("unchecked")
@@ -681,14 +848,15 @@ public final class EventHandlerLoader {
         public final Type pType;
         public final Object instance;
         public final boolean needsContext;
-        public final int argSize;
+        private final MethodHandle invoker;
 
-        public PojoMethodRequestHandler(Method m, Type pType, Type rType, Object instance, boolean needsContext) {
+        public PojoMethodRequestHandler(Method m, Type pType, Type rType, Object instance, boolean needsContext)
+                throws IllegalAccessException {
             this.m = m;
             this.pType = pType;
             this.instance = instance;
             this.needsContext = needsContext;
-            this.argSize = (needsContext ? 1 : 0) + (pType != null ? 1 : 0);
+            this.invoker = adaptHandlerMethod(m, instance, POJO_METHOD_SHAPE, pType != null, needsContext);
         }
 
         public static PojoMethodRequestHandler fromMethod(
@@ -726,25 +894,8 @@ public final class EventHandlerLoader {
 
         @Override
         public Object handleRequest(Object input, Context context) {
-            final Object[] args = new Object[argSize];
-            int idx = 0;
-
-            if (pType != null) {
-                args[idx++] = input;
-            }
-
-            if (this.needsContext) {
-                args[idx++] = context;
-            }
-
             try {
-                return m.invoke(this.instance, args);
-            } catch (InvocationTargetException e) {
-                if (e.getCause() != null) {
-                    throw UnsafeUtil.throwException(filterStackTrace(e.getCause()));
-                } else {
-                    throw UnsafeUtil.throwException(filterStackTrace(e));
-                }
+                return (Object) invoker.invokeExact(input, context);
             } catch (Throwable t) {
                 throw UnsafeUtil.throwException(filterStackTrace(t));
             }
@@ -760,7 +911,7 @@ public final class EventHandlerLoader {
         public final boolean needsInput;
         public final boolean needsOutput;
         public final boolean needsContext;
-        public final int argSize;
+        private final MethodHandle invoker;
 
         public StreamMethodRequestHandler(
                 Method m,
@@ -768,13 +919,13 @@ public final class EventHandlerLoader {
                 boolean needsInput,
                 boolean needsOutput,
                 boolean needsContext
-        ) {
+        ) throws IllegalAccessException {
             this.m = m;
             this.instance = instance;
             this.needsInput = needsInput;
             this.needsOutput = needsOutput;
             this.needsContext = needsContext;
-            this.argSize = (needsInput ? 1 : 0) + (needsOutput ? 1 : 0) + (needsContext ? 1 : 0);
+            this.invoker = adaptHandlerMethod(m, instance, STREAM_METHOD_SHAPE, needsInput, needsOutput, needsContext);
         }
 
         public static StreamMethodRequestHandler fromMethod(
@@ -813,34 +964,15 @@ public final class EventHandlerLoader {
         @Override
         public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
                 throws IOException {
-            final Object[] args = new Object[argSize];
-            int idx = 0;
-
-            if (needsInput) {
-                args[idx++] = inputStream;
-            } else {
+            if (!needsInput) {
                 inputStream.close();
             }
 
-            if (needsOutput) {
-                args[idx++] = outputStream;
-            }
-
-            if (needsContext) {
-                args[idx++] = context;
-            }
-
             try {
-                m.invoke(this.instance, args);
+                invoker.invokeExact(inputStream, outputStream, context);
                 if (!needsOutput) {
                     outputStream.write(_JsonNull);
                 }
-            } catch (InvocationTargetException e) {
-                if (e.getCause() != null) {
-                    throw UnsafeUtil.throwException(filterStackTrace(e.getCause()));
-                } else {
-                    throw UnsafeUtil.throwException(filterStackTrace(e));
-                }
             } catch (Throwable t) {
                 throw UnsafeUtil.throwException(filterStackTrace(t));
             }
@@ -9,6 +9,17 @@ import com.amazonaws.services.lambda.runtime.api.client.util.EnvReader;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_FUNCTION_MEMORY_SIZE;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_FUNCTION_NAME;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_FUNCTION_VERSION;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_ASYNC_LOGGING;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_CAPTURE_STDOUT;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_DIRECT_PAYLOAD_BUFFER;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_LOG_METRICS;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_LOG_RATE_LIMIT;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_LOG_SAMPLE_RATE;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_LOG_SUPPRESS_DUPLICATES;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_RESPONSE_STREAMING;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_RESPONSE_STREAMING_CONTENT_TYPE;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_SERIALIZER_WARMUP;
+import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_SERIALIZER_WARMUP_EVENT;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_LOG_FORMAT;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_LOG_GROUP_NAME;
 import static com.amazonaws.services.lambda.runtime.api.client.ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_LOG_LEVEL;
@@ -23,7 +34,19 @@ public class LambdaEnvironment {
     public static final String LOG_STREAM_NAME = ENV_READER.getEnv(AWS_LAMBDA_LOG_STREAM_NAME);
     public static final String LAMBDA_LOG_LEVEL = ENV_READER.getEnvOrDefault(AWS_LAMBDA_LOG_LEVEL, "UNDEFINED");
     public static final String LAMBDA_LOG_FORMAT = ENV_READER.getEnvOrDefault(AWS_LAMBDA_LOG_FORMAT, "TEXT");
+    public static final String LOG_RATE_LIMIT = ENV_READER.getEnv(AWS_LAMBDA_JAVA_LOG_RATE_LIMIT);
+    public static final String LOG_SAMPLE_RATE = ENV_READER.getEnv(AWS_LAMBDA_JAVA_LOG_SAMPLE_RATE);
+    public static final boolean LOG_SUPPRESS_DUPLICATES = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_LOG_SUPPRESS_DUPLICATES));
     public static final String FUNCTION_NAME = ENV_READER.getEnv(AWS_LAMBDA_FUNCTION_NAME);
     public static final String FUNCTION_VERSION = ENV_READER.getEnv(AWS_LAMBDA_FUNCTION_VERSION);
     public static final String RUNTIME_API = ENV_READER.getEnv(AWS_LAMBDA_RUNTIME_API);
+    public static final boolean DIRECT_PAYLOAD_BUFFER = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_DIRECT_PAYLOAD_BUFFER));
+    public static final boolean RESPONSE_STREAMING = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_RESPONSE_STREAMING));
+    public static final String RESPONSE_STREAMING_CONTENT_TYPE = ENV_READER.getEnvOrDefault(AWS_LAMBDA_JAVA_RESPONSE_STREAMING_CONTENT_TYPE, "application/octet-stream");
+    public static final String SERIALIZER_WARMUP_EVENT = ENV_READER.getEnv(AWS_LAMBDA_JAVA_SERIALIZER_WARMUP_EVENT);
+    public static final boolean SERIALIZER_WARMUP = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_SERIALIZER_WARMUP))
+            || SERIALIZER_WARMUP_EVENT != null;
+    public static final boolean ASYNC_LOGGING = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_ASYNC_LOGGING));
+    public static final boolean CAPTURE_STDOUT = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_CAPTURE_STDOUT));
+    public static final boolean LOG_METRICS = Boolean.parseBoolean(ENV_READER.getEnv(AWS_LAMBDA_JAVA_LOG_METRICS));
 }
@@ -7,10 +7,27 @@ package com.amazonaws.services.lambda.runtime.api.client;
 
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 public interface LambdaRequestHandler {
     ByteArrayOutputStream call(InvocationRequest request) throws Error, Exception;
 
+    /**
+     * Writes the response to {@code output} as it is produced. Handlers that cannot stream fall back to buffering the
+     * whole response first.
+     */
+    default void call(InvocationRequest request, OutputStream output) throws Error, Exception {
+        call(request).writeTo(output);
+    }
+
+    /**
+     * Whether the handler writes its response to the output stream itself, as a RequestStreamHandler does. Only then
+     * can the response be streamed, other handlers produce the whole response before any of it is written.
+     */
+    default boolean streamsResponse() {
+        return false;
+    }
+
     static LambdaRequestHandler initErrorHandler(final Throwable e, String className) {
         return new UserFaultHandler(UserFault.makeInitErrorUserFault(e, className));
     }
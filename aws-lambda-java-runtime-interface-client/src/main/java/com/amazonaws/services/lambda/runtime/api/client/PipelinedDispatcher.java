@@ -0,0 +1,284 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client;
+
+import com.amazonaws.services.lambda.runtime.api.client.DispatcherMetrics.Stage;
+import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.InvocationResponseStream;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClient;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeClientMaxRetriesExceededException;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import com.amazonaws.services.lambda.runtime.api.client.util.ReusableByteArrayOutputStream;
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.utilslite.SdkInternalThreadLocal;
+
+/**
+ * Runs multi-concurrent invocations as a pipeline instead of a next-handle-post loop per thread.
+ *
+ * Poller threads fetch invocations and hand them to handler workers through a bounded queue, and reporter threads
+ * post the results. The next long-poll therefore no longer waits for the previous response post, and network
+ * round-trips overlap with handler work. Handler output is written into buffers from a shared pool that the reporter
+ * returns once the response is posted, so results cross threads without being copied. Streamed responses are
+ * written by the worker itself, because their native state belongs to the thread that opened them. A semaphore with
+ * one permit per worker is taken before every poll and given back once the invocation is reported, so no more
+ * invocations are fetched than the workers can run, however far the handlers fall behind.
+ *
+ * Like the multi-concurrent runtime loop, the dispatcher only stops once polling fails with
+ * LambdaRuntimeClientMaxRetriesExceededException on every poller.
+ */
+class PipelinedDispatcher {
+
+    private static final Invocation STOP = new Invocation(null);
+
+    private final LambdaRequestHandler lambdaRequestHandler;
+    private final LambdaContextLogger lambdaLogger;
+    private final LambdaRuntimeApiClient runtimeClient;
+    private final int numberOfPollers;
+    private final int numberOfWorkers;
+    private final int numberOfReporters;
+    private final boolean streamResponse;
+    private final BlockingQueue<Invocation> invocations;
+    private final BlockingQueue<Invocation> results;
+    private final BlockingQueue<ReusableByteArrayOutputStream> outputBuffers;
+    private final Semaphore inFlightInvocations;
+    private final DispatcherMetrics metrics;
+
+    PipelinedDispatcher(LambdaRequestHandler lambdaRequestHandler, LambdaContextLogger lambdaLogger, LambdaRuntimeApiClient runtimeClient,
+                        int numberOfPollers, int numberOfWorkers, int numberOfReporters, boolean streamResponse) {
+        this.lambdaRequestHandler = lambdaRequestHandler;
+        this.lambdaLogger = lambdaLogger;
+        this.runtimeClient = runtimeClient;
+        this.numberOfPollers = numberOfPollers;
+        this.numberOfWorkers = numberOfWorkers;
+        this.numberOfReporters = numberOfReporters;
+        this.streamResponse = streamResponse;
+        this.invocations = new ArrayBlockingQueue<>(numberOfWorkers);
+        this.results = new ArrayBlockingQueue<>(numberOfWorkers);
+        // one buffer per worker plus one per queued result, so workers only wait on buffers when reporters fall behind
+        this.outputBuffers = new ArrayBlockingQueue<>(2 * numberOfWorkers);
+        for (int i = 0; i < 2 * numberOfWorkers; i++) {
+            outputBuffers.add(new ReusableByteArrayOutputStream(1024));
+        }
+        this.inFlightInvocations = new Semaphore(numberOfWorkers);
+        this.metrics = new DispatcherMetrics(invocations, results);
+    }
+
+    DispatcherMetrics getMetrics() {
+        return metrics;
+    }
+
+    void run() throws InterruptedException {
+        DispatcherMetrics.setCurrent(metrics);
+        ExecutorService reporterExecutor = Executors.newFixedThreadPool(numberOfReporters);
+        ExecutorService workerExecutor = Executors.newFixedThreadPool(numberOfWorkers);
+        ExecutorService pollerExecutor = Executors.newFixedThreadPool(numberOfPollers);
+        try {
+            for (int i = 0; i < numberOfReporters; i++) {
+                reporterExecutor.submit(this::reportResults);
+            }
+            for (int i = 0; i < numberOfWorkers; i++) {
+                workerExecutor.submit(this::handleInvocations);
+            }
+            for (int i = 0; i < numberOfPollers; i++) {
+                pollerExecutor.submit(this::pollInvocationsUntilFailure);
+            }
+        } finally {
+            // drain the pipeline stage by stage once polling has stopped
+            stop(pollerExecutor, null, 0);
+            stop(workerExecutor, invocations, numberOfWorkers);
+            stop(reporterExecutor, results, numberOfReporters);
+            lambdaLogger.log(metrics.toString(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.DEBUG : LogLevel.UNDEFINED);
+        }
+    }
+
+    private static void stop(ExecutorService executor, BlockingQueue<Invocation> queue, int numberOfConsumers) throws InterruptedException {
+        executor.shutdown();
+        if (queue != null) {
+            for (int i = 0; i < numberOfConsumers; i++) {
+                queue.put(STOP);
+            }
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    private void pollInvocationsUntilFailure() {
+        try {
+            pollInvocations();
+        } catch (Exception e) {
+            lambdaLogger.log(String.format("Runtime Loop on Thread ID: %s Failed.\n%s", Thread.currentThread().getName(), UserFault.trace(e)),
+                    lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+        }
+    }
+
+    private void pollInvocations() throws Exception {
+        while (true) {
+            inFlightInvocations.acquire();
+            InvocationRequest request;
+            long start = System.nanoTime();
+            try {
+                request = runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger);
+            } catch (Throwable t) {
+                inFlightInvocations.release();
+                if (t instanceof LambdaRuntimeClientMaxRetriesExceededException) {
+                    throw t;
+                }
+
+                AWSLambda.reportNonLoopTerminatingException(lambdaLogger, t);
+                continue;
+            }
+            metrics.record(Stage.POLL, System.nanoTime() - start);
+
+            // a direct payload buffer belongs to this poller and is overwritten by its next poll
+            request.detachContentBuffer();
+            Invocation invocation = new Invocation(request);
+            invocation.enqueuedNanos = System.nanoTime();
+            invocations.put(invocation);
+            metrics.recordQueueDepths();
+        }
+    }
+
+    private void handleInvocations() {
+        while (true) {
+            Invocation invocation;
+            try {
+                invocation = invocations.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (invocation == STOP) {
+                return;
+            }
+
+            boolean queued = false;
+            try {
+                long start = System.nanoTime();
+                metrics.record(Stage.INVOCATION_QUEUE_WAIT, start - invocation.enqueuedNanos);
+
+                boolean reported = handleInvocation(invocation);
+                metrics.record(Stage.HANDLER, System.nanoTime() - start);
+                if (!reported) {
+                    // the reporter flushes the logger, but log filters keep per-thread state that only this thread sees
+                    lambdaLogger.flushLogFilters();
+                    invocation.enqueuedNanos = System.nanoTime();
+                    results.put(invocation);
+                    queued = true;
+                    metrics.recordQueueDepths();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                AWSLambda.reportNonLoopTerminatingException(lambdaLogger, t);
+            } finally {
+                // otherwise the reporter gives the permit back once it has posted the result
+                if (!queued) {
+                    inFlightInvocations.release();
+                }
+            }
+        }
+    }
+
+    /*
+     * Runs the handler. Returns true if the result was already reported, which is the case for streamed responses.
+     */
+    private boolean handleInvocation(Invocation invocation) throws Exception {
+        InvocationRequest request = invocation.request;
+        SdkInternalThreadLocal.put(AWSLambda.CONCURRENT_TRACE_ID_KEY, request.getXrayTraceId());
+        InvocationResponseStream responseStream = null;
+        try {
+            if (streamResponse && lambdaRequestHandler.streamsResponse()) {
+                responseStream = runtimeClient.openInvocationResponseStream(request.getId(), LambdaEnvironment.RESPONSE_STREAMING_CONTENT_TYPE);
+                // the invocation's logs are written before the response ends, also when the handler closes the stream
+                responseStream.beforeFinish(lambdaLogger::flush);
+                lambdaRequestHandler.call(request, responseStream);
+                responseStream.close();
+                return true;
+            }
+            invocation.output = outputBuffers.take();
+            invocation.output.reset();
+            lambdaRequestHandler.call(request, invocation.output);
+            // clear interrupted flag in case if it was set by user's code
+            Thread.interrupted();
+            return false;
+        } catch (Throwable t) {
+            UserFault.filterStackTrace(t);
+            invocation.userFault = UserFault.makeUserFault(t);
+            invocation.error = AWSLambda.createLambdaErrorFromThrowableOrUserFault(t);
+            if (responseStream != null && responseStream.isStarted()) {
+                // part of the response is already sent, so the error goes into the response trailers
+                logUserFault(invocation);
+                lambdaLogger.flush();
+                AWSLambda.closeWithError(lambdaLogger, responseStream, invocation.error);
+                return true;
+            }
+            return false;
+        } finally {
+            SdkInternalThreadLocal.remove(AWSLambda.CONCURRENT_TRACE_ID_KEY);
+        }
+    }
+
+    private void reportResults() {
+        while (true) {
+            Invocation invocation;
+            try {
+                invocation = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (invocation == STOP) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            metrics.record(Stage.RESULT_QUEUE_WAIT, start - invocation.enqueuedNanos);
+            try {
+                logUserFault(invocation);
+                lambdaLogger.flush();
+                if (invocation.error == null) {
+                    AWSLambda.reportInvocationSuccess(runtimeClient, invocation.request.getId(), invocation.output);
+                } else {
+                    runtimeClient.reportInvocationError(invocation.request.getId(), invocation.error);
+                }
+            } catch (Throwable t) {
+                AWSLambda.reportNonLoopTerminatingException(lambdaLogger, t);
+            } finally {
+                if (invocation.output != null) {
+                    outputBuffers.offer(invocation.output);
+                }
+                inFlightInvocations.release();
+            }
+            metrics.record(Stage.REPORT, System.nanoTime() - start);
+        }
+    }
+
+    private void logUserFault(Invocation invocation) {
+        if (invocation.userFault != null) {
+            lambdaLogger.log(invocation.userFault.reportableError(), lambdaLogger.getLogFormat() == LogFormat.JSON ? LogLevel.ERROR : LogLevel.UNDEFINED);
+        }
+    }
+
+    private static final class Invocation {
+        final InvocationRequest request;
+        long enqueuedNanos;
+        ReusableByteArrayOutputStream output;
+        LambdaError error;
+        UserFault userFault;
+
+        Invocation(InvocationRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client;
+
+import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.InvocationResponseStream;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClient;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runtime API client for handlers running on virtual threads. Responses and invocation errors are posted through JNI
+ * calls that block in native code, which would pin the carrier thread of the calling virtual thread for the whole
+ * request. The posts are therefore handed to a pool of platform threads, and the virtual thread parks until they are
+ * done.
+ */
+final class PlatformThreadRuntimeApiClient implements LambdaRuntimeApiClient {
+
+    private final LambdaRuntimeApiClient runtimeClient;
+    private final ExecutorService reporterExecutor;
+
+    PlatformThreadRuntimeApiClient(LambdaRuntimeApiClient runtimeClient, ExecutorService reporterExecutor) {
+        this.runtimeClient = runtimeClient;
+        this.reporterExecutor = reporterExecutor;
+    }
+
+    @Override
+    public void reportInitError(LambdaError error) throws IOException {
+        runtimeClient.reportInitError(error);
+    }
+
+    @Override
+    public InvocationRequest nextInvocation() throws IOException {
+        return runtimeClient.nextInvocation();
+    }
+
+    @Override
+    public InvocationRequest nextInvocationWithExponentialBackoff(LambdaContextLogger lambdaLogger) throws Exception {
+        return runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger);
+    }
+
+    @Override
+    public void reportInvocationSuccess(String requestId, byte[] response) throws IOException {
+        onReporterThread(() -> {
+            runtimeClient.reportInvocationSuccess(requestId, response);
+            return null;
+        });
+    }
+
+    @Override
+    public void reportInvocationSuccess(String requestId, byte[] response, int length) throws IOException {
+        onReporterThread(() -> {
+            runtimeClient.reportInvocationSuccess(requestId, response, length);
+            return null;
+        });
+    }
+
+    @Override
+    public InvocationResponseStream openInvocationResponseStream(String requestId, String contentType) throws IOException {
+        return runtimeClient.openInvocationResponseStream(requestId, contentType);
+    }
+
+    @Override
+    public void reportInvocationError(String requestId, LambdaError error) throws IOException {
+        onReporterThread(() -> {
+            runtimeClient.reportInvocationError(requestId, error);
+            return null;
+        });
+    }
+
+    @Override
+    public void restoreNext() throws IOException {
+        runtimeClient.restoreNext();
+    }
+
+    @Override
+    public void reportRestoreError(LambdaError error) throws IOException {
+        runtimeClient.reportRestoreError(error);
+    }
+
+    /*
+     * Waits for the post even if the calling thread is interrupted, so a response is never left half sent. The
+     * interrupt is restored afterwards.
+     */
+    private void onReporterThread(Callable<Void> post) throws IOException {
+        Future<Void> result = reporterExecutor.submit(post);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    result.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
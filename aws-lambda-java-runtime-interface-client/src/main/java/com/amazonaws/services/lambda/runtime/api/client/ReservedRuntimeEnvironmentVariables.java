@@ -112,4 +112,83 @@ public interface ReservedRuntimeEnvironmentVariables {
      * Otherwise, if it is set to an invalid value, it will crash the whole RIC process.
      */
     String AWS_LAMBDA_MAX_CONCURRENCY = "AWS_LAMBDA_MAX_CONCURRENCY";
+
+    /*
+     * If set to "true", invocation payloads are handed to the handler straight from the native receive buffer,
+     * without copying them into a byte[] on the Java heap.
+     */
+    String AWS_LAMBDA_JAVA_DIRECT_PAYLOAD_BUFFER = "AWS_LAMBDA_JAVA_DIRECT_PAYLOAD_BUFFER";
+
+    /*
+     * If set to "true", the output of RequestStreamHandler handlers is streamed to the Runtime API as it is written and
+     * flushed, using the streaming response mode, instead of being buffered until the handler returns. Handlers that
+     * return their result are always posted buffered.
+     */
+    String AWS_LAMBDA_JAVA_RESPONSE_STREAMING = "AWS_LAMBDA_JAVA_RESPONSE_STREAMING";
+
+    /*
+     * Content type of streamed responses. Defaults to "application/octet-stream".
+     */
+    String AWS_LAMBDA_JAVA_RESPONSE_STREAMING_CONTENT_TYPE = "AWS_LAMBDA_JAVA_RESPONSE_STREAMING_CONTENT_TYPE";
+
+    /*
+     * If set to "true" together with AWS_LAMBDA_MAX_CONCURRENCY, handlers run on virtual threads (Java 21+)
+     * instead of one platform thread per concurrent invocation.
+     */
+    String AWS_LAMBDA_JAVA_VIRTUAL_THREADS = "AWS_LAMBDA_JAVA_VIRTUAL_THREADS";
+
+    /*
+     * If set to "true" together with AWS_LAMBDA_MAX_CONCURRENCY, dedicated threads poll for invocations and report
+     * results, so the next long-poll overlaps with handler work and response posts.
+     */
+    String AWS_LAMBDA_JAVA_PIPELINED_DISPATCHER = "AWS_LAMBDA_JAVA_PIPELINED_DISPATCHER";
+
+    /*
+     * If set to "true", the serializers for the handler's input and output types are exercised with a synthetic
+     * round-trip while the handler is loaded, so the first invocation does not pay for building them.
+     */
+    String AWS_LAMBDA_JAVA_SERIALIZER_WARMUP = "AWS_LAMBDA_JAVA_SERIALIZER_WARMUP";
+
+    /*
+     * Name of a classpath resource holding a representative input event. When set, the event is round-tripped
+     * through the input serializer during the warm-up instead of a synthetic value, and the warm-up is enabled.
+     */
+    String AWS_LAMBDA_JAVA_SERIALIZER_WARMUP_EVENT = "AWS_LAMBDA_JAVA_SERIALIZER_WARMUP_EVENT";
+
+    /*
+     * If set to "true", log messages are queued and written by a background thread in batches. Pending messages
+     * are flushed before each invocation response is posted and before a SnapStart checkpoint.
+     */
+    String AWS_LAMBDA_JAVA_ASYNC_LOGGING = "AWS_LAMBDA_JAVA_ASYNC_LOGGING";
+
+    /*
+     * If set to "true" and the runtime logs to the telemetry FD, System.out and System.err are written to the log
+     * sink as framed messages, one per completed print, instead of being passed through to the process's stdout.
+     */
+    String AWS_LAMBDA_JAVA_CAPTURE_STDOUT = "AWS_LAMBDA_JAVA_CAPTURE_STDOUT";
+
+    /*
+     * If set to "true", the runtime ends the logs of each invocation with a CloudWatch embedded metric format line
+     * reporting how many log messages and bytes the invocation wrote and how long logging took. Only used when the
+     * function handles one invocation at a time.
+     */
+    String AWS_LAMBDA_JAVA_LOG_METRICS = "AWS_LAMBDA_JAVA_LOG_METRICS";
+
+    /*
+     * Maximum number of log messages per second, either one number for every level or LEVEL=limit pairs separated by
+     * commas, e.g. "WARN=100,INFO=500". Messages logged without a level are not limited.
+     */
+    String AWS_LAMBDA_JAVA_LOG_RATE_LIMIT = "AWS_LAMBDA_JAVA_LOG_RATE_LIMIT";
+
+    /*
+     * Fraction of requests whose log messages are kept, as LEVEL=rate pairs separated by commas, e.g. "DEBUG=0.01"
+     * keeps DEBUG messages for 1% of requests. The level must also be enabled by AWS_LAMBDA_LOG_LEVEL.
+     */
+    String AWS_LAMBDA_JAVA_LOG_SAMPLE_RATE = "AWS_LAMBDA_JAVA_LOG_SAMPLE_RATE";
+
+    /*
+     * If set to "true", a log message that repeats the previous one is dropped and the number of repeats is logged
+     * once a different message is logged.
+     */
+    String AWS_LAMBDA_JAVA_LOG_SUPPRESS_DUPLICATES = "AWS_LAMBDA_JAVA_LOG_SUPPRESS_DUPLICATES";
 }
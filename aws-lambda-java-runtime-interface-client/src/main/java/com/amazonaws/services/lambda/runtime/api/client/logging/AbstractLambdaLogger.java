@@ -7,8 +7,13 @@ package com.amazonaws.services.lambda.runtime.api.client.logging;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.logging.LogBuilder;
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -17,12 +22,21 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * void logMessage(byte[] message, LogLevel logLevel);
  */
 public abstract class AbstractLambdaLogger implements LambdaLogger {
+    private static final ThreadLocal<LogBuffer> logBuffer = ThreadLocal.withInitial(LogBuffer::new);
+    private static final ThreadLocal<StructuredLogBuilder> logBuilder = ThreadLocal.withInitial(StructuredLogBuilder::new);
+
     protected final LogFormat logFormat;
     private final LogFiltering logFiltering;
     private final LogFormatter logFormatter;
+    // writes the notices of the filter chain, such as counts of dropped messages, without filtering them
+    private final BiConsumer<LogLevel, String> filterNotices = (logLevel, message) -> writeMessage(logLevel, message, null);
 
     public AbstractLambdaLogger(LogLevel logLevel, LogFormat logFormat) {
-        this.logFiltering = new LogFiltering(logLevel);
+        this(logLevel, logFormat, Collections.emptyList());
+    }
+
+    public AbstractLambdaLogger(LogLevel logLevel, LogFormat logFormat, List<LogFilter> logFilters) {
+        this.logFiltering = new LogFiltering(logLevel, logFilters);
 
         this.logFormat = logFormat;
         if (logFormat == LogFormat.JSON) {
@@ -39,21 +53,48 @@ public abstract class AbstractLambdaLogger implements LambdaLogger {
         logMessage(messageBytes, logLevel);
     }
 
+    /**
+     * Logs length bytes of message starting at offset. The array is reused for the next message formatted on this
+     * thread, so the default implementation hands a copy to {@link #logMessage(byte[], LogLevel)}; loggers whose sink
+     * consumes the bytes before returning should override it.
+     */
+    protected void logMessage(byte[] message, int offset, int length, LogLevel logLevel) {
+        logMessage(Arrays.copyOfRange(message, offset, offset + length), logLevel);
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel logLevel) {
+        return logFiltering.isEnabled(logLevel);
+    }
+
     @Override
     public void log(String message, LogLevel logLevel) {
-        if (logFiltering.isEnabled(logLevel)) {
-            this.logMessage(logFormatter.format(message, logLevel), logLevel);
+        if (logFiltering.accept(logLevel, message, filterNotices)) {
+            writeMessage(logLevel, message, null);
+        }
+    }
+
+    void log(String message, LogLevel logLevel, LogFields fields) {
+        if (logFiltering.accept(logLevel, message, filterNotices)) {
+            writeMessage(logLevel, message, fields);
         }
     }
 
     @Override
     public void log(byte[] message, LogLevel logLevel) {
-        if (logFiltering.isEnabled(logLevel)) {
+        if (logFiltering.accept(logLevel, null, filterNotices)) {
             // there is no formatting for byte[] messages
             this.logMessage(message, logLevel);
         }
     }
 
+    @Override
+    public void log(byte[] message, int offset, int length, LogLevel logLevel) {
+        if (logFiltering.accept(logLevel, null, filterNotices)) {
+            this.logMessage(message, offset, length, logLevel);
+        }
+    }
+
     @Override
     public void log(String message) {
         this.log(message, LogLevel.UNDEFINED);
@@ -64,11 +105,52 @@ public abstract class AbstractLambdaLogger implements LambdaLogger {
         this.log(message, LogLevel.UNDEFINED);
     }
 
+    @Override
+    public LogBuilder atLevel(LogLevel logLevel) {
+        if (!logFiltering.isEnabled(logLevel)) {
+            return LogBuilder.NOOP;
+        }
+        StructuredLogBuilder builder = logBuilder.get();
+        if (builder.isInUse()) {
+            builder = new StructuredLogBuilder();
+        }
+        return builder.start(this, logLevel);
+    }
+
     public void setLambdaContext(LambdaContext lambdaContext) {
         this.logFormatter.setLambdaContext(lambdaContext);
+        this.logFiltering.setLambdaContext(lambdaContext);
+    }
+
+    /**
+     * Writes the notices the filter chain is still holding back, such as the number of messages it dropped. Filters
+     * that keep state per thread only report the state of the calling thread.
+     */
+    public void flushLogFilters() {
+        logFiltering.flush(filterNotices);
     }
 
     public LogFormat getLogFormat() {
         return logFormat;
     }
+
+    private void writeMessage(LogLevel logLevel, String message, LogFields fields) {
+        LogBuffer buffer = logBuffer.get();
+        buffer.reset();
+        long start = System.nanoTime();
+        if (fields == null) {
+            logFormatter.format(message, logLevel, buffer);
+        } else {
+            logFormatter.format(message, logLevel, fields, buffer);
+        }
+        LoggingMetrics.recordFormatting(System.nanoTime() - start);
+        this.logMessage(buffer.array(), 0, buffer.size(), logLevel);
+    }
+
+    /**
+     * Returns the level below which messages are dropped. UNDEFINED means that all messages are written.
+     */
+    public LogLevel getMinimumLogLevel() {
+        return logFiltering.getMinimumLogLevel();
+    }
 }
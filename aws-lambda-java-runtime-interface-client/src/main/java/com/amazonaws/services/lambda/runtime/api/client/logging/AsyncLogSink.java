@@ -0,0 +1,252 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AsyncLogSink takes log writes off the logging threads. Messages are copied into a bounded multi-producer,
+ * single-consumer ring buffer and a single writer thread hands everything that is pending to the underlying sink as one
+ * batch, so concurrent handlers neither contend on the sink's monitor nor wait for its write syscalls.
+ * <p>
+ * Producers claim ring slots with a CAS on the tail sequence and publish them through a per-slot sequence number, in
+ * the style of Dmitry Vyukov's bounded queue, so logging never takes a lock. Messages keep the order in which their slots
+ * were claimed. When the ring is full, producers wait for the writer rather than dropping messages.
+ * <p>
+ * Messages are only guaranteed to be written once {@link #flush()} returns, which the runtime calls before it posts an
+ * invocation's response and before a SnapStart checkpoint. Once the sink is closed, messages are written directly; a
+ * message whose slot was claimed after the writer thread stopped is written by the thread that logged it.
+ */
+public class AsyncLogSink implements LogSink {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    // message arrays grown past this size for a single large message are released once it is written, so the ring
+    // retains at most capacity * 4 KB between bursts of large messages
+    private static final int MAX_RETAINED_MESSAGE_LENGTH = 4 * 1024;
+    private static final long FULL_RING_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long FLUSH_WAIT_MILLIS = 10;
+    // the process's stderr as it was before the runtime captured System.err into the log sink. The writer thread
+    // reports failed writes there, since a report through the captured stream would be queued behind itself
+    private static final PrintStream STDERR = System.err;
+
+    private final LogSink sink;
+    private final LogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // next sequence to be claimed by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // sequence of the oldest record not yet written, only advanced by the writer thread
+    private volatile long head;
+
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    private final Object flushLock = new Object();
+    // taken by the threads writing the records that are left once the writer thread has stopped
+    private final Object closedWriteLock = new Object();
+    private final AtomicInteger flushWaiters = new AtomicInteger();
+
+    public AsyncLogSink(LogSink sink) {
+        this(sink, DEFAULT_CAPACITY);
+    }
+
+    AsyncLogSink(LogSink sink, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.sink = sink;
+        this.records = new LogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new LogRecord();
+            sequences.set(i, i);
+        }
+
+        this.writer = new Thread(this::writeRecords, "aws-lambda-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void log(byte[] message) {
+        log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
+    }
+
+    @Override
+    public void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
+        log(logLevel, logFormat, message, 0, message.length);
+    }
+
+    @Override
+    public void log(LogLevel logLevel, LogFormat logFormat, byte[] message, int offset, int length) {
+        if (closed) {
+            sink.log(logLevel, logFormat, message, offset, length);
+            return;
+        }
+
+        long sequence = claim();
+        int index = (int) (sequence & mask);
+        records[index].set(logLevel, logFormat, message, offset, length, LogClock.now().epochMicros());
+        sequences.set(index, sequence + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        if (closed) {
+            // the sink was closed after the check above, and the writer may have stopped before this slot was claimed
+            writeRemaining();
+        }
+    }
+
+    /**
+     * Blocks until every message logged before this call has been written to the underlying sink.
+     */
+    @Override
+    public void flush() {
+        long target = tail.get();
+        if (head >= target || Thread.currentThread() == writer) {
+            return;
+        }
+
+        flushWaiters.incrementAndGet();
+        try {
+            LockSupport.unpark(writer);
+            synchronized (flushLock) {
+                while (head < target && writer.isAlive()) {
+                    flushLock.wait(FLUSH_WAIT_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushWaiters.decrementAndGet();
+        }
+        sink.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        writeRemaining();
+        sink.close();
+    }
+
+    private long claim() {
+        while (true) {
+            long sequence = tail.get();
+            long available = sequences.get((int) (sequence & mask)) - sequence;
+            if (available == 0) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+            } else if (available < 0) {
+                // the ring is full, wait for the writer to free the slot
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_RING_WAIT_NANOS);
+            }
+        }
+    }
+
+    private void writeRecords() {
+        while (!closed || head < tail.get()) {
+            int count = countPublished();
+            if (count == 0) {
+                awaitRecords();
+                continue;
+            }
+
+            writeAndRelease(count);
+        }
+    }
+
+    /**
+     * Waits for the writer thread to stop, then writes the records it left behind, which were claimed after it last
+     * checked for records.
+     */
+    private void writeRemaining() {
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        synchronized (closedWriteLock) {
+            // a slot that is claimed but not yet published ends the batch, its producer writes the rest
+            int count = countPublished();
+            while (count > 0) {
+                writeAndRelease(count);
+                count = countPublished();
+            }
+        }
+    }
+
+    private void writeAndRelease(int count) {
+        try {
+            writeBatch(count);
+        } catch (Throwable t) {
+            t.printStackTrace(STDERR);
+        }
+        release(count);
+    }
+
+    private int countPublished() {
+        long first = head;
+        int count = 0;
+        while (count < records.length && sequences.get((int) ((first + count) & mask)) == first + count + 1) {
+            count++;
+        }
+        return count;
+    }
+
+    private void awaitRecords() {
+        writerParked = true;
+        // re-check after announcing the park so a producer that published in between is not missed
+        if (countPublished() == 0 && !closed) {
+            LockSupport.park(this);
+        }
+        writerParked = false;
+    }
+
+    private void writeBatch(int count) {
+        int first = (int) (head & mask);
+        int untilWrap = Math.min(count, records.length - first);
+        sink.log(records, first, untilWrap);
+        if (untilWrap < count) {
+            sink.log(records, 0, count - untilWrap);
+        }
+    }
+
+    private void release(int count) {
+        long first = head;
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((first + i) & mask);
+            records[index].trim(MAX_RETAINED_MESSAGE_LENGTH);
+            sequences.set(index, first + i + records.length);
+        }
+        head = first + count;
+
+        if (flushWaiters.get() > 0) {
+            synchronized (flushLock) {
+                flushLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.function.BiConsumer;
+
+/**
+ * Drops a message that repeats the previous one at the same level, and reports how many times it was repeated once a
+ * different message is logged or the logger is flushed. Messages logged as bytes are not compared. Messages are only
+ * compared with the previous one logged on the same thread, so concurrent invocations do not interrupt each other's
+ * repeats, and a flush only reports the repeats of the thread that flushes.
+ */
+public class DuplicateSuppressingLogFilter implements LogFilter {
+    private final ThreadLocal<PreviousMessage> previousMessage = ThreadLocal.withInitial(PreviousMessage::new);
+
+    @Override
+    public boolean accept(LogLevel logLevel, String message, BiConsumer<LogLevel, String> notices) {
+        if (message == null) {
+            return true;
+        }
+
+        PreviousMessage previous = previousMessage.get();
+        if (logLevel == previous.logLevel && message.equals(previous.message)) {
+            previous.repeats++;
+            return false;
+        }
+        final LogLevel repeatedLevel = previous.logLevel;
+        final long repeated = previous.repeats;
+        previous.logLevel = logLevel;
+        previous.message = message;
+        previous.repeats = 0;
+        reportRepeats(repeatedLevel, repeated, notices);
+        return true;
+    }
+
+    @Override
+    public void flush(BiConsumer<LogLevel, String> notices) {
+        PreviousMessage previous = previousMessage.get();
+        final LogLevel repeatedLevel = previous.logLevel;
+        final long repeated = previous.repeats;
+        previous.logLevel = null;
+        previous.message = null;
+        previous.repeats = 0;
+        reportRepeats(repeatedLevel, repeated, notices);
+    }
+
+    private static void reportRepeats(LogLevel logLevel, long repeated, BiConsumer<LogLevel, String> notices) {
+        if (repeated > 0) {
+            notices.accept(logLevel, "Previous message repeated " + repeated + (repeated == 1 ? " more time" : " more times"));
+        }
+    }
+
+    private static final class PreviousMessage {
+        private LogLevel logLevel;
+        private String message;
+        private long repeats;
+    }
+}
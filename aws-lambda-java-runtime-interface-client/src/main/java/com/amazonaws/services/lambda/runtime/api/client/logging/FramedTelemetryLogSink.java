@@ -10,9 +10,9 @@ import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.time.Instant;
 
 
 /**
@@ -34,22 +34,54 @@ import java.time.Instant;
 public class FramedTelemetryLogSink implements LogSink {
 
     private static final int HEADER_LENGTH = 16;
+    private static final int INITIAL_FRAME_BUFFER_CAPACITY = 8 * 1024;
+    // frame buffers grown past this size for unusually large messages or batches are not kept around
+    private static final int MAX_RETAINED_FRAME_BUFFER_CAPACITY = 64 * 1024;
+    // System.err may be captured into this sink later on, so failed writes are reported on the original stderr
+    private static final PrintStream STDERR = System.err;
 
     private final FileOutputStream logOutputStream;
-    private final ByteBuffer headerBuf;
+
+    /*
+     * Frames are assembled here, header and message together, so each frame - or each batch of frames - reaches the
+     * telemetry FD with a single write. A FileChannel would allow gathering writes without the copy, but it is
+     * closed for good as soon as a thread writing to it is interrupted (see FramedTelemetryLogSinkTest.interruptedThread),
+     * and copying a log message is far cheaper than the extra syscall.
+     */
+    private ByteBuffer frameBuf = newFrameBuffer(INITIAL_FRAME_BUFFER_CAPACITY);
 
     public FramedTelemetryLogSink(FileDescriptor fd) throws IOException {
         this.logOutputStream = new FileOutputStream(fd);
-        this.headerBuf = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.BIG_ENDIAN);
     }
 
     @Override
     public synchronized void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
-        try {
-            writeFrame(logLevel, logFormat, message);
-        } catch (IOException e) {
-            e.printStackTrace();
+        log(logLevel, logFormat, message, 0, message.length);
+    }
+
+    @Override
+    public synchronized void log(LogLevel logLevel, LogFormat logFormat, byte[] message, int offset, int length) {
+        ByteBuffer buf = frameBuffer(HEADER_LENGTH + length);
+        putFrame(buf, logLevel, logFormat, LogClock.now().epochMicros(), message, offset, length);
+        writeFrames(buf, 1);
+    }
+
+    /**
+     * Writes the records as consecutive frames with a single write, keeping the timestamps they were logged at.
+     */
+    @Override
+    public synchronized void log(LogRecord[] records, int offset, int count) {
+        int batchLength = 0;
+        for (int i = offset; i < offset + count; i++) {
+            batchLength += HEADER_LENGTH + records[i].getLength();
         }
+
+        ByteBuffer buf = frameBuffer(batchLength);
+        for (int i = offset; i < offset + count; i++) {
+            LogRecord record = records[i];
+            putFrame(buf, record.getLogLevel(), record.getLogFormat(), record.getTimestampMicros(), record.getMessage(), 0, record.getLength());
+        }
+        writeFrames(buf, count);
     }
 
     @Override
@@ -57,27 +89,39 @@ public class FramedTelemetryLogSink implements LogSink {
         log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
     }
 
-    private void writeFrame(LogLevel logLevel, LogFormat logFormat, byte[] message) throws IOException {
-        updateHeader(logLevel, logFormat, message.length);
-        this.logOutputStream.write(this.headerBuf.array());
-        this.logOutputStream.write(message);
+    private static ByteBuffer newFrameBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.BIG_ENDIAN);
     }
 
-    private long timestamp() {
-        Instant instant = Instant.now();
-        // microsecond precision
-        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000;
+    private static void putFrame(ByteBuffer buf, LogLevel logLevel, LogFormat logFormat, long timestamp, byte[] message, int offset, int length) {
+        buf.putInt(FrameType.getValue(logLevel, logFormat));
+        buf.putInt(length);
+        buf.putLong(timestamp);
+        buf.put(message, offset, length);
     }
 
     /**
-     * Updates the header ByteBuffer with the provided length. The header comprises the frame type and message length.
+     * Returns the cleared frame buffer, replacing it with a larger one if it cannot hold length bytes.
      */
-    private void updateHeader(LogLevel logLevel, LogFormat logFormat, int length) {
-        this.headerBuf.clear();
-        this.headerBuf.putInt(FrameType.getValue(logLevel, logFormat));
-        this.headerBuf.putInt(length);
-        this.headerBuf.putLong(timestamp());
-        this.headerBuf.flip();
+    private ByteBuffer frameBuffer(int length) {
+        if (frameBuf.capacity() < length) {
+            frameBuf = newFrameBuffer(Math.max(length, frameBuf.capacity() * 2));
+        }
+        frameBuf.clear();
+        return frameBuf;
+    }
+
+    private void writeFrames(ByteBuffer buf, int frames) {
+        try {
+            this.logOutputStream.write(buf.array(), 0, buf.position());
+            LoggingMetrics.recordWrite(frames, buf.position());
+        } catch (IOException e) {
+            e.printStackTrace(STDERR);
+        } finally {
+            if (buf.capacity() > MAX_RETAINED_FRAME_BUFFER_CAPACITY) {
+                frameBuf = newFrameBuffer(INITIAL_FRAME_BUFFER_CAPACITY);
+            }
+        }
     }
 
     @Override
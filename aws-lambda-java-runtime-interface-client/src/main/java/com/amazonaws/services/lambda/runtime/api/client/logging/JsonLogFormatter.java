@@ -7,47 +7,72 @@ package com.amazonaws.services.lambda.runtime.api.client.logging;
 
 import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
-import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
-import com.amazonaws.services.lambda.runtime.serialization.factories.GsonFactory;
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * Formats log messages as a single JSON object per line:
+ * <pre>
+ * {@code {"timestamp":"2024-01-01T00:00:00.000Z","message":"...","level":"INFO","AWSRequestId":"...","tenantId":"..."}}
+ * </pre>
+ * The object is encoded straight into the caller's {@link LogBuffer}, producing the same bytes as serializing a
+ * {@link StructuredLogMessage} with Gson: fields in declaration order, null fields omitted, and no HTML escaping.
+ * The fields of structured messages follow as further top-level fields.
+ */
 public class JsonLogFormatter implements LogFormatter {
-    private static final DateTimeFormatter dateFormatter =
-            DateTimeFormatter.
-                ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").
-                withZone(ZoneId.of("UTC"));
-    private final PojoSerializer<StructuredLogMessage> serializer = GsonFactory.getInstance().getSerializer(StructuredLogMessage.class);
+    private static final byte[] TIMESTAMP_FIELD = "{\"timestamp\":\"".getBytes(UTF_8);
+    private static final byte[] MESSAGE_FIELD = ",\"message\":".getBytes(UTF_8);
+    private static final byte[] AWS_REQUEST_ID_FIELD = ",\"AWSRequestId\":".getBytes(UTF_8);
+    private static final byte[] TENANT_ID_FIELD = ",\"tenantId\":".getBytes(UTF_8);
+    private static final byte[] END_OF_MESSAGE = "}\n".getBytes(UTF_8);
+    private static final byte[][] LEVEL_FIELDS = new byte[LogLevel.values().length][];
+
+    static {
+        for (LogLevel logLevel : LogLevel.values()) {
+            LEVEL_FIELDS[logLevel.ordinal()] = (",\"level\":\"" + logLevel.name() + "\"").getBytes(UTF_8);
+        }
+    }
 
     private ThreadLocal<LambdaContext> lambdaContext = new ThreadLocal<>();
 
     @Override
     public String format(String message, LogLevel logLevel) {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        StructuredLogMessage msg = createLogMessage(message, logLevel);
-        serializer.toJson(msg, stream);
-        stream.write('\n');
-        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+        LogBuffer buffer = new LogBuffer();
+        format(message, logLevel, buffer);
+        return new String(buffer.array(), 0, buffer.size(), UTF_8);
+    }
+
+    @Override
+    public void format(String message, LogLevel logLevel, LogBuffer out) {
+        format(message, logLevel, null, out);
     }
 
-    private StructuredLogMessage createLogMessage(String message, LogLevel logLevel) {
-        StructuredLogMessage msg = new StructuredLogMessage();
-        msg.timestamp = dateFormatter.format(LocalDateTime.now());
-        msg.message = message;
-        msg.level = logLevel;
+    @Override
+    public void format(String message, LogLevel logLevel, LogFields fields, LogBuffer out) {
+        out.write(TIMESTAMP_FIELD);
+        out.write(LogClock.now().isoTimestamp());
+        out.write('"');
+        writeOptionalField(out, MESSAGE_FIELD, message);
+        if (logLevel != null) {
+            out.write(LEVEL_FIELDS[logLevel.ordinal()]);
+        }
 
         LambdaContext lambdaContextForCurrentThread = lambdaContext.get();
         if (lambdaContextForCurrentThread != null) {
-            msg.AWSRequestId = lambdaContextForCurrentThread.getAwsRequestId();
-            msg.tenantId = lambdaContextForCurrentThread.getTenantId();
+            writeOptionalField(out, AWS_REQUEST_ID_FIELD, lambdaContextForCurrentThread.getAwsRequestId());
+            writeOptionalField(out, TENANT_ID_FIELD, lambdaContextForCurrentThread.getTenantId());
         }
-
-        return msg;
+        if (fields != null) {
+            fields.writeJson(out);
+        }
+        out.write(END_OF_MESSAGE);
     }
 
+    private static void writeOptionalField(LogBuffer out, byte[] field, String value) {
+        if (value != null) {
+            out.write(field);
+            out.writeJsonString(value);
+        }
+    }
 
     /**
      * Function to set the context for every invocation.
@@ -5,10 +5,14 @@ SPDX-License-Identifier: Apache-2.0
 
 package com.amazonaws.services.lambda.runtime.api.client.logging;
 
+import com.amazonaws.services.lambda.runtime.LambdaRuntimeInternal;
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class LambdaContextLogger extends AbstractLambdaLogger implements Closeable {
@@ -17,24 +21,76 @@ public class LambdaContextLogger extends AbstractLambdaLogger implements Closeab
     private static final byte[] NULL_BYTES_VALUE = "null".getBytes(UTF_8);
 
     private final transient LogSink sink;
+    private final List<LogSinkOutputStream> captureStreams = new CopyOnWriteArrayList<>();
 
     public LambdaContextLogger(LogSink sink, LogLevel logLevel, LogFormat logFormat) {
         super(logLevel, logFormat);
         this.sink = sink;
     }
 
+    public LambdaContextLogger(LogSink sink, LogLevel logLevel, LogFormat logFormat, List<LogFilter> logFilters) {
+        super(logLevel, logFormat, logFilters);
+        this.sink = sink;
+    }
+
     @Override
     protected void logMessage(byte[] message, LogLevel logLevel) {
+        long start = System.nanoTime();
         if (message == null) {
             sink.log(logLevel, this.logFormat, NULL_BYTES_VALUE);
         } else {
             sink.log(logLevel, this.logFormat, message);
         }
+        LoggingMetrics.recordSinkBlocked(System.nanoTime() - start);
+    }
+
+    @Override
+    protected void logMessage(byte[] message, int offset, int length, LogLevel logLevel) {
+        long start = System.nanoTime();
+        sink.log(logLevel, this.logFormat, message, offset, length);
+        LoggingMetrics.recordSinkBlocked(System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the logging metrics of the current invocation as a CloudWatch embedded metric format line and waits
+     * until it has been written.
+     */
+    public void logInvocationMetrics(String functionName) {
+        LogBuffer buffer = new LogBuffer();
+        LoggingMetrics.writeEmf(LoggingMetrics.invocation(), functionName, System.currentTimeMillis(), buffer);
+        sink.log(LogLevel.UNDEFINED, this.logFormat, buffer.array(), 0, buffer.size());
+        sink.flush();
+    }
+
+    /**
+     * Returns a stream that writes complete lines to this logger's sink as unformatted messages, for capturing
+     * System.out and System.err. Partial lines pending in the stream are emitted by {@link #flush()}. The fallback
+     * stream receives what the sink itself prints while writing.
+     */
+    public OutputStream newCaptureStream(OutputStream fallback) {
+        LogSinkOutputStream captureStream = new LogSinkOutputStream(sink, fallback);
+        captureStreams.add(captureStream);
+        return captureStream;
+    }
+
+    /**
+     * Blocks until every message logged before this call has been written by the sink, including messages queued by
+     * logging frameworks that registered a flusher with {@link LambdaRuntimeInternal#addLogFlusher(Runnable)}.
+     */
+    public void flush() {
+        LambdaRuntimeInternal.flushLogs();
+        flushLogFilters();
+        for (LogSinkOutputStream captureStream : captureStreams) {
+            captureStream.emitPending();
+        }
+        sink.flush();
     }
 
     @Override
     public void close() throws IOException {
+        for (LogSinkOutputStream captureStream : captureStreams) {
+            captureStream.emitPending();
+        }
         sink.close();
-        
     }
 }
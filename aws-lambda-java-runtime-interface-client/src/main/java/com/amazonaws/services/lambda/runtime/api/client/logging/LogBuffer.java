@@ -0,0 +1,226 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that log formatters encode into. A logger keeps one buffer per thread and resets it between
+ * messages, so formatting a log line does not allocate once the buffer has grown to the usual message size.
+ * <p>
+ * Strings are encoded as UTF-8 the same way {@link String#getBytes(java.nio.charset.Charset)} does, including the
+ * replacement of unpaired surrogates with '?'.
+ */
+public final class LogBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // buffers that grew past this size for a single large message are not kept around for the next one
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    // escaped by Gson as they are line terminators in JavaScript
+    private static final char LINE_SEPARATOR = 0x2028;
+    private static final char PARAGRAPH_SEPARATOR = 0x2029;
+
+    private static final byte[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private byte[] buf;
+    private int count;
+
+    public LogBuffer() {
+        this.buf = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Discards the buffered bytes, releasing the backing array if a previous message made it unusually large.
+     */
+    public void reset() {
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        count = 0;
+    }
+
+    /**
+     * Returns the backing array. Only the first {@link #size()} bytes are valid, and the array is reused for the next
+     * message written to this buffer.
+     */
+    public byte[] array() {
+        return buf;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Drops the first n bytes, moving the rest to the start of the buffer.
+     */
+    public void discard(int n) {
+        System.arraycopy(buf, n, buf, 0, count - n);
+        count -= n;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(bytes, offset, buf, count, length);
+        count += length;
+    }
+
+    public void writeUtf8(String s) {
+        ensureCapacity(count + s.length());
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                write(c);
+                i++;
+            } else {
+                i = writeUtf8NonAscii(s, i, c);
+            }
+        }
+    }
+
+    /**
+     * Writes the decimal representation of the value without creating a String.
+     */
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeUtf8(Long.toString(value));
+            return;
+        }
+        long remaining = Math.abs(value);
+        int digits = 1;
+        for (long limit = 10; digits < 19 && remaining >= limit; limit *= 10) {
+            digits++;
+        }
+        ensureCapacity(count + digits + 1);
+        if (value < 0) {
+            buf[count++] = '-';
+        }
+        int position = count + digits - 1;
+        while (position >= count) {
+            buf[position--] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        count += digits;
+    }
+
+    /**
+     * Writes the string as a quoted JSON string, escaping it the same way Gson does with HTML escaping disabled.
+     */
+    public void writeJsonString(String s) {
+        ensureCapacity(count + s.length() + 2);
+        write('"');
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                writeJsonAscii(c);
+                i++;
+            } else if (c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+                writeUnicodeEscape(c);
+                i++;
+            } else {
+                i = writeUtf8NonAscii(s, i, c);
+            }
+        }
+        write('"');
+    }
+
+    private void writeJsonAscii(char c) {
+        switch (c) {
+            case '"':
+            case '\\':
+                write('\\');
+                write(c);
+                break;
+            case '\t':
+                writeEscape('t');
+                break;
+            case '\b':
+                writeEscape('b');
+                break;
+            case '\n':
+                writeEscape('n');
+                break;
+            case '\r':
+                writeEscape('r');
+                break;
+            case '\f':
+                writeEscape('f');
+                break;
+            default:
+                if (c < 0x20) {
+                    writeUnicodeEscape(c);
+                } else {
+                    write(c);
+                }
+        }
+    }
+
+    private void writeEscape(char c) {
+        write('\\');
+        write(c);
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(count + 6);
+        buf[count++] = '\\';
+        buf[count++] = 'u';
+        buf[count++] = HEX_DIGITS[(c >> 12) & 0xf];
+        buf[count++] = HEX_DIGITS[(c >> 8) & 0xf];
+        buf[count++] = HEX_DIGITS[(c >> 4) & 0xf];
+        buf[count++] = HEX_DIGITS[c & 0xf];
+    }
+
+    /**
+     * Encodes the non-ASCII character at index i, consuming the low surrogate of a pair as well.
+     *
+     * @return the index of the next char to encode
+     */
+    private int writeUtf8NonAscii(String s, int i, char c) {
+        ensureCapacity(count + 4);
+        if (c < 0x800) {
+            buf[count++] = (byte) (0xc0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (!Character.isSurrogate(c)) {
+            buf[count++] = (byte) (0xe0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buf[count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+            buf[count++] = (byte) (0xf0 | (codePoint >> 18));
+            buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+            buf[count++] = (byte) (0x80 | (codePoint & 0x3f));
+            return i + 2;
+        } else {
+            buf[count++] = '?';
+        }
+        return i + 1;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(minCapacity, buf.length << 1));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import java.time.Instant;
+
+/**
+ * Per-thread clock for log timestamps. The wall clock is read through {@link Instant#now()} and rendered as an
+ * ISO-8601 string at most once per millisecond per thread; in between, only {@link System#currentTimeMillis()} is
+ * checked and the microseconds are extrapolated from {@link System#nanoTime()}. Timestamps taken on one thread never go
+ * backwards within a millisecond and never run into the next one.
+ */
+final class LogClock {
+    static final int ISO_TIMESTAMP_LENGTH = 24;
+
+    private static final ThreadLocal<LogClock> clock = ThreadLocal.withInitial(LogClock::new);
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final byte[] isoTimestamp = new byte[ISO_TIMESTAMP_LENGTH];
+    private long epochMillis = Long.MIN_VALUE;
+    private long baseEpochMicros;
+    private long baseNanos;
+
+    private LogClock() {
+    }
+
+    /**
+     * Returns the current thread's clock, refreshed if the millisecond has changed since it was last used.
+     */
+    static LogClock now() {
+        LogClock logClock = clock.get();
+        logClock.refresh();
+        return logClock;
+    }
+
+    /**
+     * Returns the UNIX time in microseconds.
+     */
+    long epochMicros() {
+        long elapsedMicros = (System.nanoTime() - baseNanos) / 1000;
+        long remainingMicrosInMillisecond = 999 - Math.floorMod(baseEpochMicros, 1000L);
+        return baseEpochMicros + Math.min(elapsedMicros, remainingMicrosInMillisecond);
+    }
+
+    /**
+     * Returns the current millisecond in UTC as yyyy-MM-dd'T'HH:mm:ss.SSS'Z' ASCII bytes. The array is updated in
+     * place when the clock is refreshed and must not be modified.
+     */
+    byte[] isoTimestamp() {
+        return isoTimestamp;
+    }
+
+    private void refresh() {
+        if (System.currentTimeMillis() == epochMillis) {
+            return;
+        }
+
+        Instant instant = Instant.now();
+        baseNanos = System.nanoTime();
+        baseEpochMicros = instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000;
+        long millis = Math.floorDiv(baseEpochMicros, 1000L);
+        if (millis != epochMillis) {
+            epochMillis = millis;
+            renderIsoTimestamp(millis, isoTimestamp);
+        }
+    }
+
+    /**
+     * Renders the timestamp without going through java.time, using the days-to-civil-date conversion from
+     * http://howardhinnant.github.io/date_algorithms.html.
+     */
+    static void renderIsoTimestamp(long millis, byte[] dest) {
+        long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+        final int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int dayOfEra = (int) (z - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        putDigits(dest, 0, year, 4);
+        dest[4] = '-';
+        putDigits(dest, 5, month, 2);
+        dest[7] = '-';
+        putDigits(dest, 8, day, 2);
+        dest[10] = 'T';
+        putDigits(dest, 11, millisOfDay / 3_600_000, 2);
+        dest[13] = ':';
+        putDigits(dest, 14, millisOfDay / 60_000 % 60, 2);
+        dest[16] = ':';
+        putDigits(dest, 17, millisOfDay / 1000 % 60, 2);
+        dest[19] = '.';
+        putDigits(dest, 20, millisOfDay % 1000, 3);
+        dest[23] = 'Z';
+    }
+
+    private static void putDigits(byte[] dest, int offset, int value, int width) {
+        int remaining = value;
+        for (int i = offset + width - 1; i >= offset; i--) {
+            dest[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The key-value fields of a structured log message. Values are kept unboxed in parallel arrays that are reused for the
+ * next message, and formatters write them straight into the log line.
+ * <p>
+ * Every key is written once: a key that is added again keeps its position and takes the last value. Keys that are
+ * also members {@link JsonLogFormatter} writes itself, such as "message" or "level", are written with a
+ * {@value #RESERVED_KEY_PREFIX} prefix, so that fields cannot overwrite the runtime's members in log queries.
+ */
+public final class LogFields {
+    static final String RESERVED_KEY_PREFIX = "_";
+    private static final String[] RESERVED_KEYS = {"timestamp", "message", "level", "AWSRequestId", "tenantId"};
+    private static final int INITIAL_CAPACITY = 8;
+    private static final byte STRING = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    // longs, doubles as their raw bits, and booleans as 0 or 1
+    private long[] numbers = new long[INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(strings, 0, size, null);
+        size = 0;
+    }
+
+    void add(String key, String value) {
+        strings[append(key, STRING)] = value;
+    }
+
+    void add(String key, long value) {
+        numbers[append(key, LONG)] = value;
+    }
+
+    void add(String key, double value) {
+        numbers[append(key, DOUBLE)] = Double.doubleToRawLongBits(value);
+    }
+
+    void add(String key, boolean value) {
+        numbers[append(key, BOOLEAN)] = value ? 1 : 0;
+    }
+
+    /**
+     * Writes the fields as JSON object members, each preceded by a comma. Doubles that JSON cannot represent, such as
+     * NaN, are written as strings.
+     */
+    public void writeJson(LogBuffer out) {
+        for (int i = 0; i < size; i++) {
+            out.write(',');
+            out.writeJsonString(String.valueOf(keys[i]));
+            out.write(':');
+            switch (types[i]) {
+                case STRING:
+                    if (strings[i] == null) {
+                        out.writeUtf8("null");
+                    } else {
+                        out.writeJsonString(strings[i]);
+                    }
+                    break;
+                case LONG:
+                    out.writeLong(numbers[i]);
+                    break;
+                case DOUBLE:
+                    writeJsonDouble(Double.longBitsToDouble(numbers[i]), out);
+                    break;
+                default:
+                    out.writeUtf8(numbers[i] != 0 ? "true" : "false");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Writes the fields as key=value pairs, each preceded by a space.
+     */
+    public void writeText(LogBuffer out) {
+        for (int i = 0; i < size; i++) {
+            out.write(' ');
+            out.writeUtf8(String.valueOf(keys[i]));
+            out.write('=');
+            switch (types[i]) {
+                case STRING:
+                    out.writeUtf8(String.valueOf(strings[i]));
+                    break;
+                case LONG:
+                    out.writeLong(numbers[i]);
+                    break;
+                case DOUBLE:
+                    out.writeUtf8(Double.toString(Double.longBitsToDouble(numbers[i])));
+                    break;
+                default:
+                    out.writeUtf8(numbers[i] != 0 ? "true" : "false");
+                    break;
+            }
+        }
+    }
+
+    private static void writeJsonDouble(double value, LogBuffer out) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.writeJsonString(Double.toString(value));
+        } else {
+            out.writeUtf8(Double.toString(value));
+        }
+    }
+
+    private int append(String key, byte type) {
+        String fieldKey = fieldKey(key);
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(keys[i], fieldKey)) {
+                types[i] = type;
+                strings[i] = null;
+                return i;
+            }
+        }
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            types = Arrays.copyOf(types, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+        }
+        keys[size] = fieldKey;
+        types[size] = type;
+        return size++;
+    }
+
+    private static String fieldKey(String key) {
+        for (String reservedKey : RESERVED_KEYS) {
+            if (reservedKey.equals(key)) {
+                return RESERVED_KEY_PREFIX + key;
+            }
+        }
+        return key;
+    }
+}
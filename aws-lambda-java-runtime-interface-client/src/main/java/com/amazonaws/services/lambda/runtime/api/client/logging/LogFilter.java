@@ -0,0 +1,44 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.function.BiConsumer;
+
+/**
+ * A stage of the logger's filter chain, applied after the minimum log level to messages logged with a level. Filters
+ * that drop messages can report how many through the notices callback, which writes a message directly, bypassing the
+ * filters.
+ */
+public interface LogFilter {
+
+    /**
+     * Returns whether messages at the given level can currently be written on this thread, so callers can skip
+     * building them. Must not change the filter's state.
+     */
+    default boolean isEnabled(LogLevel logLevel) {
+        return true;
+    }
+
+    /**
+     * Decides whether a message is written. The message is null for messages logged as bytes.
+     */
+    boolean accept(LogLevel logLevel, String message, BiConsumer<LogLevel, String> notices);
+
+    /**
+     * Reports anything the filter is still holding back, called before the runtime reports an invocation's outcome,
+     * on the thread that ran the invocation.
+     */
+    default void flush(BiConsumer<LogLevel, String> notices) {
+    }
+
+    /**
+     * Passes the context of the invocation running on the current thread.
+     */
+    default void setLambdaContext(LambdaContext context) {
+    }
+}
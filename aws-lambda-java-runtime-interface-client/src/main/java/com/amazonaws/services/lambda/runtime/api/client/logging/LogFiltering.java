@@ -5,16 +5,124 @@ SPDX-License-Identifier: Apache-2.0
 
 package com.amazonaws.services.lambda.runtime.api.client.logging;
 
+import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
+/**
+ * Decides which messages are written: messages below the minimum log level are dropped, and the remaining messages
+ * that have a level pass through the filter chain in order. Messages logged without a level are always written.
+ */
 public class LogFiltering {
     private final LogLevel minimumLogLevel;
+    private final LogFilter[] filters;
 
     public LogFiltering(LogLevel minimumLogLevel) {
+        this(minimumLogLevel, Collections.emptyList());
+    }
+
+    public LogFiltering(LogLevel minimumLogLevel, List<LogFilter> filters) {
         this.minimumLogLevel = minimumLogLevel;
+        this.filters = filters.toArray(new LogFilter[0]);
+    }
+
+    /**
+     * Creates the filter chain from the runtime's settings: sampling first, then duplicate suppression, so repeats do
+     * not use up the rate limit, then rate limiting.
+     *
+     * @param rateLimits messages per second, either one number for every level or LEVEL=limit pairs separated by commas
+     * @param sampleRates LEVEL=rate pairs separated by commas, the rate being the fraction of requests to keep
+     * @param suppressDuplicates whether to drop messages that repeat the previous one
+     */
+    public static List<LogFilter> createFilters(String rateLimits, String sampleRates, boolean suppressDuplicates) {
+        List<LogFilter> filters = new ArrayList<>();
+        if (sampleRates != null && !sampleRates.trim().isEmpty()) {
+            filters.add(new SamplingLogFilter(parseLevelSettings(sampleRates, Double::valueOf)));
+        }
+        if (suppressDuplicates) {
+            filters.add(new DuplicateSuppressingLogFilter());
+        }
+        if (rateLimits != null && !rateLimits.trim().isEmpty()) {
+            filters.add(new RateLimitingLogFilter(parseLevelSettings(rateLimits, Integer::valueOf)));
+        }
+        return filters;
+    }
+
+    static <T> Map<LogLevel, T> parseLevelSettings(String settings, Function<String, T> parseValue) {
+        Map<LogLevel, T> values = new EnumMap<>(LogLevel.class);
+        for (String setting : settings.split(",")) {
+            int separator = setting.indexOf('=');
+            try {
+                if (separator < 0) {
+                    T value = parseValue.apply(setting.trim());
+                    for (LogLevel logLevel : LogLevel.values()) {
+                        if (logLevel != LogLevel.UNDEFINED) {
+                            values.put(logLevel, value);
+                        }
+                    }
+                } else {
+                    values.put(LogLevel.fromString(setting.substring(0, separator).trim()),
+                            parseValue.apply(setting.substring(separator + 1).trim()));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid log filter setting: '" + setting + "'", e);
+            }
+        }
+        return values;
+    }
+
+    LogLevel getMinimumLogLevel() {
+        return minimumLogLevel;
     }
 
     boolean isEnabled(LogLevel logLevel) {
-        return (logLevel == LogLevel.UNDEFINED || logLevel.ordinal() >= minimumLogLevel.ordinal());
+        if (logLevel == LogLevel.UNDEFINED) {
+            return true;
+        }
+        if (logLevel.ordinal() < minimumLogLevel.ordinal()) {
+            return false;
+        }
+        for (LogFilter filter : filters) {
+            if (!filter.isEnabled(logLevel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the message is written, updating the state of the filters.
+     */
+    boolean accept(LogLevel logLevel, String message, BiConsumer<LogLevel, String> notices) {
+        if (logLevel == LogLevel.UNDEFINED) {
+            return true;
+        }
+        if (logLevel.ordinal() < minimumLogLevel.ordinal()) {
+            return false;
+        }
+        for (LogFilter filter : filters) {
+            if (!filter.accept(logLevel, message, notices)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void flush(BiConsumer<LogLevel, String> notices) {
+        for (LogFilter filter : filters) {
+            filter.flush(notices);
+        }
+    }
+
+    void setLambdaContext(LambdaContext lambdaContext) {
+        for (LogFilter filter : filters) {
+            filter.setLambdaContext(lambdaContext);
+        }
     }
 }
@@ -11,6 +11,24 @@ import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 public interface LogFormatter {
     String format(String message, LogLevel logLevel);
 
+    /**
+     * Formats the message into the given buffer. Formatters that can encode directly to bytes override this to avoid
+     * building an intermediate String; the default encodes the result of {@link #format(String, LogLevel)}, writing
+     * "null" in its place when there is nothing to format, like System.out.println(null) would.
+     */
+    default void format(String message, LogLevel logLevel, LogBuffer out) {
+        String formatted = format(message, logLevel);
+        out.writeUtf8(formatted == null ? "null" : formatted);
+    }
+
+    /**
+     * Formats a structured message. The default writes the fields after the message as key=value pairs.
+     */
+    default void format(String message, LogLevel logLevel, LogFields fields, LogBuffer out) {
+        format(message, logLevel, out);
+        fields.writeText(out);
+    }
+
     default void setLambdaContext(LambdaContext context) {
     }
 }
@@ -0,0 +1,68 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+
+/**
+ * A log message queued by {@link AsyncLogSink}, handed to the underlying sink in batches. Records are slots of the
+ * sink's ring buffer and are reused once the batch they were passed in has been written, so sinks must not hold on to
+ * them or to their message arrays.
+ */
+public final class LogRecord {
+    private LogLevel logLevel;
+    private LogFormat logFormat;
+    private byte[] message = new byte[0];
+    private int length;
+    private long timestampMicros;
+
+    void set(LogLevel logLevel, LogFormat logFormat, byte[] message, int offset, int length, long timestampMicros) {
+        if (this.message.length < length) {
+            this.message = new byte[length];
+        }
+        System.arraycopy(message, offset, this.message, 0, length);
+        this.logLevel = logLevel;
+        this.logFormat = logFormat;
+        this.length = length;
+        this.timestampMicros = timestampMicros;
+    }
+
+    /**
+     * Drops the message array if it was grown for an unusually large message.
+     */
+    void trim(int maxRetainedLength) {
+        if (message.length > maxRetainedLength) {
+            message = new byte[0];
+        }
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    public LogFormat getLogFormat() {
+        return logFormat;
+    }
+
+    /**
+     * Returns the message bytes. Only the first {@link #getLength()} bytes are valid.
+     */
+    public byte[] getMessage() {
+        return message;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the UNIX time in microseconds at which the message was logged.
+     */
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+}
@@ -8,6 +8,7 @@ package com.amazonaws.services.lambda.runtime.api.client.logging;
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import java.io.Closeable;
+import java.util.Arrays;
 
 public interface LogSink extends Closeable {
 
@@ -15,4 +16,30 @@ public interface LogSink extends Closeable {
 
     void log(LogLevel logLevel, LogFormat logFormat, byte[] message);
 
+    /**
+     * Logs length bytes of message starting at offset. The array may be reused by the caller once this returns, so
+     * implementations must not hold on to it.
+     */
+    default void log(LogLevel logLevel, LogFormat logFormat, byte[] message, int offset, int length) {
+        log(logLevel, logFormat, Arrays.copyOfRange(message, offset, offset + length));
+    }
+
+    /**
+     * Logs count records starting at offset, in order. Sinks that can write several messages with fewer syscalls
+     * override this; the default logs them one at a time.
+     */
+    default void log(LogRecord[] records, int offset, int count) {
+        for (int i = offset; i < offset + count; i++) {
+            LogRecord record = records[i];
+            log(record.getLogLevel(), record.getLogFormat(), record.getMessage(), 0, record.getLength());
+        }
+    }
+
+    /**
+     * Blocks until every message logged before this call has been written. Sinks that write synchronously have
+     * nothing to do.
+     */
+    default void flush() {
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * OutputStream that turns what is written to it into log messages, used to capture System.out and System.err when the
+ * runtime logs to the telemetry FD. Bytes are collected in a reused buffer and handed to the sink once a write ends
+ * with a complete line, so a multi-line print - such as a println of a string with embedded newlines - becomes a
+ * single frame instead of one frame per line.
+ * <p>
+ * A partial line is held until a later write completes it or the stream is flushed. To bound the buffer, output
+ * longer than {@link #MAX_MESSAGE_LENGTH} is emitted up to its last complete line, or in full if it has none.
+ * <p>
+ * Output written while this thread is already handing a message to the sink - typically the sink printing a stack
+ * trace for a failed write - goes to the fallback stream instead, so it cannot feed back into the sink.
+ */
+public class LogSinkOutputStream extends OutputStream {
+    static final int MAX_MESSAGE_LENGTH = 64 * 1024;
+
+    private static final ThreadLocal<Boolean> emitting = new ThreadLocal<>();
+
+    private final LogSink sink;
+    private final OutputStream fallback;
+    private final LogBuffer pending = new LogBuffer();
+
+    public LogSinkOutputStream(LogSink sink, OutputStream fallback) {
+        this.sink = sink;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (emitting.get() != null) {
+            fallback.write(b);
+            return;
+        }
+        synchronized (this) {
+            pending.write(b);
+            emitCompleteLines();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (emitting.get() != null) {
+            fallback.write(bytes, offset, length);
+            return;
+        }
+        synchronized (this) {
+            pending.write(bytes, offset, length);
+            emitCompleteLines();
+        }
+    }
+
+    /**
+     * Emits everything written so far, including a partial line.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (emitting.get() != null) {
+            fallback.flush();
+            return;
+        }
+        emitPending();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Emits everything written so far, for the logger to call before the runtime reports an invocation's outcome.
+     */
+    synchronized void emitPending() {
+        emit(pending.size());
+    }
+
+    private void emitCompleteLines() {
+        int size = pending.size();
+        if (size == 0) {
+            return;
+        }
+        byte[] bytes = pending.array();
+        if (bytes[size - 1] == '\n') {
+            emit(size);
+        } else if (size > MAX_MESSAGE_LENGTH) {
+            int end = size - 1;
+            while (end >= 0 && bytes[end] != '\n') {
+                end--;
+            }
+            emit(end >= 0 ? end + 1 : size);
+        }
+    }
+
+    private void emit(int length) {
+        if (length == 0) {
+            return;
+        }
+        emitting.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            sink.log(LogLevel.UNDEFINED, LogFormat.TEXT, pending.array(), 0, length);
+        } finally {
+            LoggingMetrics.recordSinkBlocked(System.nanoTime() - start);
+            emitting.remove();
+        }
+        if (length == pending.size()) {
+            pending.reset();
+        } else {
+            pending.discard(length);
+        }
+    }
+}
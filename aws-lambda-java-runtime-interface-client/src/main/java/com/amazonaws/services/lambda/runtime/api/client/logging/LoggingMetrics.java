@@ -0,0 +1,181 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Runtime-wide logging counters, kept in {@link LongAdder}s so concurrent logging threads do not contend on them. The
+ * sinks count the messages and bytes they write; the logger times formatting and how long logging threads are blocked
+ * in the sink.
+ * <p>
+ * Invocation counters are the totals minus a snapshot taken by {@link #startInvocation()}. The runtime only takes
+ * snapshots when it handles one invocation at a time, so with concurrent invocations they equal the totals.
+ */
+public final class LoggingMetrics {
+    public static final String EMF_NAMESPACE = "LambdaJavaRuntime";
+
+    private static final LongAdder messagesWritten = new LongAdder();
+    private static final LongAdder bytesWritten = new LongAdder();
+    private static final LongAdder sinkBlockedNanos = new LongAdder();
+    private static final LongAdder formattingNanos = new LongAdder();
+
+    private static final byte[] EMF_PREFIX = "{\"_aws\":{\"Timestamp\":".getBytes(US_ASCII);
+    private static final byte[] EMF_METRICS =
+            (",\"CloudWatchMetrics\":[{\"Namespace\":\"" + EMF_NAMESPACE + "\",\"Dimensions\":").getBytes(US_ASCII);
+    private static final byte[] EMF_DIMENSIONS = "[[\"FunctionName\"]]".getBytes(US_ASCII);
+    private static final byte[] EMF_NO_DIMENSIONS = "[]".getBytes(US_ASCII);
+    private static final byte[] EMF_DEFINITIONS = (",\"Metrics\":["
+            + "{\"Name\":\"LogMessages\",\"Unit\":\"Count\"},"
+            + "{\"Name\":\"LogBytes\",\"Unit\":\"Bytes\"},"
+            + "{\"Name\":\"LogSinkBlockedTime\",\"Unit\":\"Microseconds\"},"
+            + "{\"Name\":\"LogFormattingTime\",\"Unit\":\"Microseconds\"}]}]}").getBytes(US_ASCII);
+
+    private static final LogMetrics TOTAL = new LogMetrics() {
+        @Override
+        public long getMessagesWritten() {
+            return messagesWritten.sum();
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return bytesWritten.sum();
+        }
+
+        @Override
+        public long getSinkBlockedNanos() {
+            return sinkBlockedNanos.sum();
+        }
+
+        @Override
+        public long getFormattingNanos() {
+            return formattingNanos.sum();
+        }
+    };
+
+    private static volatile Snapshot invocationStart = new Snapshot(0, 0, 0, 0);
+
+    private static final LogMetrics INVOCATION = new LogMetrics() {
+        @Override
+        public long getMessagesWritten() {
+            return TOTAL.getMessagesWritten() - invocationStart.getMessagesWritten();
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return TOTAL.getBytesWritten() - invocationStart.getBytesWritten();
+        }
+
+        @Override
+        public long getSinkBlockedNanos() {
+            return TOTAL.getSinkBlockedNanos() - invocationStart.getSinkBlockedNanos();
+        }
+
+        @Override
+        public long getFormattingNanos() {
+            return TOTAL.getFormattingNanos() - invocationStart.getFormattingNanos();
+        }
+    };
+
+    private LoggingMetrics() {
+    }
+
+    public static LogMetrics total() {
+        return TOTAL;
+    }
+
+    public static LogMetrics invocation() {
+        return INVOCATION;
+    }
+
+    /**
+     * Starts counting a new invocation.
+     */
+    public static void startInvocation() {
+        invocationStart = new Snapshot(TOTAL.getMessagesWritten(), TOTAL.getBytesWritten(), TOTAL.getSinkBlockedNanos(),
+                TOTAL.getFormattingNanos());
+    }
+
+    static void recordWrite(int messages, long bytes) {
+        messagesWritten.add(messages);
+        bytesWritten.add(bytes);
+    }
+
+    static void recordSinkBlocked(long nanos) {
+        sinkBlockedNanos.add(nanos);
+    }
+
+    static void recordFormatting(long nanos) {
+        formattingNanos.add(nanos);
+    }
+
+    /**
+     * Writes the metrics as a CloudWatch embedded metric format line, so CloudWatch Logs turns them into metrics in the
+     * {@value #EMF_NAMESPACE} namespace without any calls from the function.
+     */
+    static void writeEmf(LogMetrics metrics, String functionName, long timestampMillis, LogBuffer out) {
+        out.write(EMF_PREFIX);
+        writeNumber(timestampMillis, out);
+        out.write(EMF_METRICS);
+        out.write(functionName != null ? EMF_DIMENSIONS : EMF_NO_DIMENSIONS);
+        out.write(EMF_DEFINITIONS);
+        if (functionName != null) {
+            out.writeUtf8(",\"FunctionName\":");
+            out.writeJsonString(functionName);
+        }
+        writeMetric(",\"LogMessages\":", metrics.getMessagesWritten(), out);
+        writeMetric(",\"LogBytes\":", metrics.getBytesWritten(), out);
+        writeMetric(",\"LogSinkBlockedTime\":", TimeUnit.NANOSECONDS.toMicros(metrics.getSinkBlockedNanos()), out);
+        writeMetric(",\"LogFormattingTime\":", TimeUnit.NANOSECONDS.toMicros(metrics.getFormattingNanos()), out);
+        out.writeUtf8("}\n");
+    }
+
+    private static void writeMetric(String field, long value, LogBuffer out) {
+        out.writeUtf8(field);
+        writeNumber(value, out);
+    }
+
+    private static void writeNumber(long value, LogBuffer out) {
+        out.writeUtf8(Long.toString(value));
+    }
+
+    private static class Snapshot implements LogMetrics {
+        private final long messages;
+        private final long bytes;
+        private final long blockedNanos;
+        private final long formatNanos;
+
+        Snapshot(long messages, long bytes, long blockedNanos, long formatNanos) {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.blockedNanos = blockedNanos;
+            this.formatNanos = formatNanos;
+        }
+
+        @Override
+        public long getMessagesWritten() {
+            return messages;
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return bytes;
+        }
+
+        @Override
+        public long getSinkBlockedNanos() {
+            return blockedNanos;
+        }
+
+        @Override
+        public long getFormattingNanos() {
+            return formatNanos;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how many messages per second are written at each level with a token bucket per level that holds up to one
+ * second's worth of messages, so short bursts pass and a sustained flood is cut to the configured rate. The number of
+ * dropped messages is reported once the level writes again, or when the logger is flushed.
+ */
+public class RateLimitingLogFilter implements LogFilter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucket[] buckets = new TokenBucket[LogLevel.values().length];
+
+    public RateLimitingLogFilter(Map<LogLevel, Integer> messagesPerSecond) {
+        this(messagesPerSecond, System::nanoTime);
+    }
+
+    RateLimitingLogFilter(Map<LogLevel, Integer> messagesPerSecond, LongSupplier nanoClock) {
+        for (Map.Entry<LogLevel, Integer> limit : messagesPerSecond.entrySet()) {
+            if (limit.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid log rate limit for " + limit.getKey() + ": " + limit.getValue());
+            }
+            buckets[limit.getKey().ordinal()] = new TokenBucket(limit.getValue(), nanoClock);
+        }
+    }
+
+    @Override
+    public boolean accept(LogLevel logLevel, String message, BiConsumer<LogLevel, String> notices) {
+        TokenBucket bucket = buckets[logLevel.ordinal()];
+        if (bucket == null) {
+            return true;
+        }
+        if (!bucket.tryAcquire()) {
+            return false;
+        }
+        reportDropped(logLevel, bucket, notices);
+        return true;
+    }
+
+    @Override
+    public void flush(BiConsumer<LogLevel, String> notices) {
+        for (LogLevel logLevel : LogLevel.values()) {
+            TokenBucket bucket = buckets[logLevel.ordinal()];
+            if (bucket != null) {
+                reportDropped(logLevel, bucket, notices);
+            }
+        }
+    }
+
+    private static void reportDropped(LogLevel logLevel, TokenBucket bucket, BiConsumer<LogLevel, String> notices) {
+        long dropped = bucket.takeDropped();
+        if (dropped > 0) {
+            notices.accept(logLevel, dropped + " " + logLevel + " messages were dropped by the log rate limit of "
+                    + bucket.messagesPerSecond + " per second");
+        }
+    }
+
+    private static final class TokenBucket {
+        private final int messagesPerSecond;
+        private final LongSupplier nanoClock;
+        // tokens are counted in nanoseconds of refill time, up to one second's worth
+        private long availableNanos = NANOS_PER_SECOND;
+        private long lastRefill;
+        private long dropped;
+
+        TokenBucket(int messagesPerSecond, LongSupplier nanoClock) {
+            this.messagesPerSecond = messagesPerSecond;
+            this.nanoClock = nanoClock;
+            this.lastRefill = nanoClock.getAsLong();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = nanoClock.getAsLong();
+            availableNanos = Math.min(NANOS_PER_SECOND, availableNanos + (now - lastRefill));
+            lastRefill = now;
+
+            long cost = NANOS_PER_SECOND / messagesPerSecond;
+            if (availableNanos < cost) {
+                dropped++;
+                return false;
+            }
+            availableNanos -= cost;
+            return true;
+        }
+
+        synchronized long takeDropped() {
+            long result = dropped;
+            dropped = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the messages of a level for a fraction of the invocations only, such as DEBUG for 1% of requests. Whether an
+ * invocation is sampled is derived from a hash of its request ID, so every message of a sampled invocation is kept and
+ * the decision is the same wherever the request ID is seen. Messages logged on threads without an invocation context,
+ * such as during init, are always kept.
+ */
+public class SamplingLogFilter implements LogFilter {
+    private static final double UNSAMPLED = -1;
+
+    private final double[] sampleRates = new double[LogLevel.values().length];
+    // position of the current invocation in [0, 1), compared against the sample rates
+    private final ThreadLocal<Double> requestPosition = ThreadLocal.withInitial(() -> UNSAMPLED);
+
+    public SamplingLogFilter(Map<LogLevel, Double> sampleRates) {
+        Arrays.fill(this.sampleRates, 1.0);
+        for (Map.Entry<LogLevel, Double> sampleRate : sampleRates.entrySet()) {
+            if (!(sampleRate.getValue() >= 0 && sampleRate.getValue() <= 1)) {
+                throw new IllegalArgumentException("Invalid log sample rate for " + sampleRate.getKey() + ": " + sampleRate.getValue()
+                        + ", expected a value between 0 and 1");
+            }
+            this.sampleRates[sampleRate.getKey().ordinal()] = sampleRate.getValue();
+        }
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel logLevel) {
+        double position = requestPosition.get();
+        return position == UNSAMPLED || position < sampleRates[logLevel.ordinal()];
+    }
+
+    @Override
+    public boolean accept(LogLevel logLevel, String message, BiConsumer<LogLevel, String> notices) {
+        return isEnabled(logLevel);
+    }
+
+    @Override
+    public void setLambdaContext(LambdaContext context) {
+        String requestId = context != null ? context.getAwsRequestId() : null;
+        requestPosition.set(requestId != null ? position(requestId) : UNSAMPLED);
+    }
+
+    /**
+     * Maps a request ID to [0, 1), spreading String.hashCode with the MurmurHash3 finalizer.
+     */
+    static double position(String requestId) {
+        long hash = requestId.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -8,8 +8,14 @@ package com.amazonaws.services.lambda.runtime.api.client.logging;
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import java.io.IOException;
+import java.io.PrintStream;
 
 public class StdOutLogSink implements LogSink {
+    // stderr before System.err is redirected, so a failed write is not reported through the runtime's own streams
+    private static final PrintStream STDERR = System.err;
+
+    private final LogBuffer batchBuffer = new LogBuffer();
+
     @Override
     public void log(byte[] message) {
         log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
@@ -18,9 +24,26 @@ public class StdOutLogSink implements LogSink {
     public synchronized void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
         try {
             System.out.write(message);
+            LoggingMetrics.recordWrite(1, message.length);
         } catch (IOException e) {
-            e.printStackTrace();
+            e.printStackTrace(STDERR);
+        }
+    }
+
+    @Override
+    public synchronized void log(LogLevel logLevel, LogFormat logFormat, byte[] message, int offset, int length) {
+        System.out.write(message, offset, length);
+        LoggingMetrics.recordWrite(1, length);
+    }
+
+    @Override
+    public synchronized void log(LogRecord[] records, int offset, int count) {
+        batchBuffer.reset();
+        for (int i = offset; i < offset + count; i++) {
+            batchBuffer.write(records[i].getMessage(), 0, records[i].getLength());
         }
+        System.out.write(batchBuffer.array(), 0, batchBuffer.size());
+        LoggingMetrics.recordWrite(count, batchBuffer.size());
     }
 
     @Override
@@ -0,0 +1,70 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogBuilder;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+
+/**
+ * LogBuilder handed out by {@link AbstractLambdaLogger#atLevel(LogLevel)}. Each thread reuses one builder, so a
+ * structured message allocates nothing; a builder that is still being filled, for example because a field's value
+ * is computed by code that logs itself, is not handed out again until its message has been logged.
+ */
+final class StructuredLogBuilder implements LogBuilder {
+    private final LogFields fields = new LogFields();
+    private AbstractLambdaLogger logger;
+    private LogLevel logLevel;
+
+    LogBuilder start(AbstractLambdaLogger logger, LogLevel logLevel) {
+        this.logger = logger;
+        this.logLevel = logLevel;
+        fields.clear();
+        return this;
+    }
+
+    boolean isInUse() {
+        return logger != null;
+    }
+
+    @Override
+    public LogBuilder with(String key, String value) {
+        fields.add(key, value);
+        return this;
+    }
+
+    @Override
+    public LogBuilder with(String key, long value) {
+        fields.add(key, value);
+        return this;
+    }
+
+    @Override
+    public LogBuilder with(String key, double value) {
+        fields.add(key, value);
+        return this;
+    }
+
+    @Override
+    public LogBuilder with(String key, boolean value) {
+        fields.add(key, value);
+        return this;
+    }
+
+    @Override
+    public void log(String message) {
+        AbstractLambdaLogger target = logger;
+        if (target == null) {
+            // the builder was kept after logging its message
+            return;
+        }
+        try {
+            target.log(message, logLevel, fields);
+        } finally {
+            logger = null;
+            fields.clear();
+        }
+    }
+}
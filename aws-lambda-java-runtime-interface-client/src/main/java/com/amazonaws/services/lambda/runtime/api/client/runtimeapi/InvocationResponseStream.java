@@ -0,0 +1,147 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+package com.amazonaws.services.lambda.runtime.api.client.runtimeapi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * OutputStream that streams an invocation response to the Runtime API using chunked transfer encoding.
+ *
+ * Writes are buffered up to the chunk size; every {@link #flush()} sends the buffered bytes as one chunk. The HTTP
+ * request is only opened when the first chunk is sent, so a handler that fails before producing any output can still
+ * be reported through the regular error endpoint. The stream only counts as started or closed once the native call
+ * doing so has succeeded; a failed native call ends the HTTP request, after which later calls fail too. Instances are
+ * bound to the thread that runs the invocation.
+ */
+public class InvocationResponseStream extends OutputStream {
+
+    static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+    private final byte[] requestId;
+    private final byte[] contentType;
+    private final byte[] buffer;
+    private Runnable beforeFinish;
+    private int count;
+    private boolean started;
+    private boolean closed;
+
+    InvocationResponseStream(String requestId, String contentType, int chunkSize) {
+        this.requestId = requestId.getBytes(UTF_8);
+        this.contentType = contentType.getBytes(UTF_8);
+        this.buffer = new byte[chunkSize];
+    }
+
+    /**
+     * @return true once the response has been opened, after which errors can only be reported with
+     * {@link #closeWithError(LambdaError)}
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Sets an action that runs once right before the response is ended, whether by the runtime or by a handler closing
+     * the stream itself.
+     */
+    public void beforeFinish(Runnable action) {
+        this.beforeFinish = action;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            sendBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length >= buffer.length) {
+            // large writes bypass the buffer and go out as a chunk of their own
+            sendBuffer();
+            sendChunk(bytes, offset, length);
+            return;
+        }
+        if (length > buffer.length - count) {
+            sendBuffer();
+        }
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        sendBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish(null, null);
+    }
+
+    /**
+     * Ends the response reporting the error in the response trailers. Use this instead of the error endpoint once
+     * the response has been started.
+     */
+    public void closeWithError(LambdaError error) throws IOException {
+        byte[] errorBody = DtoSerializers.serialize(error.errorRequest);
+        finish(error.errorType.getRapidError().getBytes(UTF_8),
+                Base64.getEncoder().encode(errorBody == null ? new byte[0] : errorBody));
+    }
+
+    private void finish(byte[] errorType, byte[] errorBody) throws IOException {
+        if (closed) {
+            if (errorType != null) {
+                throw new IOException("Cannot report error, the streamed response is already closed");
+            }
+            return;
+        }
+        if (beforeFinish != null) {
+            Runnable action = beforeFinish;
+            beforeFinish = null;
+            action.run();
+        }
+        sendBuffer();
+        start();
+        NativeClient.finishStreamingResponse(errorType, errorBody);
+        closed = true;
+    }
+
+    private void sendBuffer() {
+        if (count > 0) {
+            sendChunk(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void sendChunk(byte[] bytes, int offset, int length) {
+        start();
+        NativeClient.writeStreamingResponse(bytes, offset, length);
+    }
+
+    private void start() {
+        if (!started) {
+            NativeClient.startStreamingResponse(requestId, contentType);
+            started = true;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Streamed response is closed");
+        }
+    }
+}
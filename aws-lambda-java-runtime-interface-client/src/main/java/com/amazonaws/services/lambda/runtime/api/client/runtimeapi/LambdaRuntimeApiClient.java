@@ -7,6 +7,7 @@ package com.amazonaws.services.lambda.runtime.api.client.runtimeapi;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Java interface for 
@@ -37,6 +38,35 @@ public interface LambdaRuntimeApiClient {
      */
     void reportInvocationSuccess(String requestId, byte[] response) throws IOException;
 
+    /**
+     * Report invocation success using the first {@code length} bytes of {@code response}
+     * @param requestId request id
+     * @param response byte array holding the response, possibly larger than the response itself
+     * @param length number of bytes of the response
+     */
+    default void reportInvocationSuccess(String requestId, byte[] response, int length) throws IOException {
+        reportInvocationSuccess(requestId, length == response.length ? response : Arrays.copyOf(response, length));
+    }
+
+    /**
+     * Open a stream that sends the invocation response incrementally, using the streaming response mode
+     * @param requestId request id
+     * @return stream that has to be closed once the response is complete
+     */
+    default InvocationResponseStream openInvocationResponseStream(String requestId) throws IOException {
+        return openInvocationResponseStream(requestId, InvocationResponseStream.DEFAULT_CONTENT_TYPE);
+    }
+
+    /**
+     * Open a stream that sends the invocation response incrementally, using the streaming response mode
+     * @param requestId request id
+     * @param contentType content type of the response
+     * @return stream that has to be closed once the response is complete
+     */
+    default InvocationResponseStream openInvocationResponseStream(String requestId, String contentType) throws IOException {
+        throw new UnsupportedOperationException("Response streaming is not supported by " + getClass().getName());
+    }
+
     /**
      * Report invocation error
      * @param requestId request id
@@ -10,13 +10,8 @@ import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.Invocatio
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -31,9 +26,6 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
         System.getProperty("java.vendor.version"),
         LambdaRuntimeApiClientImpl.class.getPackage().getImplementationVersion());
 
-    private static final String DEFAULT_CONTENT_TYPE = "application/json";
-    private static final String XRAY_ERROR_CAUSE_HEADER = "Lambda-Runtime-Function-XRay-Error-Cause";
-    private static final String ERROR_TYPE_HEADER = "Lambda-Runtime-Function-Error-Type";
     // 1MiB
     private static final int XRAY_ERROR_CAUSE_MAX_HEADER_SIZE = 1024 * 1024;
     
@@ -44,11 +36,22 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
 
     private final String baseUrl;
     private final String invocationEndpoint;
+    private final boolean directPayloadBuffer;
 
     public LambdaRuntimeApiClientImpl(String hostnameAndPort) {
+        this(hostnameAndPort, false);
+    }
+
+    /**
+     * @param hostnameAndPort Runtime API host and port
+     * @param directPayloadBuffer when true, invocation payloads are received into a reusable native buffer and exposed
+     *                            through {@link InvocationRequest#getContentBuffer()} instead of a byte[] copy
+     */
+    public LambdaRuntimeApiClientImpl(String hostnameAndPort, boolean directPayloadBuffer) {
         Objects.requireNonNull(hostnameAndPort, "hostnameAndPort cannot be null");
         this.baseUrl = "http://" + hostnameAndPort;
         this.invocationEndpoint = this.baseUrl + "/2018-06-01/runtime/invocation/";
+        this.directPayloadBuffer = directPayloadBuffer;
         NativeClient.init(hostnameAndPort);
     }
 
@@ -60,7 +63,7 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
 
     @Override
     public InvocationRequest nextInvocation() {
-        return NativeClient.next();
+        return directPayloadBuffer ? NativeClient.nextDirect() : NativeClient.next();
     }
 
     /*
@@ -124,7 +127,22 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
 
     @Override
     public void reportInvocationSuccess(String requestId, byte[] response) {
-        NativeClient.postInvocationResponse(requestId.getBytes(UTF_8), response);
+        reportInvocationSuccess(requestId, response, response.length);
+    }
+
+    @Override
+    public void reportInvocationSuccess(String requestId, byte[] response, int length) {
+        NativeClient.postInvocationResponse(requestId.getBytes(UTF_8), response, length);
+    }
+
+    @Override
+    public InvocationResponseStream openInvocationResponseStream(String requestId) {
+        return openInvocationResponseStream(requestId, InvocationResponseStream.DEFAULT_CONTENT_TYPE);
+    }
+
+    @Override
+    public InvocationResponseStream openInvocationResponseStream(String requestId, String contentType) {
+        return new InvocationResponseStream(requestId, contentType, InvocationResponseStream.DEFAULT_CHUNK_SIZE);
     }
 
     @Override
@@ -136,7 +154,7 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
     @Override
     public void restoreNext() throws IOException {
         String endpoint = this.baseUrl + "/2018-06-01/runtime/restore/next";
-        int responseCode = doGet(endpoint);
+        int responseCode = NativeClient.get(createUrl(endpoint).toString().getBytes(UTF_8));
         if (responseCode != HTTP_OK) {
             throw new LambdaRuntimeClientException(endpoint, responseCode);
         }
@@ -149,63 +167,23 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
     }
 
     void reportLambdaError(String endpoint, LambdaError error, int maxXrayHeaderSize) throws IOException {
-        Map<String, String> headers = new HashMap<>();
-        headers.put(ERROR_TYPE_HEADER, error.errorType.getRapidError());
-
+        byte[] xRayErrorCause = null;
         if (error.xRayErrorCause != null) {
             byte[] xRayErrorCauseJson = DtoSerializers.serialize(error.xRayErrorCause);
             if (xRayErrorCauseJson != null && xRayErrorCauseJson.length < maxXrayHeaderSize) {
-                headers.put(XRAY_ERROR_CAUSE_HEADER, new String(xRayErrorCauseJson));
+                xRayErrorCause = xRayErrorCauseJson;
             }
         }
 
         byte[] payload = DtoSerializers.serialize(error.errorRequest);
-        int responseCode = doPost(endpoint, headers, payload);
+        URL url = createUrl(endpoint);
+        int responseCode = NativeClient.postError(url.toString().getBytes(UTF_8),
+                error.errorType.getRapidError().getBytes(UTF_8), xRayErrorCause, payload);
         if (responseCode != HTTP_ACCEPTED) {
             throw new LambdaRuntimeClientException(endpoint, responseCode);
         }
     }
 
-    private int doPost(String endpoint,
-                       Map<String, String> headers,
-                       byte[] payload) throws IOException {
-        URL url = createUrl(endpoint);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Content-Type", DEFAULT_CONTENT_TYPE);
-        conn.setRequestProperty("User-Agent", USER_AGENT);
-
-        for (Map.Entry<String, String> header : headers.entrySet()) {
-            conn.setRequestProperty(header.getKey(), header.getValue());
-        }
-
-        conn.setFixedLengthStreamingMode(payload.length);
-        conn.setDoOutput(true);
-
-        try (OutputStream outputStream = conn.getOutputStream()) {
-            outputStream.write(payload);
-        }
-
-        // get response code before closing the stream
-        int responseCode = conn.getResponseCode();
-        // don't need to read the response, close stream to ensure connection re-use
-        closeInputStreamQuietly(conn);
-
-        return responseCode;
-    }
-
-    private int doGet(String endpoint) throws IOException {
-        URL url = createUrl(endpoint);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setRequestProperty("User-Agent", USER_AGENT);
-
-        int responseCode = conn.getResponseCode();
-        closeInputStreamQuietly(conn);
-
-        return responseCode;
-    }
-
     private URL createUrl(String endpoint) {
         try {
             return new URL(endpoint);
@@ -213,23 +191,4 @@ public class LambdaRuntimeApiClientImpl implements LambdaRuntimeApiClient {
             throw new RuntimeException(e);
         }
     }
-
-    private void closeInputStreamQuietly(HttpURLConnection conn) {
-
-        InputStream inputStream;
-        try {
-            inputStream = conn.getInputStream();
-        } catch (IOException e) {
-            return;
-        }
-
-        if (inputStream == null) {
-            return;
-        }
-        try {
-            inputStream.close();
-        } catch (IOException e) {
-            // ignore
-        }
-    }
 }
@@ -21,6 +21,44 @@ class NativeClient {
 
     static native InvocationRequest next();
 
-    static native void postInvocationResponse(byte[] requestId, byte[] response);
+    /**
+     * Same as {@link #next()}, but the payload is exposed as a direct ByteBuffer over a per-thread native arena
+     * instead of being copied into a byte[]. The buffer is overwritten by the next call on the same thread.
+     */
+    static native InvocationRequest nextDirect();
+
+    /**
+     * Posts the first {@code length} bytes of {@code response}. Taking the length lets callers pass the backing array
+     * of a reusable output buffer directly instead of trimming it with a copy first.
+     */
+    static native void postInvocationResponse(byte[] requestId, byte[] response, int length);
+
+    /**
+     * Opens a chunked response for the invocation on the calling thread. The following
+     * {@link #writeStreamingResponse} and {@link #finishStreamingResponse} calls must happen on the same thread.
+     */
+    static native void startStreamingResponse(byte[] requestId, byte[] contentType);
+
+    static native void writeStreamingResponse(byte[] data, int offset, int length);
+
+    /**
+     * Ends the streamed response. A non-null {@code errorType} reports a mid-stream failure through the response
+     * trailers, with {@code errorBody} holding the base64 encoded error payload.
+     */
+    static native void finishStreamingResponse(byte[] errorType, byte[] errorBody);
+
+    /**
+     * Posts an error report to {@code url} on the calling thread's connection. {@code xRayErrorCause} may be null.
+     *
+     * @return the HTTP status code of the Runtime API response
+     */
+    static native int postError(byte[] url, byte[] errorType, byte[] xRayErrorCause, byte[] payload);
+
+    /**
+     * Sends a GET request to {@code url} on the calling thread's connection.
+     *
+     * @return the HTTP status code of the Runtime API response
+     */
+    static native int get(byte[] url);
 
 }
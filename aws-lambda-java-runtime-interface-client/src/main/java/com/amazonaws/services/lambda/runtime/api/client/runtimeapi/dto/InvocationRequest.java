@@ -4,6 +4,11 @@ SPDX-License-Identifier: Apache-2.0
 */
 package com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto;
 
+import com.amazonaws.services.lambda.runtime.api.client.util.ByteBufferInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 /**
  * An invocation request represents the response of the runtime API's next invocation API.
  */
@@ -47,6 +52,13 @@ public class InvocationRequest {
 
     private byte[] content;
 
+    /**
+     * The payload as a direct buffer over native memory. This field is populated instead of content when the
+     * payload is received without copying it onto the Java heap. The buffer is only valid until the next
+     * invocation is fetched on the same thread.
+     */
+    private ByteBuffer contentBuffer;
+
     public String getId() {
         return id;
     }
@@ -108,10 +120,45 @@ public class InvocationRequest {
     }
 
     public byte[] getContent() {
+        if (content == null && contentBuffer != null) {
+            ByteBuffer view = contentBuffer.duplicate();
+            content = new byte[view.remaining()];
+            view.get(content);
+        }
         return content;
     }
 
     public void setContent(byte[] content) {
         this.content = content;
     }
+
+    public ByteBuffer getContentBuffer() {
+        return contentBuffer;
+    }
+
+    public void setContentBuffer(ByteBuffer contentBuffer) {
+        this.contentBuffer = contentBuffer;
+    }
+
+    /**
+     * Copies a payload held in the native content buffer onto the heap, so the request stays valid when it is handed
+     * to another thread and the receiving thread reuses its buffer.
+     */
+    public void detachContentBuffer() {
+        if (contentBuffer != null) {
+            getContent();
+            contentBuffer = null;
+        }
+    }
+
+    /**
+     * Returns a stream over the payload. When the payload was received into a direct buffer the stream reads it in
+     * place, otherwise it wraps the content array.
+     */
+    public InputStream getContentAsStream() {
+        if (content == null && contentBuffer != null) {
+            return new ByteBufferInputStream(contentBuffer.duplicate());
+        }
+        return new ByteArrayInputStream(content);
+    }
 }
@@ -13,6 +13,8 @@ import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 
 public class ConcurrencyConfig {
     private final int numberOfPlatformThreads;
+    private final boolean useVirtualThreads;
+    private final boolean usePipelinedDispatcher;
     private final String INVALID_CONFIG_MESSAGE_PREFIX = String.format("User configured %s is invalid.", ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY);
 
     public ConcurrencyConfig(LambdaContextLogger logger) {
@@ -34,9 +36,33 @@ public class ConcurrencyConfig {
         }
 
         this.numberOfPlatformThreads = readNumOfPlatformThreads;
+        this.useVirtualThreads = readNumOfPlatformThreads >= 1 && readUseVirtualThreads(logger, envReader);
+        this.usePipelinedDispatcher = readNumOfPlatformThreads >= 1 && !this.useVirtualThreads
+                && Boolean.parseBoolean(envReader.getEnvOrDefault(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_PIPELINED_DISPATCHER, "false"));
+    }
+
+    private static boolean readUseVirtualThreads(LambdaContextLogger logger, EnvReader envReader) {
+        if (!Boolean.parseBoolean(envReader.getEnvOrDefault(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_VIRTUAL_THREADS, "false"))) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            String message = String.format("%s is set but virtual threads require Java 21 or later. Falling back to platform threads.",
+                    ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_VIRTUAL_THREADS);
+            logger.log(message, logger.getLogFormat() == LogFormat.JSON ? LogLevel.WARN : LogLevel.UNDEFINED);
+            return false;
+        }
+        return true;
     }
 
     public String getConcurrencyConfigMessage() {
+        if (this.useVirtualThreads) {
+            return String.format("Starting up to %d concurrent function handler virtual threads fed by %d runtime polling threads.",
+                    this.numberOfPlatformThreads, getNumberOfPollerThreads());
+        }
+        if (this.usePipelinedDispatcher) {
+            return String.format("Starting %d concurrent function handler threads fed by %d runtime polling threads and %d reporting threads.",
+                    this.numberOfPlatformThreads, getNumberOfPollerThreads(), getNumberOfReporterThreads());
+        }
         return String.format("Starting %d concurrent function handler threads.", this.numberOfPlatformThreads);
     }
 
@@ -47,4 +73,35 @@ public class ConcurrencyConfig {
     public int getNumberOfPlatformThreads() {
         return numberOfPlatformThreads;
     }
+
+    /**
+     * When true, handlers run on virtual threads while a few platform threads poll the Runtime API and post the
+     * responses. The blocking native calls would pin the carrier of a virtual thread, so they are only made from
+     * platform threads.
+     */
+    public boolean useVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * When true, polling, handler execution and result reporting run on separate threads connected by bounded
+     * queues. Virtual thread mode takes precedence.
+     */
+    public boolean usePipelinedDispatcher() {
+        return usePipelinedDispatcher;
+    }
+
+    /**
+     * Number of platform threads reporting results in virtual thread and pipelined dispatcher mode.
+     */
+    public int getNumberOfReporterThreads() {
+        return getNumberOfPollerThreads();
+    }
+
+    /**
+     * Number of platform threads polling the Runtime API in virtual thread and pipelined dispatcher mode.
+     */
+    public int getNumberOfPollerThreads() {
+        return Math.min(numberOfPlatformThreads, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
 }
@@ -10,14 +10,18 @@ import java.io.OutputStream;
 
 public class LambdaOutputStream extends OutputStream {
     private final OutputStream inner;
+    private final byte[] singleByte = new byte[1];
 
     public LambdaOutputStream(OutputStream inner) {
         this.inner = inner;
     }
 
     @Override
-    public void write(int b) throws IOException {
-        write(new byte[]{(byte) b});
+    public synchronized void write(int b) throws IOException {
+        // reuses one array instead of allocating per byte, and keeps writing through write(byte[], int, int) so the
+        // inner stream flushes the same way it does for larger writes
+        singleByte[0] = (byte) b;
+        write(singleByte, 0, 1);
     }
 
     @Override
@@ -0,0 +1,27 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A ByteArrayOutputStream that gives access to its backing array, so the handler response can be posted without
+ * the copy made by {@link #toByteArray()}. Only the first {@link #size()} bytes of {@link #getBuffer()} are valid.
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    public ReusableByteArrayOutputStream(int size) {
+        super(size);
+    }
+
+    /**
+     * Returns the backing array without copying it. The array is replaced when the stream grows and its contents
+     * are overwritten after {@link #reset()}.
+     */
+    public byte[] getBuffer() {
+        return buf;
+    }
+}
@@ -17,6 +17,7 @@ static jfieldID invokedFunctionArnField;
 static jfieldID deadlineTimeInMsField;
 static jfieldID idField;
 static jfieldID contentField;
+static jfieldID contentBufferField;
 static jfieldID clientContextField;
 static jfieldID cognitoIdentityField;
 static jfieldID xrayTraceIdField;
@@ -39,6 +40,7 @@ jint JNI_OnLoad(JavaVM* vm, void* reserved) {
     invokedFunctionArnField = env->GetFieldID(invocationRequestClass , "invokedFunctionArn", "Ljava/lang/String;");
     deadlineTimeInMsField = env->GetFieldID(invocationRequestClass , "deadlineTimeInMs", "J");
     contentField = env->GetFieldID(invocationRequestClass , "content", "[B");
+    contentBufferField = env->GetFieldID(invocationRequestClass , "contentBuffer", "Ljava/nio/ByteBuffer;");
     xrayTraceIdField = env->GetFieldID(invocationRequestClass , "xrayTraceId", "Ljava/lang/String;");
     clientContextField = env->GetFieldID(invocationRequestClass , "clientContext", "Ljava/lang/String;");
     cognitoIdentityField = env->GetFieldID(invocationRequestClass , "cognitoIdentity", "Ljava/lang/String;");
@@ -77,19 +79,8 @@ JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_run
   CLIENT = new aws::lambda_runtime::runtime(endpoint, user_agent);
 }
 
-JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_next
-  (JNIEnv *env, jobject thisObject){
-  auto outcome = CLIENT->get_next();
-  if (!outcome.is_success()) {
-    std::string errorMessage("Failed to get next.");
-    throwLambdaRuntimeClientException(env, errorMessage, outcome.get_failure());
-    return NULL;
-  }
-
+static jobject toInvocationRequest(JNIEnv *env, aws::lambda_runtime::invocation_request const& response) {
   jobject invocationRequest;
-  jbyteArray jArray;
-  const jbyte* bytes;
-  auto response = outcome.get_result();
 
   CHECK_EXCEPTION(env, invocationRequest = env->AllocObject(invocationRequestClass));
   CHECK_EXCEPTION(env, env->SetObjectField(invocationRequest, idField, env->NewStringUTF(response.request_id.c_str())));
@@ -112,6 +103,28 @@ JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_
     CHECK_EXCEPTION(env, env->SetObjectField(invocationRequest, tenantIdField, env->NewStringUTF(response.tenant_id.c_str())));
   }
 
+  return invocationRequest;
+
+  ERROR:
+      return NULL;
+}
+
+JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_next
+  (JNIEnv *env, jobject thisObject){
+  auto outcome = CLIENT->get_next();
+  if (!outcome.is_success()) {
+    std::string errorMessage("Failed to get next.");
+    throwLambdaRuntimeClientException(env, errorMessage, outcome.get_failure());
+    return NULL;
+  }
+
+  jobject invocationRequest;
+  jbyteArray jArray;
+  const jbyte* bytes;
+  auto const& response = outcome.get_result();
+
+  CHECK_EXCEPTION(env, invocationRequest = toInvocationRequest(env, response));
+
   bytes = reinterpret_cast<const jbyte*>(response.payload.c_str());
   CHECK_EXCEPTION(env, jArray = env->NewByteArray(response.payload.length()));
   CHECK_EXCEPTION(env, env->SetByteArrayRegion(jArray, 0, response.payload.length(), bytes));
@@ -123,9 +136,40 @@ JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_
       return NULL;
 }
 
+// Per-thread arena the invocation payload is received into. Its capacity is retained between invocations, and the
+// direct ByteBuffer handed to Java stays valid until the next call to nextDirect() on the same thread.
+thread_local static std::string payloadArena;
+
+JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_nextDirect
+  (JNIEnv *env, jobject thisObject){
+  auto outcome = CLIENT->get_next(payloadArena);
+  if (!outcome.is_success()) {
+    std::string errorMessage("Failed to get next.");
+    throwLambdaRuntimeClientException(env, errorMessage, outcome.get_failure());
+    return NULL;
+  }
+
+  jobject invocationRequest;
+  jobject jBuffer;
+
+  CHECK_EXCEPTION(env, invocationRequest = toInvocationRequest(env, outcome.get_result()));
+  CHECK_EXCEPTION(env, jBuffer = env->NewDirectByteBuffer(const_cast<char*>(payloadArena.data()), payloadArena.length()));
+  CHECK_EXCEPTION(env, env->SetObjectField(invocationRequest, contentBufferField, jBuffer));
+
+  return invocationRequest;
+
+  ERROR:
+      return NULL;
+}
+
+// Per-thread arena the handler response is copied into before posting. The response is copied exactly once, straight
+// from the Java array, and curl reads it from here; the capacity is retained between invocations.
+thread_local static std::string responseArena;
+
 JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_postInvocationResponse
-  (JNIEnv *env, jobject thisObject, jbyteArray jrequestId, jbyteArray jresponseArray) {
-  std::string payload = toNativeString(env, jresponseArray);
+  (JNIEnv *env, jobject thisObject, jbyteArray jrequestId, jbyteArray jresponseArray, jint jlength) {
+  responseArena.resize(static_cast<size_t>(jlength));
+  env->GetByteArrayRegion(jresponseArray, 0, jlength, reinterpret_cast<jbyte*>(&responseArena[0]));
   if ((env)->ExceptionOccurred()){
     return;
   }
@@ -134,10 +178,103 @@ JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_run
     return;
   }
 
-  auto response = aws::lambda_runtime::invocation_response::success(payload, "application/json");
-  auto outcome = CLIENT->post_success(requestId, response);
+  auto outcome = CLIENT->post_success(requestId, responseArena.data(), responseArena.length(), "application/json");
   if (!outcome.is_success()) {
     std::string errorMessage("Failed to post invocation response.");
     throwLambdaRuntimeClientException(env, errorMessage, outcome.get_failure());
   }
 }
+
+static void throwOnStreamingFailure(JNIEnv *env, aws::lambda_runtime::runtime::post_outcome const& outcome, char const* errorMessage) {
+  if (!outcome.is_success()) {
+    throwLambdaRuntimeClientException(env, std::string(errorMessage), outcome.get_failure());
+  }
+}
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_startStreamingResponse
+  (JNIEnv *env, jobject thisObject, jbyteArray jrequestId, jbyteArray jcontentType) {
+  std::string requestId = toNativeString(env, jrequestId);
+  if ((env)->ExceptionOccurred()){
+    return;
+  }
+  std::string contentType = toNativeString(env, jcontentType);
+  if ((env)->ExceptionOccurred()){
+    return;
+  }
+
+  throwOnStreamingFailure(env, CLIENT->start_streaming_response(requestId, contentType), "Failed to start streamed response.");
+}
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_writeStreamingResponse
+  (JNIEnv *env, jobject thisObject, jbyteArray jdata, jint joffset, jint jlength) {
+  responseArena.resize(static_cast<size_t>(jlength));
+  env->GetByteArrayRegion(jdata, joffset, jlength, reinterpret_cast<jbyte*>(&responseArena[0]));
+  if ((env)->ExceptionOccurred()){
+    return;
+  }
+
+  throwOnStreamingFailure(env, CLIENT->write_streaming_response(responseArena.data(), responseArena.length()), "Failed to write streamed response.");
+}
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_finishStreamingResponse
+  (JNIEnv *env, jobject thisObject, jbyteArray jerrorType, jbyteArray jerrorBody) {
+  std::string errorType;
+  std::string errorBody;
+  if (jerrorType != NULL) {
+    errorType = toNativeString(env, jerrorType);
+    if ((env)->ExceptionOccurred()){
+      return;
+    }
+    errorBody = toNativeString(env, jerrorBody);
+    if ((env)->ExceptionOccurred()){
+      return;
+    }
+  }
+
+  throwOnStreamingFailure(env, CLIENT->finish_streaming_response(errorType, errorBody), "Failed to finish streamed response.");
+}
+
+static jint toStatusCode(JNIEnv *env, aws::lambda_runtime::runtime::status_outcome const& outcome, char const* errorMessage) {
+  if (!outcome.is_success()) {
+    throwLambdaRuntimeClientException(env, std::string(errorMessage), outcome.get_failure());
+    return -1;
+  }
+  return static_cast<jint>(outcome.get_result());
+}
+
+JNIEXPORT jint JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_postError
+  (JNIEnv *env, jobject thisObject, jbyteArray jurl, jbyteArray jerrorType, jbyteArray jxrayErrorCause, jbyteArray jpayload) {
+  std::string url = toNativeString(env, jurl);
+  if ((env)->ExceptionOccurred()){
+    return -1;
+  }
+  std::string errorType = toNativeString(env, jerrorType);
+  if ((env)->ExceptionOccurred()){
+    return -1;
+  }
+  std::string xrayErrorCause;
+  if (jxrayErrorCause != NULL) {
+    xrayErrorCause = toNativeString(env, jxrayErrorCause);
+    if ((env)->ExceptionOccurred()){
+      return -1;
+    }
+  }
+  jint length = env->GetArrayLength(jpayload);
+  responseArena.resize(static_cast<size_t>(length));
+  env->GetByteArrayRegion(jpayload, 0, length, reinterpret_cast<jbyte*>(&responseArena[0]));
+  if ((env)->ExceptionOccurred()){
+    return -1;
+  }
+
+  return toStatusCode(env, CLIENT->post_error(url, errorType, xrayErrorCause, responseArena.data(), responseArena.length()), "Failed to post error.");
+}
+
+JNIEXPORT jint JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_get
+  (JNIEnv *env, jobject thisObject, jbyteArray jurl) {
+  std::string url = toNativeString(env, jurl);
+  if ((env)->ExceptionOccurred()){
+    return -1;
+  }
+
+  return toStatusCode(env, CLIENT->get(url), "Failed to get.");
+}
@@ -16,9 +16,27 @@ JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_run
 JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_next
   (JNIEnv *, jobject);
 
+JNIEXPORT jobject JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_nextDirect
+  (JNIEnv *, jobject);
+
 JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_postInvocationResponse
+  (JNIEnv *, jobject, jbyteArray, jbyteArray, jint);
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_startStreamingResponse
+  (JNIEnv *, jobject, jbyteArray, jbyteArray);
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_writeStreamingResponse
+  (JNIEnv *, jobject, jbyteArray, jint, jint);
+
+JNIEXPORT void JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_finishStreamingResponse
   (JNIEnv *, jobject, jbyteArray, jbyteArray);
 
+JNIEXPORT jint JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_postError
+  (JNIEnv *, jobject, jbyteArray, jbyteArray, jbyteArray, jbyteArray);
+
+JNIEXPORT jint JNICALL Java_com_amazonaws_services_lambda_runtime_api_client_runtimeapi_NativeClient_get
+  (JNIEnv *, jobject, jbyteArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -141,6 +141,7 @@ class runtime {
 public:
     using next_outcome = aws::lambda_runtime::outcome<invocation_request, aws::http::response_code>;
     using post_outcome = aws::lambda_runtime::outcome<no_result, aws::http::response_code>;
+    using status_outcome = aws::lambda_runtime::outcome<long, aws::http::response_code>;
 
     runtime(std::string const& endpoint, std::string const& user_agent);
     runtime(std::string const& endpoint);
@@ -151,23 +152,93 @@ public:
      */
     next_outcome get_next();
 
+    /**
+     * Ask lambda for an invocation, receiving the payload into the caller-owned buffer instead of
+     * invocation_request::payload. The buffer is cleared first, so its capacity is reused across calls.
+     */
+    next_outcome get_next(std::string& payload_buffer);
+
     /**
      * Tells lambda that the function has succeeded.
      */
     post_outcome post_success(std::string const& request_id, invocation_response const& handler_response);
 
+    /**
+     * Tells lambda that the function has succeeded, reading the payload straight from the caller-owned memory
+     * instead of copying it into an invocation_response first. The memory must stay valid until the call returns.
+     */
+    post_outcome post_success(
+        std::string const& request_id,
+        char const* payload,
+        size_t payload_length,
+        std::string const& content_type);
+
     /**
      * Tells lambda that the function has failed.
      */
     post_outcome post_failure(std::string const& request_id, invocation_response const& handler_response);
 
+    /**
+     * Starts streaming the response of the given invocation using chunked transfer encoding and the
+     * 'Lambda-Runtime-Function-Response-Mode: streaming' header. Only one response can be streamed per thread at a
+     * time, and write_streaming_response/finish_streaming_response must be called from the same thread.
+     */
+    post_outcome start_streaming_response(std::string const& request_id, std::string const& content_type);
+
+    /**
+     * Sends the given bytes as the next chunk of the response started by start_streaming_response. The call returns
+     * once curl has taken the whole chunk, so the memory can be reused afterwards.
+     */
+    post_outcome write_streaming_response(char const* payload, size_t payload_length);
+
+    /**
+     * Ends the streamed response and waits for the Runtime API to acknowledge it. A non-empty error_type reports a
+     * mid-stream failure through the Lambda-Runtime-Function-Error-Type and Lambda-Runtime-Function-Error-Body
+     * trailers; error_body is expected to be base64 encoded already.
+     */
+    post_outcome finish_streaming_response(std::string const& error_type, std::string const& error_body);
+
+    /**
+     * Reports an error to the given Runtime API url, e.g. /runtime/init/error, /runtime/restore/error or the /error
+     * path of an invocation. The error type is sent as the Lambda-Runtime-Function-Error-Type header, and a non-empty
+     * xray_error_cause as Lambda-Runtime-Function-XRay-Error-Cause. Like the other calls, it goes through the calling
+     * thread's curl handle and reuses its connection. When the request completes, the outcome holds the HTTP status
+     * code, so callers can check for the exact status they expect.
+     */
+    status_outcome post_error(
+        std::string const& url,
+        std::string const& error_type,
+        std::string const& xray_error_cause,
+        char const* payload,
+        size_t payload_length);
+
+    /**
+     * Sends a GET to the given Runtime API url, e.g. /runtime/restore/next, on the calling thread's curl handle and
+     * discards the response body. When the request completes, the outcome holds the HTTP status code.
+     */
+    status_outcome get(std::string const& url);
+
 private:
     void set_curl_next_options();
     void set_curl_post_result_options();
+    post_outcome drive_streaming_response();
+    next_outcome do_get_next(std::string* payload_buffer);
     post_outcome do_post(
         std::string const& url,
         std::string const& request_id,
         invocation_response const& handler_response);
+    post_outcome do_post(
+        std::string const& url,
+        std::string const& request_id,
+        std::string const& content_type,
+        char const* payload,
+        size_t payload_length);
+    CURLcode perform_post(
+        std::string const& url,
+        curl_slist* headers,
+        char const* payload,
+        size_t payload_length,
+        aws::http::response& resp);
 
 private:
     std::string const m_user_agent_header;
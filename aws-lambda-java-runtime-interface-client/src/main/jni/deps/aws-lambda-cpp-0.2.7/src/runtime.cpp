@@ -41,6 +41,11 @@ static constexpr auto COGNITO_IDENTITY_HEADER = "lambda-runtime-cognito-identity
 static constexpr auto DEADLINE_MS_HEADER = "lambda-runtime-deadline-ms";
 static constexpr auto FUNCTION_ARN_HEADER = "lambda-runtime-invoked-function-arn";
 static constexpr auto TENANT_ID_HEADER = "lambda-runtime-aws-tenant-id";
+static constexpr auto RESPONSE_MODE_HEADER = "Lambda-Runtime-Function-Response-Mode";
+static constexpr auto ERROR_TYPE_TRAILER = "Lambda-Runtime-Function-Error-Type";
+static constexpr auto ERROR_BODY_TRAILER = "Lambda-Runtime-Function-Error-Body";
+static constexpr auto ERROR_TYPE_HEADER = "Lambda-Runtime-Function-Error-Type";
+static constexpr auto XRAY_ERROR_CAUSE_HEADER = "Lambda-Runtime-Function-XRay-Error-Cause";
 thread_local static CURL* m_curl_handle = curl_easy_init();
 
 enum Endpoints {
@@ -71,6 +76,20 @@ static size_t write_data(char* ptr, size_t size, size_t nmemb, void* userdata)
     return nmemb;
 }
 
+static size_t write_data_to_buffer(char* ptr, size_t size, size_t nmemb, void* userdata)
+{
+    if (!ptr) {
+        return 0;
+    }
+
+    auto const buffer = static_cast<std::string*>(userdata);
+    assert(size == 1);
+    (void)size; // avoid warning in release builds
+    assert(buffer);
+    buffer->append(ptr, nmemb);
+    return nmemb;
+}
+
 // std::isspace has a few edge cases that would trigger UB. In particular, the documentation says:
 // "The behavior is undefined if the value of the input is not representable as unsigned char and is not equal to EOF."
 // So, this function does the simple obvious thing instead.
@@ -126,25 +145,75 @@ static size_t write_header(char* ptr, size_t size, size_t nmemb, void* userdata)
     return size * nmemb;
 }
 
+struct read_context {
+    char const* data;
+    size_t length;
+    size_t offset;
+};
+
 static size_t read_data(char* buffer, size_t size, size_t nitems, void* userdata)
 {
     auto const limit = size * nitems;
-    auto ctx = static_cast<std::pair<std::string const&, size_t>*>(userdata);
+    auto ctx = static_cast<read_context*>(userdata);
     assert(ctx);
-    auto const unread = ctx->first.length() - ctx->second;
+    auto const unread = ctx->length - ctx->offset;
     if (0 == unread) {
         return 0;
     }
 
-    if (unread <= limit) {
-        std::copy_n(ctx->first.begin() + ctx->second, unread, buffer);
-        ctx->second += unread;
-        return unread;
+    auto const count = unread <= limit ? unread : limit;
+    std::copy_n(ctx->data + ctx->offset, count, buffer);
+    ctx->offset += count;
+    return count;
+}
+
+// State of the response being streamed by the current thread. Chunks are handed to curl one at a time: the read
+// callback pauses the transfer whenever the pending chunk has been consumed and the stream is not finished yet.
+struct streaming_context {
+    CURLM* multi = nullptr;
+    CURL* handle = nullptr;
+    curl_slist* headers = nullptr;
+    aws::http::response resp;
+    char const* data = nullptr;
+    size_t length = 0;
+    size_t offset = 0;
+    bool paused = false;
+    bool finished = false;
+    std::string error_type;
+    std::string error_body;
+};
+
+thread_local static streaming_context m_streaming_ctx;
+
+static size_t read_streaming_data(char* buffer, size_t size, size_t nitems, void* userdata)
+{
+    auto const limit = size * nitems;
+    auto ctx = static_cast<streaming_context*>(userdata);
+    assert(ctx);
+    auto const unread = ctx->length - ctx->offset;
+    if (0 == unread) {
+        if (ctx->finished) {
+            return 0;
+        }
+        ctx->paused = true;
+        return CURL_READFUNC_PAUSE;
     }
 
-    std::copy_n(ctx->first.begin() + ctx->second, limit, buffer);
-    ctx->second += limit;
-    return limit;
+    auto const count = unread <= limit ? unread : limit;
+    std::copy_n(ctx->data + ctx->offset, count, buffer);
+    ctx->offset += count;
+    return count;
+}
+
+static int write_streaming_trailers(curl_slist** list, void* userdata)
+{
+    auto ctx = static_cast<streaming_context*>(userdata);
+    assert(ctx);
+    if (!ctx->error_type.empty()) {
+        *list = curl_slist_append(*list, (std::string(ERROR_TYPE_TRAILER) + ": " + ctx->error_type).c_str());
+        *list = curl_slist_append(*list, (std::string(ERROR_BODY_TRAILER) + ": " + ctx->error_body).c_str());
+    }
+    return CURL_TRAILERFUNC_OK;
 }
 
 #ifndef NDEBUG
@@ -224,10 +293,27 @@ void runtime::set_curl_post_result_options()
 }
 
 runtime::next_outcome runtime::get_next()
+{
+    return do_get_next(nullptr);
+}
+
+runtime::next_outcome runtime::get_next(std::string& payload_buffer)
+{
+    return do_get_next(&payload_buffer);
+}
+
+runtime::next_outcome runtime::do_get_next(std::string* payload_buffer)
 {
     http::response resp;
     set_curl_next_options();
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, &resp);
+    if (payload_buffer) {
+        payload_buffer->clear();
+        curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEFUNCTION, write_data_to_buffer);
+        curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, payload_buffer);
+    }
+    else {
+        curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, &resp);
+    }
     curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HEADERDATA, &resp);
 
     curl_slist* headers = nullptr;
@@ -270,7 +356,9 @@ runtime::next_outcome runtime::get_next()
         return aws::http::response_code::REQUEST_NOT_MADE;
     }
     invocation_request req;
-    req.payload = resp.get_body();
+    if (!payload_buffer) {
+        req.payload = resp.get_body();
+    }
     req.request_id = resp.get_header(REQUEST_ID_HEADER);
 
     if (resp.has_header(TRACE_ID_HEADER)) {
@@ -299,7 +387,7 @@ runtime::next_outcome runtime::get_next()
         logging::log_info(
             LOG_TAG,
             "Received payload: %s\nTime remaining: %" PRId64,
-            req.payload.c_str(),
+            (payload_buffer ? *payload_buffer : req.payload).c_str(),
             static_cast<int64_t>(req.get_time_remaining().count()));
     }
 
@@ -315,6 +403,192 @@ runtime::post_outcome runtime::post_success(std::string const& request_id, invoc
     return do_post(url, request_id, handler_response);
 }
 
+runtime::post_outcome runtime::post_success(
+    std::string const& request_id,
+    char const* payload,
+    size_t payload_length,
+    std::string const& content_type)
+{
+    std::string const url = m_endpoints[Endpoints::RESULT] + request_id + "/response";
+    return do_post(url, request_id, content_type, payload, payload_length);
+}
+
+runtime::post_outcome runtime::start_streaming_response(
+    std::string const& request_id,
+    std::string const& content_type)
+{
+    auto& ctx = lambda_runtime::m_streaming_ctx;
+    if (ctx.handle) {
+        logging::log_error(LOG_TAG, "A streamed response is already in progress on this thread.");
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+    if (!ctx.multi) {
+        // the multi handle owns the connection cache, so it is kept to reuse connections across invocations
+        ctx.multi = curl_multi_init();
+    }
+
+    ctx.handle = curl_easy_init();
+    if (!ctx.multi || !ctx.handle) {
+        logging::log_error(LOG_TAG, "Failed to acquire curl handles for streamed response.");
+        curl_easy_cleanup(ctx.handle);
+        ctx.handle = nullptr;
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+
+    ctx.resp = aws::http::response();
+    ctx.data = nullptr;
+    ctx.length = 0;
+    ctx.offset = 0;
+    ctx.paused = false;
+    ctx.finished = false;
+    ctx.error_type.clear();
+    ctx.error_body.clear();
+
+    std::string const url = m_endpoints[Endpoints::RESULT] + request_id + "/response";
+    logging::log_info(LOG_TAG, "Streaming response to %s", url.c_str());
+
+    curl_easy_setopt(ctx.handle, CURLOPT_URL, url.c_str());
+    curl_easy_setopt(ctx.handle, CURLOPT_TIMEOUT, 0L);
+    curl_easy_setopt(ctx.handle, CURLOPT_CONNECTTIMEOUT, 1L);
+    curl_easy_setopt(ctx.handle, CURLOPT_NOSIGNAL, 1L);
+    curl_easy_setopt(ctx.handle, CURLOPT_TCP_NODELAY, 1L);
+    curl_easy_setopt(ctx.handle, CURLOPT_HTTP_VERSION, CURL_HTTP_VERSION_1_1);
+    curl_easy_setopt(ctx.handle, CURLOPT_PROXY, "");
+
+    curl_easy_setopt(ctx.handle, CURLOPT_POST, 1L);
+    curl_easy_setopt(ctx.handle, CURLOPT_READFUNCTION, read_streaming_data);
+    curl_easy_setopt(ctx.handle, CURLOPT_READDATA, &ctx);
+    curl_easy_setopt(ctx.handle, CURLOPT_TRAILERFUNCTION, write_streaming_trailers);
+    curl_easy_setopt(ctx.handle, CURLOPT_TRAILERDATA, &ctx);
+    curl_easy_setopt(ctx.handle, CURLOPT_WRITEFUNCTION, write_data);
+    curl_easy_setopt(ctx.handle, CURLOPT_WRITEDATA, &ctx.resp);
+    curl_easy_setopt(ctx.handle, CURLOPT_HEADERFUNCTION, write_header);
+    curl_easy_setopt(ctx.handle, CURLOPT_HEADERDATA, &ctx.resp);
+
+#ifndef NDEBUG
+    curl_easy_setopt(ctx.handle, CURLOPT_VERBOSE, 1);
+    curl_easy_setopt(ctx.handle, CURLOPT_DEBUGFUNCTION, rt_curl_debug_callback);
+#endif
+
+    if (content_type.empty()) {
+        ctx.headers = curl_slist_append(ctx.headers, "content-type: application/octet-stream");
+    }
+    else {
+        ctx.headers = curl_slist_append(ctx.headers, ("content-type: " + content_type).c_str());
+    }
+    ctx.headers = curl_slist_append(ctx.headers, "Expect:");
+    ctx.headers = curl_slist_append(ctx.headers, "Transfer-Encoding: chunked");
+    ctx.headers = curl_slist_append(ctx.headers, (std::string(RESPONSE_MODE_HEADER) + ": streaming").c_str());
+    ctx.headers = curl_slist_append(
+        ctx.headers, ("Trailer: " + std::string(ERROR_TYPE_TRAILER) + ", " + ERROR_BODY_TRAILER).c_str());
+    ctx.headers = curl_slist_append(ctx.headers, m_user_agent_header.c_str());
+    curl_easy_setopt(ctx.handle, CURLOPT_HTTPHEADER, ctx.headers);
+
+    curl_multi_add_handle(ctx.multi, ctx.handle);
+    return drive_streaming_response();
+}
+
+runtime::post_outcome runtime::write_streaming_response(char const* payload, size_t payload_length)
+{
+    auto& ctx = lambda_runtime::m_streaming_ctx;
+    if (!ctx.handle) {
+        logging::log_error(LOG_TAG, "No streamed response is in progress on this thread.");
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+    if (0 == payload_length) {
+        // an empty read would end the chunked body
+        return post_outcome(no_result{});
+    }
+
+    ctx.data = payload;
+    ctx.length = payload_length;
+    ctx.offset = 0;
+    ctx.paused = false;
+    curl_easy_pause(ctx.handle, CURLPAUSE_CONT);
+    auto outcome = drive_streaming_response();
+    ctx.data = nullptr;
+    ctx.length = 0;
+    ctx.offset = 0;
+    return outcome;
+}
+
+runtime::post_outcome runtime::finish_streaming_response(std::string const& error_type, std::string const& error_body)
+{
+    auto& ctx = lambda_runtime::m_streaming_ctx;
+    if (!ctx.handle) {
+        logging::log_error(LOG_TAG, "No streamed response is in progress on this thread.");
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+
+    ctx.finished = true;
+    ctx.error_type = error_type;
+    ctx.error_body = error_body;
+    ctx.paused = false;
+    curl_easy_pause(ctx.handle, CURLPAUSE_CONT);
+    // the transfer always completes here, which releases the easy handle
+    return drive_streaming_response();
+}
+
+// Runs the transfer until curl has consumed the pending chunk and paused again, or until the request completes.
+runtime::post_outcome runtime::drive_streaming_response()
+{
+    auto& ctx = lambda_runtime::m_streaming_ctx;
+    int running = 1;
+    while (running) {
+        CURLMcode multi_code = curl_multi_perform(ctx.multi, &running);
+        if (multi_code != CURLM_OK) {
+            logging::log_error(LOG_TAG, "CURL multi returned error code %d - %s", multi_code, curl_multi_strerror(multi_code));
+            running = 0;
+            break;
+        }
+        if (!running || (ctx.paused && !ctx.finished)) {
+            break;
+        }
+        curl_multi_poll(ctx.multi, nullptr, 0, 1000, nullptr);
+    }
+
+    if (running) {
+        return post_outcome(no_result{});
+    }
+
+    CURLcode curl_code = CURLE_OK;
+    int messages_left = 0;
+    while (CURLMsg* msg = curl_multi_info_read(ctx.multi, &messages_left)) {
+        if (msg->msg == CURLMSG_DONE && msg->easy_handle == ctx.handle) {
+            curl_code = msg->data.result;
+        }
+    }
+
+    long http_response_code = 0;
+    curl_easy_getinfo(ctx.handle, CURLINFO_RESPONSE_CODE, &http_response_code);
+    curl_multi_remove_handle(ctx.multi, ctx.handle);
+    curl_easy_cleanup(ctx.handle);
+    curl_slist_free_all(ctx.headers);
+    ctx.handle = nullptr;
+    ctx.headers = nullptr;
+
+    if (curl_code != CURLE_OK) {
+        logging::log_debug(
+            LOG_TAG, "CURL returned error code %d - %s, for streamed response", curl_code, curl_easy_strerror(curl_code));
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+
+    if (!is_success(aws::http::response_code(http_response_code))) {
+        logging::log_error(
+            LOG_TAG,
+            "Failed to post streamed response. Http response code: %ld. %s",
+            http_response_code,
+            ctx.resp.get_body().c_str());
+        return aws::http::response_code(http_response_code);
+    }
+
+    if (!ctx.finished) {
+        // the Runtime API answered before the response was complete
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+    return post_outcome(no_result{});
+}
+
 runtime::post_outcome runtime::post_failure(std::string const& request_id, invocation_response const& handler_response)
 {
     std::string const url = m_endpoints[Endpoints::RESULT] + request_id + "/error";
@@ -326,34 +600,27 @@ runtime::post_outcome runtime::do_post(
     std::string const& request_id,
     invocation_response const& handler_response)
 {
-    set_curl_post_result_options();
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_URL, url.c_str());
-    logging::log_info(LOG_TAG, "Making request to %s", url.c_str());
+    auto const& payload = handler_response.get_payload();
+    return do_post(url, request_id, handler_response.get_content_type(), payload.data(), payload.length());
+}
 
+runtime::post_outcome runtime::do_post(
+    std::string const& url,
+    std::string const& request_id,
+    std::string const& content_type,
+    char const* payload,
+    size_t payload_length)
+{
     curl_slist* headers = nullptr;
-    if (handler_response.get_content_type().empty()) {
+    if (content_type.empty()) {
         headers = curl_slist_append(headers, "content-type: text/html");
     }
     else {
-        headers = curl_slist_append(headers, ("content-type: " + handler_response.get_content_type()).c_str());
+        headers = curl_slist_append(headers, ("content-type: " + content_type).c_str());
     }
 
-    headers = curl_slist_append(headers, "Expect:");
-    headers = curl_slist_append(headers, "transfer-encoding:");
-    headers = curl_slist_append(headers, m_user_agent_header.c_str());
-    auto const& payload = handler_response.get_payload();
-    logging::log_debug(
-        LOG_TAG, "calculating content length... %s", ("content-length: " + std::to_string(payload.length())).c_str());
-    headers = curl_slist_append(headers, ("content-length: " + std::to_string(payload.length())).c_str());
-
-    std::pair<std::string const&, size_t> ctx{payload, 0};
     aws::http::response resp;
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, &resp);
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HEADERDATA, &resp);
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_READDATA, &ctx);
-    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HTTPHEADER, headers);
-    CURLcode curl_code = curl_easy_perform(lambda_runtime::m_curl_handle);
-    curl_slist_free_all(headers);
+    CURLcode curl_code = perform_post(url, headers, payload, payload_length, resp);
 
     if (curl_code != CURLE_OK) {
         logging::log_debug(
@@ -377,6 +644,88 @@ runtime::post_outcome runtime::do_post(
     return post_outcome(no_result{});
 }
 
+CURLcode runtime::perform_post(
+    std::string const& url,
+    curl_slist* headers,
+    char const* payload,
+    size_t payload_length,
+    aws::http::response& resp)
+{
+    set_curl_post_result_options();
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_URL, url.c_str());
+    logging::log_info(LOG_TAG, "Making request to %s", url.c_str());
+
+    headers = curl_slist_append(headers, "Expect:");
+    headers = curl_slist_append(headers, "transfer-encoding:");
+    headers = curl_slist_append(headers, m_user_agent_header.c_str());
+    logging::log_debug(
+        LOG_TAG, "calculating content length... %s", ("content-length: " + std::to_string(payload_length)).c_str());
+    headers = curl_slist_append(headers, ("content-length: " + std::to_string(payload_length)).c_str());
+
+    read_context ctx{payload, payload_length, 0};
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, &resp);
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HEADERDATA, &resp);
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_READDATA, &ctx);
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HTTPHEADER, headers);
+    CURLcode curl_code = curl_easy_perform(lambda_runtime::m_curl_handle);
+    curl_slist_free_all(headers);
+    return curl_code;
+}
+
+runtime::status_outcome runtime::post_error(
+    std::string const& url,
+    std::string const& error_type,
+    std::string const& xray_error_cause,
+    char const* payload,
+    size_t payload_length)
+{
+    curl_slist* headers = nullptr;
+    headers = curl_slist_append(headers, "content-type: application/json");
+    headers = curl_slist_append(headers, (std::string(ERROR_TYPE_HEADER) + ": " + error_type).c_str());
+    if (!xray_error_cause.empty()) {
+        headers = curl_slist_append(headers, (std::string(XRAY_ERROR_CAUSE_HEADER) + ": " + xray_error_cause).c_str());
+    }
+
+    aws::http::response resp;
+    CURLcode curl_code = perform_post(url, headers, payload, payload_length, resp);
+    if (curl_code != CURLE_OK) {
+        logging::log_debug(
+            LOG_TAG, "CURL returned error code %d - %s, for %s", curl_code, curl_easy_strerror(curl_code), url.c_str());
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+
+    long http_response_code;
+    curl_easy_getinfo(lambda_runtime::m_curl_handle, CURLINFO_RESPONSE_CODE, &http_response_code);
+    return status_outcome(http_response_code);
+}
+
+runtime::status_outcome runtime::get(std::string const& url)
+{
+    set_curl_next_options();
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_URL, url.c_str());
+    logging::log_info(LOG_TAG, "Making request to %s", url.c_str());
+
+    curl_slist* headers = nullptr;
+    headers = curl_slist_append(headers, m_user_agent_header.c_str());
+
+    aws::http::response resp;
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_WRITEDATA, &resp);
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HEADERDATA, &resp);
+    curl_easy_setopt(lambda_runtime::m_curl_handle, CURLOPT_HTTPHEADER, headers);
+    CURLcode curl_code = curl_easy_perform(lambda_runtime::m_curl_handle);
+    curl_slist_free_all(headers);
+
+    if (curl_code != CURLE_OK) {
+        logging::log_debug(
+            LOG_TAG, "CURL returned error code %d - %s, for %s", curl_code, curl_easy_strerror(curl_code), url.c_str());
+        return aws::http::response_code::REQUEST_NOT_MADE;
+    }
+
+    long http_response_code;
+    curl_easy_getinfo(lambda_runtime::m_curl_handle, CURLINFO_RESPONSE_CODE, &http_response_code);
+    return status_outcome(http_response_code);
+}
+
 static bool handle_post_outcome(runtime::post_outcome const& o, std::string const& request_id)
 {
     if (o.is_success()) {
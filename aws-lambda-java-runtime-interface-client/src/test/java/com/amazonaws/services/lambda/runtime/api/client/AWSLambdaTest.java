@@ -6,7 +6,9 @@ SPDX-License-Identifier: Apache-2.0
 package com.amazonaws.services.lambda.runtime.api.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -26,11 +28,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.InvocationResponseStream;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClientImpl;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeClientException;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeClientMaxRetriesExceededException;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
 import com.amazonaws.services.lambda.runtime.api.client.util.ConcurrencyConfig;
 import com.amazonaws.services.lambda.runtime.api.client.util.EnvReader;
+import com.amazonaws.services.lambda.runtime.api.client.util.VirtualThreads;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
@@ -41,6 +47,8 @@ import software.amazon.awssdk.utilslite.SdkInternalThreadLocal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -176,6 +184,18 @@ class AWSLambdaTest {
         }
     };
 
+    private LambdaRequestHandler streamingRequestHandler = new LambdaRequestHandler() {
+        @Override
+        public ByteArrayOutputStream call(InvocationRequest request) throws Error, Exception {
+            return lambdaRequestHandler.call(request);
+        }
+
+        @Override
+        public boolean streamsResponse() {
+            return true;
+        }
+    };
+
     private LambdaRequestHandler SdkInternalThreadLocalRequestHandler = new LambdaRequestHandler() {
         private SdkInternalThreadLocalTraceIdHandler SdkInternalThreadLocalHandler = new SdkInternalThreadLocalTraceIdHandler();
 
@@ -248,6 +268,39 @@ class AWSLambdaTest {
         // Hashmap total count should equal all tasks that ran * number of iterations per task
         assertEquals(7 * SampleHandler.nOfIterations, SampleHandler.globalCounter.get());
     }
+
+    /*
+     * Each invocation runs on a virtual thread of its own, fed by the two polling threads.
+     * IMPORTANT: This test fails through only timeout.
+     */
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testConcurrentRunWithVirtualThreads() throws Throwable {
+        assumeTrue(VirtualThreads.isSupported());
+        when(concurrencyConfig.isMultiConcurrent()).thenReturn(true);
+        when(concurrencyConfig.useVirtualThreads()).thenReturn(true);
+        when(concurrencyConfig.getNumberOfPlatformThreads()).thenReturn(4);
+        when(concurrencyConfig.getNumberOfPollerThreads()).thenReturn(2);
+
+        InvocationRequest successfullInvocationRequest = getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE);
+
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenReturn(successfullInvocationRequest)
+        .thenThrow(fakelambdaRuntimeClientMaxRetriesExceededException)
+        .thenThrow(fakelambdaRuntimeClientMaxRetriesExceededException);
+
+        AWSLambda.startRuntimeLoops(lambdaRequestHandler, lambdaLogger, concurrencyConfig, runtimeClient);
+
+        verify(runtimeClient, times(7)).reportInvocationSuccess(eq(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), any());
+        assertEquals(7, SampleHandler.hashMap.size());
+        assertEquals(7 * SampleHandler.nOfIterations, SampleHandler.globalCounter.get());
+    }
  
     @Test
     @Timeout(value = 1, unit = TimeUnit.MINUTES)
@@ -575,4 +628,101 @@ class AWSLambdaTest {
         // Hashmap total count should equal all tasks that ran * number of iterations per task
         assertEquals(2 * SampleHandler.nOfIterations, SampleHandler.globalCounter.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamedResponseThatNeverStartedReportsErrorInstead() throws Throwable {
+        when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.JSON);
+        InvocationResponseStream responseStream = mock(InvocationResponseStream.class);
+        doThrow(new LambdaRuntimeClientException("Failed to start streamed response.", 0)).when(responseStream).close();
+        when(runtimeClient.openInvocationResponseStream(anyString(), anyString())).thenReturn(responseStream);
+
+        InvocationRequest request = getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE);
+        AWSLambda.handleInvocation(streamingRequestHandler, lambdaLogger, runtimeClient, request, true, true);
+
+        verify(responseStream, never()).closeWithError(any());
+        verify(runtimeClient).reportInvocationError(eq(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), any());
+    }
+
+    @Test
+    void testStreamedResponseErrorThatCannotBeReportedDoesNotEscape() throws Throwable {
+        when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.JSON);
+        InvocationResponseStream responseStream = mock(InvocationResponseStream.class);
+        when(responseStream.isStarted()).thenReturn(true);
+        doThrow(new LambdaRuntimeClientException("Failed to finish streamed response.", 500)).when(responseStream).close();
+        doThrow(new LambdaRuntimeClientException("Failed to finish streamed response.", 500)).when(responseStream).closeWithError(any(LambdaError.class));
+        when(runtimeClient.openInvocationResponseStream(anyString(), anyString())).thenReturn(responseStream);
+
+        InvocationRequest request = getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE);
+        boolean shouldExit = AWSLambda.handleInvocation(streamingRequestHandler, lambdaLogger, runtimeClient, request, true, true);
+
+        assertFalse(shouldExit);
+        verify(responseStream).closeWithError(any(LambdaError.class));
+        verify(runtimeClient, never()).reportInvocationError(anyString(), any());
+        verify(lambdaLogger, atLeastOnce()).log(contains("Failed to finish streamed response."), eq(LogLevel.ERROR));
+    }
+
+    @Test
+    void testResponsesOfHandlersThatDoNotStreamArePostedBuffered() throws Throwable {
+        InvocationRequest request = getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE);
+        AWSLambda.handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient, request, true, true);
+
+        verify(runtimeClient, never()).openInvocationResponseStream(anyString(), anyString());
+        verify(runtimeClient).reportInvocationSuccess(eq(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), any());
+    }
+
+    @Test
+    void testLogsAreFlushedBeforeTheStreamedResponseEnds() throws Throwable {
+        InvocationResponseStream responseStream = mock(InvocationResponseStream.class);
+        when(runtimeClient.openInvocationResponseStream(anyString(), anyString())).thenReturn(responseStream);
+
+        InvocationRequest request = getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE);
+        AWSLambda.handleInvocation(streamingRequestHandler, lambdaLogger, runtimeClient, request, true, true);
+
+        // registered before the handler runs, which may close the stream itself
+        ArgumentCaptor<Runnable> beforeFinish = ArgumentCaptor.forClass(Runnable.class);
+        InOrder inOrder = inOrder(responseStream);
+        inOrder.verify(responseStream).beforeFinish(beforeFinish.capture());
+        inOrder.verify(responseStream).close();
+        verify(lambdaLogger, never()).flush();
+        beforeFinish.getValue().run();
+        verify(lambdaLogger).flush();
+    }
+
+    @Test
+    void testReportableErrorIsLoggedBeforeTheInvocationLogsAreFlushed() throws Throwable {
+        when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.JSON);
+        InvocationRequest request = getFakeInvocationRequest(SampleHandler.FAIL_IMMEDIATELY_OP_MODE);
+
+        AWSLambda.handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient, request, true, false);
+
+        InOrder inOrder = inOrder(lambdaLogger, runtimeClient);
+        inOrder.verify(lambdaLogger).log(anyString(), eq(LogLevel.ERROR));
+        inOrder.verify(lambdaLogger).flush();
+        inOrder.verify(runtimeClient).reportInvocationError(eq(SampleHandler.FAIL_IMMEDIATELY_OP_MODE), any());
+    }
+
+    /*
+     * Logging metrics are only written with AWS_LAMBDA_JAVA_LOG_METRICS=true, otherwise this checks that none are.
+     */
+    @Test
+    void testInvocationMetricsAreLoggedOnceAfterTheInvocationLogs() throws Throwable {
+        when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.JSON);
+        int expectedMetrics = LambdaEnvironment.LOG_METRICS ? 1 : 0;
+
+        AWSLambda.handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient,
+                getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), true, false);
+        verify(lambdaLogger, times(expectedMetrics)).logInvocationMetrics(any());
+
+        // a failed post flushes the logs on both the success and the error path, but the metrics are written once
+        doThrow(new RuntimeException("post failed")).when(runtimeClient).reportInvocationSuccess(anyString(), any());
+        AWSLambda.handleInvocation(lambdaRequestHandler, lambdaLogger, runtimeClient,
+                getFakeInvocationRequest(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), true, false);
+        verify(runtimeClient).reportInvocationError(eq(SampleHandler.ADD_ENTRY_TO_MAP_ID_OP_MODE), any());
+        verify(lambdaLogger, times(2 * expectedMetrics)).logInvocationMetrics(any());
+        if (LambdaEnvironment.LOG_METRICS) {
+            InOrder inOrder = inOrder(lambdaLogger);
+            inOrder.verify(lambdaLogger).log(anyString(), eq(LogLevel.ERROR));
+            inOrder.verify(lambdaLogger).logInvocationMetrics(any());
+        }
+    }
+}
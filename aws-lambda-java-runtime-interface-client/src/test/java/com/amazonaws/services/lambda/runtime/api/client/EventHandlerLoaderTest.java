@@ -4,8 +4,10 @@ import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.Invocatio
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -13,6 +15,8 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EventHandlerLoaderTest {
@@ -59,6 +63,52 @@ class EventHandlerLoaderTest {
         assertSuccessfulInvocation(lambdaRequestHandler);
     }
 
+    @Test
+    void PojoHandlerTest_static() throws Exception {
+        String handler = "test.lambda.handlers.POJOHanlderImpl::staticHandler";
+        LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandler(handler);
+        assertSuccessfulInvocation(lambdaRequestHandler);
+    }
+
+    @Test
+    void PojoHandlerTest_void() throws Exception {
+        String handler = "test.lambda.handlers.POJOHanlderImpl::voidHandler";
+        LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandler(handler);
+        assertEquals("null", lambdaRequestHandler.call(getTestInvocationRequest()).toString());
+    }
+
+    @Test
+    void PojoHandlerTest_checkedExceptionIsNotWrapped() throws Exception {
+        String handler = "test.lambda.handlers.POJOHanlderImpl::checkedExceptionHandler";
+        LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandler(handler);
+        IOException e = assertThrows(IOException.class, () -> lambdaRequestHandler.call(getTestInvocationRequest()));
+        assertEquals("checked failure", e.getMessage());
+    }
+
+    @Test
+    void StreamMethodHandlerTest() throws Exception {
+        String handler = "test.lambda.handlers.POJOHanlderImpl::streamHandler";
+        LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandler(handler);
+        assertSuccessfulInvocation(lambdaRequestHandler);
+    }
+
+    @Test
+    void StreamMethodHandlerTest_outputOnly() throws Exception {
+        String handler = "test.lambda.handlers.POJOHanlderImpl::streamOutputOnlyHandler";
+        LambdaRequestHandler lambdaRequestHandler = getLambdaRequestHandler(handler);
+        assertSuccessfulInvocation(lambdaRequestHandler);
+    }
+
+    @Test
+    void OnlyStreamHandlersStreamResponses() throws Exception {
+        assertTrue(getLambdaRequestHandler("test.lambda.handlers.RequestStreamHandlerImpl").streamsResponse());
+        assertTrue(getLambdaRequestHandler("test.lambda.handlers.POJOHanlderImpl::streamHandler").streamsResponse());
+        assertTrue(getLambdaRequestHandler("test.lambda.handlers.POJOHanlderImpl::streamOutputOnlyHandler").streamsResponse());
+        assertFalse(getLambdaRequestHandler("test.lambda.handlers.RequestHandlerImpl").streamsResponse());
+        assertFalse(getLambdaRequestHandler("test.lambda.handlers.POJOHanlderImpl::twoParamsHandler").streamsResponse());
+        assertFalse(getLambdaRequestHandler("test.lambda.handlers.POJOHanlderImpl::voidHandler").streamsResponse());
+    }
+
     private LambdaRequestHandler getLambdaRequestHandler(String handler) throws ClassNotFoundException {
         ClassLoader cl = this.getClass().getClassLoader();
         HandlerInfo handlerInfo = HandlerInfo.fromString(handler, cl);
@@ -114,6 +164,57 @@ class EventHandlerLoaderTest {
         testHandlerConcurrency("test.lambda.handlers.POJOHanlderImpl::twoParamsHandler");
     }
 
+    @Test
+    void SerializerCacheTest_sharedAcrossThreads() throws Exception {
+        LambdaRequestHandler handler = getLambdaRequestHandler("test.lambda.handlers.POJOHanlderImpl::twoParamsHandler");
+        assertSuccessfulInvocation(handler);
+        long misses = EventHandlerLoader.getSerializerCacheMisses();
+        long hits = EventHandlerLoader.getSerializerCacheHits();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> handler.call(getTestInvocationRequest()).toString()));
+            }
+            for (Future<String> future : futures) {
+                assertEquals("\"success\"", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // serializers built on the first invocation are reused by the other threads
+        assertEquals(misses, EventHandlerLoader.getSerializerCacheMisses());
+        assertTrue(EventHandlerLoader.getSerializerCacheHits() >= hits + 8);
+    }
+
+    @Test
+    void SerializerWarmUpTest_synthetic() {
+        assertTrue(EventHandlerLoader.warmUpSerializer(String.class, null));
+        assertTrue(EventHandlerLoader.warmUpSerializer(Integer.class, null));
+        assertTrue(EventHandlerLoader.warmUpSerializer(List.class, null));
+        assertTrue(EventHandlerLoader.warmUpSerializer(Map.class, null));
+    }
+
+    @Test
+    void SerializerWarmUpTest_sampleEvent() {
+        assertTrue(EventHandlerLoader.warmUpSerializer(Map.class, "{\"records\":[{\"id\":1}]}".getBytes()));
+        assertFalse(EventHandlerLoader.warmUpSerializer(Integer.class, "not json".getBytes()));
+    }
+
+    @Test
+    void SerializerWarmUpTest_virtualMachineErrorIsRethrown() {
+        assertThrows(StackOverflowError.class, () -> EventHandlerLoader.warmUpSerializer(ExplodingEvent.class, null));
+    }
+
+    public static class ExplodingEvent {
+        public String getValue() {
+            throw new StackOverflowError("thrown while warming up");
+        }
+    }
+
     private void testHandlerConcurrency(String handlerName) throws Exception {
         // Create one handler instance
         LambdaRequestHandler handler = getLambdaRequestHandler(handlerName);
@@ -0,0 +1,215 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client;
+
+import com.amazonaws.services.lambda.runtime.api.client.DispatcherMetrics.Stage;
+import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClient;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeClientMaxRetriesExceededException;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.RapidErrorType;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PipelinedDispatcherTest {
+
+    private static final String FAIL_REQUEST_ID = "fail";
+
+    private static final LambdaRuntimeClientMaxRetriesExceededException maxRetriesExceededException = new LambdaRuntimeClientMaxRetriesExceededException("Fake max retries happened");
+
+    private LambdaRuntimeApiClient runtimeClient;
+    private LambdaContextLogger lambdaLogger;
+
+    private final LambdaRequestHandler echoRequestIdHandler = request -> {
+        if (FAIL_REQUEST_ID.equals(request.getId())) {
+            throw new IllegalStateException("failed");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(("response-" + request.getId()).getBytes(UTF_8));
+        return output;
+    };
+
+    private static InvocationRequest getFakeInvocationRequest(String id) {
+        InvocationRequest request = new InvocationRequest();
+        request.setId(id);
+        request.setDeadlineTimeInMs(Long.MAX_VALUE);
+        request.setContent("".getBytes());
+        return request;
+    }
+
+    @BeforeEach
+    void setUp() {
+        runtimeClient = mock(LambdaRuntimeApiClient.class);
+        lambdaLogger = mock(LambdaContextLogger.class);
+        when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.TEXT);
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testInvocationsAreHandledAndReported() throws Exception {
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+                .thenReturn(getFakeInvocationRequest("1"))
+                .thenReturn(getFakeInvocationRequest("2"))
+                .thenReturn(getFakeInvocationRequest("3"))
+                .thenReturn(getFakeInvocationRequest("4"))
+                .thenReturn(getFakeInvocationRequest("5"))
+                .thenThrow(maxRetriesExceededException);
+
+        PipelinedDispatcher dispatcher = new PipelinedDispatcher(echoRequestIdHandler, lambdaLogger, runtimeClient, 1, 3, 1, false);
+        dispatcher.run();
+
+        for (String id : Arrays.asList("1", "2", "3", "4", "5")) {
+            ArgumentCaptor<byte[]> response = ArgumentCaptor.forClass(byte[].class);
+            ArgumentCaptor<Integer> length = ArgumentCaptor.forClass(Integer.class);
+            verify(runtimeClient).reportInvocationSuccess(eq(id), response.capture(), length.capture());
+            assertEquals("response-" + id, new String(response.getValue(), 0, length.getValue(), UTF_8));
+        }
+        verify(runtimeClient, never()).reportInvocationError(any(), any());
+        // on the worker threads, where per-thread filter state was recorded
+        verify(lambdaLogger, times(5)).flushLogFilters();
+
+        DispatcherMetrics metrics = dispatcher.getMetrics();
+        assertSame(metrics, DispatcherMetrics.current());
+        assertEquals(5, metrics.getCount(Stage.POLL));
+        assertEquals(5, metrics.getCount(Stage.INVOCATION_QUEUE_WAIT));
+        assertEquals(5, metrics.getCount(Stage.HANDLER));
+        assertEquals(5, metrics.getCount(Stage.RESULT_QUEUE_WAIT));
+        assertEquals(5, metrics.getCount(Stage.REPORT));
+        assertEquals(0, metrics.getInvocationQueueDepth());
+        assertEquals(0, metrics.getResultQueueDepth());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testHandlerErrorsAreReported() throws Exception {
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+                .thenReturn(getFakeInvocationRequest(FAIL_REQUEST_ID))
+                .thenReturn(getFakeInvocationRequest("ok"))
+                .thenThrow(maxRetriesExceededException);
+
+        new PipelinedDispatcher(echoRequestIdHandler, lambdaLogger, runtimeClient, 1, 2, 1, false).run();
+
+        ArgumentCaptor<LambdaError> error = ArgumentCaptor.forClass(LambdaError.class);
+        verify(runtimeClient).reportInvocationError(eq(FAIL_REQUEST_ID), error.capture());
+        assertEquals(RapidErrorType.UserException, error.getValue().errorType);
+        verify(runtimeClient).reportInvocationSuccess(eq("ok"), any(byte[].class), anyInt());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testResponsesOfHandlersThatDoNotStreamArePostedBuffered() throws Exception {
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+                .thenReturn(getFakeInvocationRequest("1"))
+                .thenThrow(maxRetriesExceededException);
+
+        new PipelinedDispatcher(echoRequestIdHandler, lambdaLogger, runtimeClient, 1, 1, 1, true).run();
+
+        verify(runtimeClient, never()).openInvocationResponseStream(any(), any());
+        verify(runtimeClient).reportInvocationSuccess(eq("1"), any(byte[].class), anyInt());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testPollingErrorsDoNotStopDispatcher() throws Exception {
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+                .thenThrow(new RuntimeException("transient"))
+                .thenReturn(getFakeInvocationRequest("1"))
+                .thenThrow(maxRetriesExceededException);
+
+        new PipelinedDispatcher(echoRequestIdHandler, lambdaLogger, runtimeClient, 1, 1, 1, false).run();
+
+        verify(runtimeClient).reportInvocationSuccess(eq("1"), any(byte[].class), anyInt());
+        verify(runtimeClient, times(3)).nextInvocationWithExponentialBackoff(lambdaLogger);
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testNoMoreInvocationsArePolledThanWorkersCanRun() throws Exception {
+        int numberOfWorkers = 2;
+        AtomicInteger polled = new AtomicInteger();
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger)).thenAnswer(invocation -> {
+            int id = polled.incrementAndGet();
+            if (id > 6) {
+                throw maxRetriesExceededException;
+            }
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            return getFakeInvocationRequest(String.valueOf(id));
+        });
+        doAnswer(invocation -> outstanding.decrementAndGet())
+                .when(runtimeClient).reportInvocationSuccess(any(), any(byte[].class), anyInt());
+
+        CountDownLatch handlersStarted = new CountDownLatch(numberOfWorkers);
+        CountDownLatch unstall = new CountDownLatch(1);
+        LambdaRequestHandler stallingHandler = request -> {
+            handlersStarted.countDown();
+            unstall.await();
+            return echoRequestIdHandler.call(request);
+        };
+        PipelinedDispatcher dispatcher = new PipelinedDispatcher(stallingHandler, lambdaLogger, runtimeClient, 2, numberOfWorkers, 1, false);
+        Thread dispatcherThread = new Thread(() -> {
+            try {
+                dispatcher.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcherThread.start();
+
+        handlersStarted.await();
+        // give the pollers time to fetch more invocations if they were not held back
+        Thread.sleep(200);
+        assertEquals(numberOfWorkers, polled.get());
+
+        unstall.countDown();
+        dispatcherThread.join();
+        verify(runtimeClient, times(6)).reportInvocationSuccess(any(), any(byte[].class), anyInt());
+        assertTrue(maxOutstanding.get() <= numberOfWorkers, "outstanding " + maxOutstanding.get());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testOutputBuffersAreReusedAcrossInvocations() throws Exception {
+        List<InvocationRequest> requests = Arrays.asList(getFakeInvocationRequest("a"), getFakeInvocationRequest("b"),
+                getFakeInvocationRequest("c"), getFakeInvocationRequest("d"), getFakeInvocationRequest("e"));
+        when(runtimeClient.nextInvocationWithExponentialBackoff(lambdaLogger))
+                .thenReturn(requests.get(0), requests.subList(1, requests.size()).toArray(new InvocationRequest[0]))
+                .thenThrow(maxRetriesExceededException);
+
+        new PipelinedDispatcher(echoRequestIdHandler, lambdaLogger, runtimeClient, 1, 1, 1, false).run();
+
+        ArgumentCaptor<byte[]> buffers = ArgumentCaptor.forClass(byte[].class);
+        verify(runtimeClient, times(5)).reportInvocationSuccess(any(), buffers.capture(), anyInt());
+        // a single worker draws from a pool of two buffers
+        assertEquals(2, buffers.getAllValues().stream().distinct().count());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client;
+
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaError;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.LambdaRuntimeApiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PlatformThreadRuntimeApiClientTest {
+
+    private LambdaRuntimeApiClient runtimeClient;
+    private ExecutorService reporterExecutor;
+    private PlatformThreadRuntimeApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        runtimeClient = mock(LambdaRuntimeApiClient.class);
+        reporterExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "reporter"));
+        client = new PlatformThreadRuntimeApiClient(runtimeClient, reporterExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reporterExecutor.shutdownNow();
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testResponsesArePostedOnReporterThreads() throws Exception {
+        AtomicReference<String> postingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            postingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(runtimeClient).reportInvocationSuccess(eq("id"), any(byte[].class), anyInt());
+
+        byte[] response = new byte[8];
+        client.reportInvocationSuccess("id", response, 4);
+
+        verify(runtimeClient).reportInvocationSuccess("id", response, 4);
+        assertEquals("reporter", postingThread.get());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testErrorsArePostedOnReporterThreads() throws Exception {
+        AtomicReference<String> postingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            postingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(runtimeClient).reportInvocationError(eq("id"), any(LambdaError.class));
+
+        LambdaError error = AWSLambda.createLambdaErrorFromThrowableOrUserFault(new IllegalStateException("failed"));
+        client.reportInvocationError("id", error);
+
+        verify(runtimeClient).reportInvocationError("id", error);
+        assertEquals("reporter", postingThread.get());
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testPostFailuresAreRethrown() throws Exception {
+        IOException failure = new IOException("post failed");
+        doThrow(failure).when(runtimeClient).reportInvocationSuccess(eq("id"), any(byte[].class));
+        doThrow(new IllegalStateException("unexpected")).when(runtimeClient).reportInvocationSuccess(eq("other"), any(byte[].class));
+
+        assertSame(failure, assertThrows(IOException.class, () -> client.reportInvocationSuccess("id", new byte[0])));
+        assertThrows(IllegalStateException.class, () -> client.reportInvocationSuccess("other", new byte[0]));
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void testInterruptedCallersWaitForThePost() throws Exception {
+        CountDownLatch posting = new CountDownLatch(1);
+        CountDownLatch finishPost = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            posting.countDown();
+            finishPost.await();
+            return null;
+        }).when(runtimeClient).reportInvocationSuccess(eq("id"), any(byte[].class));
+
+        AtomicReference<Boolean> interruptedAfterPost = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                client.reportInvocationSuccess("id", new byte[0]);
+                interruptedAfterPost.set(Thread.currentThread().isInterrupted());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        caller.start();
+        posting.await();
+        caller.interrupt();
+        // the caller keeps waiting for the post instead of returning early
+        caller.join(200);
+        assertTrue(caller.isAlive());
+
+        finishPost.countDown();
+        caller.join();
+        assertEquals(Boolean.TRUE, interruptedAfterPost.get());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.api.client.logging.AsyncLogSink;
+import com.amazonaws.services.lambda.runtime.api.client.logging.FrameType;
+import com.amazonaws.services.lambda.runtime.api.client.logging.FramedTelemetryLogSink;
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes log frames to a local FIFO standing in for the telemetry FD, with a thread draining the other end:
+ * <ul>
+ *     <li>twoWritesPerFrame - the previous FramedTelemetryLogSink, writing the header and then the message (2 write
+ *     syscalls per frame)</li>
+ *     <li>singleWritePerFrame - FramedTelemetryLogSink, assembling each frame in its frame buffer (1 write per
+ *     frame)</li>
+ *     <li>asyncBatched - FramedTelemetryLogSink behind an AsyncLogSink, which writes all pending frames at once (1
+ *     write per batch)</li>
+ * </ul>
+ * Needs mkfifo. Add {@code -t 4} to the runner options to see the effect of contention. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.amazonaws.services.lambda.runtime.api.client.benchmarks.FramedTelemetryLogSinkBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FramedTelemetryLogSinkBenchmark {
+
+    private final byte[] message = ("{\"timestamp\":\"2024-01-01T00:00:00.000Z\",\"message\":\"Processing order 12345\","
+            + "\"level\":\"INFO\",\"AWSRequestId\":\"8476a536-e9f4-11e8-9739-2dfe598c3fcd\"}\n").getBytes(StandardCharsets.UTF_8);
+
+    private File fifo;
+    private Thread drainer;
+    private FileOutputStream fifoOutputStream;
+    private TwoWritesFramedSink twoWritesSink;
+    private FramedTelemetryLogSink framedSink;
+    private AsyncLogSink asyncSink;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        File dir = Files.createTempDirectory("telemetry").toFile();
+        fifo = new File(dir, "fd");
+        new ProcessBuilder("mkfifo", fifo.getAbsolutePath()).inheritIO().start().waitFor();
+
+        drainer = new Thread(this::drain, "fifo-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+
+        fifoOutputStream = new FileOutputStream(fifo);
+        twoWritesSink = new TwoWritesFramedSink(fifoOutputStream);
+        framedSink = new FramedTelemetryLogSink(fifoOutputStream.getFD());
+        asyncSink = new AsyncLogSink(new FramedTelemetryLogSink(fifoOutputStream.getFD()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        asyncSink.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        asyncSink.flush();
+        fifoOutputStream.close();
+        fifo.delete();
+        fifo.getParentFile().delete();
+    }
+
+    @Benchmark
+    public void twoWritesPerFrame() throws IOException {
+        twoWritesSink.log(LogLevel.INFO, LogFormat.JSON, message);
+    }
+
+    @Benchmark
+    public void singleWritePerFrame() {
+        framedSink.log(LogLevel.INFO, LogFormat.JSON, message);
+    }
+
+    @Benchmark
+    public void asyncBatched() {
+        asyncSink.log(LogLevel.INFO, LogFormat.JSON, message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(FramedTelemetryLogSinkBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private void drain() {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(fifo)) {
+            while (in.read(buffer) >= 0) {
+                // discard
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The frame writing FramedTelemetryLogSink did before frames were assembled in a single buffer.
+     */
+    private static final class TwoWritesFramedSink {
+        private final FileOutputStream logOutputStream;
+        private final ByteBuffer headerBuf = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+
+        TwoWritesFramedSink(FileOutputStream logOutputStream) {
+            this.logOutputStream = logOutputStream;
+        }
+
+        synchronized void log(LogLevel logLevel, LogFormat logFormat, byte[] message) throws IOException {
+            Instant instant = Instant.now();
+            headerBuf.clear();
+            headerBuf.putInt(FrameType.getValue(logLevel, logFormat));
+            headerBuf.putInt(message.length);
+            headerBuf.putLong(instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000);
+            headerBuf.flip();
+            logOutputStream.write(headerBuf.array());
+            logOutputStream.write(message);
+        }
+    }
+}
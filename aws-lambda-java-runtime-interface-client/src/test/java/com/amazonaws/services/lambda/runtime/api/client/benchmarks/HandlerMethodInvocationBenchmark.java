@@ -0,0 +1,81 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import test.lambda.handlers.POJOHanlderImpl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective Method.invoke dispatch that POJO handler methods used to go through with the method handle
+ * EventHandlerLoader now adapts them to. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.amazonaws.services.lambda.runtime.api.client.benchmarks.HandlerMethodInvocationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerMethodInvocationBenchmark {
+
+    private final POJOHanlderImpl instance = new POJOHanlderImpl();
+    private final String input = "Hello";
+    private final Context context = null;
+
+    private Method method;
+    private MethodHandle handle;
+
+    @Setup
+    public void setUp() throws Exception {
+        method = POJOHanlderImpl.class.getMethod("twoParamsHandler", String.class, Context.class);
+        handle = MethodHandles.lookup().unreflect(method).bindTo(instance)
+                .asType(MethodType.methodType(Object.class, Object.class, Context.class));
+    }
+
+    @Benchmark
+    public Object reflective() throws Throwable {
+        final Object[] args = new Object[2];
+        args[0] = input;
+        args[1] = context;
+        try {
+            return method.invoke(instance, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return (Object) handle.invokeExact((Object) input, context);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(HandlerMethodInvocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
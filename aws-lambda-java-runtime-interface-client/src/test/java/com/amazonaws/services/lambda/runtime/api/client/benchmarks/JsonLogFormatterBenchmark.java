@@ -0,0 +1,102 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.api.client.logging.JsonLogFormatter;
+import com.amazonaws.services.lambda.runtime.api.client.logging.LogBuffer;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.factories.GsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Gson based JSON log formatting the runtime used to do, which serialized a message object to a stream and
+ * then copied it through a String, with JsonLogFormatter encoding straight into a reused LogBuffer. Add
+ * {@code -prof gc} to the runner options to compare allocation rates. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.amazonaws.services.lambda.runtime.api.client.benchmarks.JsonLogFormatterBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonLogFormatterBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneId.of("UTC"));
+
+    private final String message = "Processing order 12345 for customer \"example\" with 3 items";
+    private final LambdaContext context = new LambdaContext(0, 0, "8476a536-e9f4-11e8-9739-2dfe598c3fcd", null, null,
+            "function-name", null, null, "function-arn", "tenant-id", null, null);
+
+    private final PojoSerializer<GsonLogMessage> serializer = GsonFactory.getInstance().getSerializer(GsonLogMessage.class);
+    private final JsonLogFormatter formatter = new JsonLogFormatter();
+    private final LogBuffer buffer = new LogBuffer();
+
+    @Setup
+    public void setUp() {
+        formatter.setLambdaContext(context);
+    }
+
+    @Benchmark
+    public byte[] gson() {
+        GsonLogMessage msg = new GsonLogMessage();
+        msg.timestamp = DATE_FORMATTER.format(LocalDateTime.now());
+        msg.message = message;
+        msg.level = LogLevel.INFO;
+        msg.AWSRequestId = context.getAwsRequestId();
+        msg.tenantId = context.getTenantId();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        serializer.toJson(msg, stream);
+        stream.write('\n');
+        String formatted = new String(stream.toByteArray(), StandardCharsets.UTF_8);
+        return formatted.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int logBuffer() {
+        buffer.reset();
+        formatter.format(message, LogLevel.INFO, buffer);
+        return buffer.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JsonLogFormatterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class GsonLogMessage {
+        public String timestamp;
+        public String message;
+        public LogLevel level;
+        public String AWSRequestId;
+        public String tenantId;
+    }
+}
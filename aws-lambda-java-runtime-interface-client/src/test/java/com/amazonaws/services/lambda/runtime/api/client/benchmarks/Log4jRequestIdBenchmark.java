@@ -0,0 +1,80 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntimeInternal;
+import com.amazonaws.services.lambda.runtime.api.client.AWSLambda;
+import com.amazonaws.services.lambda.runtime.api.client.EventHandlerLoader;
+import com.amazonaws.services.lambda.runtime.api.client.HandlerInfo;
+import com.amazonaws.services.lambda.runtime.api.client.LambdaRequestHandler;
+import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import test.lambda.handlers.POJOHanlderImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an invocation of a handler loaded by EventHandlerLoader with and without the log4j appender in use, so the
+ * difference is what putting the request id into the log4j context costs per invocation. Only log4j2 is on the test
+ * class path, so the log4j 1.x MDC is missing the way it is for most functions. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.amazonaws.services.lambda.runtime.api.client.benchmarks.Log4jRequestIdBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Log4jRequestIdBenchmark {
+
+    @Param({"false", "true"})
+    public boolean useLog4jAppender;
+
+    private LambdaRequestHandler handler;
+    private InvocationRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        // the runtime looks the log4j classes up on the customer class loader
+        ReflectUtil.setStaticField(AWSLambda.class, "customerClassLoader", true,
+                new URLClassLoader(new URL[0], Log4jRequestIdBenchmark.class.getClassLoader()));
+        LambdaRuntimeInternal.setUseLog4jAppender(useLog4jAppender);
+        handler = EventHandlerLoader.loadEventHandler(new HandlerInfo(POJOHanlderImpl.class, "twoParamsHandler"));
+        request = new InvocationRequest();
+        request.setId("8476a536-e9f4-11e8-9739-2dfe598c3fcd");
+        request.setDeadlineTimeInMs(Long.MAX_VALUE);
+        request.setContent("\"Hello\"".getBytes());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream invoke() throws Exception {
+        return handler.call(request);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(Log4jRequestIdBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,6 +1,8 @@
 package com.amazonaws.services.lambda.runtime.api.client.logging;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazonaws.services.lambda.runtime.logging.LogFormat;
 import org.junit.jupiter.api.Test;
@@ -10,10 +12,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.amazonaws.lambda.thirdparty.org.json.JSONObject;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntimeInternal;
 import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.logging.LogBuilder;
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 
 
@@ -184,4 +189,108 @@ public class AbstractLambdaLoggerTest {
         assertEquals(1, sink.getMessages().size());
         assertEquals("[INFO] test message", new String(sink.getMessages().get(0)));
     }
+
+    @Test
+    public void testIsEnabled() {
+        LambdaLogger logger = new LambdaContextLogger(new TestSink(), LogLevel.WARN, LogFormat.TEXT);
+
+        assertFalse(logger.isEnabled(LogLevel.TRACE));
+        assertFalse(logger.isEnabled(LogLevel.INFO));
+        assertTrue(logger.isEnabled(LogLevel.WARN));
+        assertTrue(logger.isEnabled(LogLevel.FATAL));
+        assertTrue(logger.isEnabled(LogLevel.UNDEFINED));
+        assertEquals(LogLevel.WARN, ((LambdaContextLogger) logger).getMinimumLogLevel());
+    }
+
+    @Test
+    public void testSupplierIsNotCalledForDisabledLevels() {
+        TestSink sink = new TestSink();
+        LambdaLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+        AtomicInteger calls = new AtomicInteger();
+
+        logger.log(() -> "debug " + calls.incrementAndGet(), LogLevel.DEBUG);
+        logger.log(() -> "info " + calls.incrementAndGet(), LogLevel.INFO);
+
+        assertEquals(1, calls.get());
+        assertEquals(1, sink.getMessages().size());
+        assertEquals("[INFO] info 1", new String(sink.getMessages().get(0)));
+    }
+
+    @Test
+    public void testParameterizedMessages() {
+        TestSink sink = new TestSink();
+        LambdaLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+        Object notFormatted = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("arguments of disabled levels must not be formatted");
+            }
+        };
+
+        logger.log(LogLevel.DEBUG, "dropped %s", notFormatted);
+        logger.log(LogLevel.DEBUG, "dropped %s %s", notFormatted, notFormatted);
+        logger.log(LogLevel.DEBUG, "dropped %s %s %s", notFormatted, notFormatted, notFormatted);
+        logger.log(LogLevel.INFO, "one %s", "arg");
+        logger.log(LogLevel.WARN, "two %s %d", "args", 2);
+        logger.log(LogLevel.ERROR, "three %s %s %s", "a", "b", "c");
+
+        assertEquals(3, sink.getMessages().size());
+        assertEquals("[INFO] one arg", new String(sink.getMessages().get(0)));
+        assertEquals("[WARN] two args 2", new String(sink.getMessages().get(1)));
+        assertEquals("[ERROR] three a b c", new String(sink.getMessages().get(2)));
+    }
+
+    @Test
+    public void testByteArrayRange() {
+        TestSink sink = new TestSink();
+        LambdaLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+        byte[] buffer = "xxdebugxxinfoxx".getBytes(StandardCharsets.UTF_8);
+
+        logger.log(buffer, 2, 5, LogLevel.DEBUG);
+        logger.log(buffer, 9, 4, LogLevel.INFO);
+
+        assertEquals(1, sink.getMessages().size());
+        assertEquals("info", new String(sink.getMessages().get(0)));
+    }
+
+    @Test
+    public void testFlushRunsRegisteredLogFlushers() {
+        TestSink sink = new TestSink();
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+        AtomicInteger flushes = new AtomicInteger();
+        LambdaRuntimeInternal.addLogFlusher(flushes::incrementAndGet);
+
+        logger.flush();
+
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    public void testStructuredLogging() {
+        TestSink sink = new TestSink();
+        LambdaLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+
+        logger.atLevel(LogLevel.DEBUG).with("dropped", 1L).log("debug");
+        logger.atLevel(LogLevel.INFO).with("orderId", "o-1").with("items", 3).with("total", 1.5).with("paid", true).log("info");
+        logger.atLevel(LogLevel.WARN).log("no fields");
+
+        assertEquals(2, sink.getMessages().size());
+        assertEquals("[INFO] info orderId=o-1 items=3 total=1.5 paid=true", new String(sink.getMessages().get(0)));
+        assertEquals("[WARN] no fields", new String(sink.getMessages().get(1)));
+    }
+
+    @Test
+    public void testStructuredLoggingWhileBuildingAnotherMessage() {
+        TestSink sink = new TestSink();
+        LambdaLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT);
+
+        LogBuilder outer = logger.atLevel(LogLevel.INFO).with("outer", 1L);
+        logger.atLevel(LogLevel.ERROR).with("inner", 2L).log("inner message");
+        outer.with("after", 3L).log("outer message");
+        logger.atLevel(LogLevel.WARN).with("next", 4L).log("next message");
+
+        assertEquals("[ERROR] inner message inner=2", new String(sink.getMessages().get(0)));
+        assertEquals("[INFO] outer message outer=1 after=3", new String(sink.getMessages().get(1)));
+        assertEquals("[WARN] next message next=4", new String(sink.getMessages().get(2)));
+    }
 }
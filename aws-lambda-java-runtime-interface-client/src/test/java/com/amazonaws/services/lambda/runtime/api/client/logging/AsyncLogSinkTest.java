@@ -0,0 +1,260 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncLogSinkTest {
+
+    static class RecordingSink implements LogSink {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        volatile boolean blocking;
+        volatile boolean closed;
+
+        @Override
+        public void log(byte[] message) {
+            log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
+        }
+
+        @Override
+        public void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
+            messages.add(new String(message, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void log(LogRecord[] records, int offset, int count) {
+            if (blocking) {
+                entered.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(count);
+            LogSink.super.log(records, offset, count);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void slotsReusedAfterLargeMessagesKeepTheirContent() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        char[] large = new char[16 * 1024];
+        Arrays.fill(large, 'x');
+        String largeMessage = new String(large);
+        try (AsyncLogSink asyncSink = new AsyncLogSink(sink, 2)) {
+            for (int i = 0; i < 4; i++) {
+                asyncSink.log(LogLevel.INFO, LogFormat.TEXT, largeMessage.getBytes(StandardCharsets.UTF_8));
+                asyncSink.flush();
+                asyncSink.log(LogLevel.INFO, LogFormat.TEXT, ("message " + i).getBytes(StandardCharsets.UTF_8));
+                asyncSink.flush();
+            }
+
+            assertEquals(8, sink.messages.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(largeMessage, sink.messages.get(2 * i));
+                assertEquals("message " + i, sink.messages.get(2 * i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void flushWritesPendingMessagesInOrder() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        try (AsyncLogSink asyncSink = new AsyncLogSink(sink, 16)) {
+            for (int i = 0; i < 100; i++) {
+                asyncSink.log(LogLevel.INFO, LogFormat.TEXT, ("message " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            asyncSink.flush();
+
+            assertEquals(100, sink.messages.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals("message " + i, sink.messages.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void callerBufferCanBeReusedAfterLog() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        try (AsyncLogSink asyncSink = new AsyncLogSink(sink)) {
+            byte[] buffer = "first-".getBytes(StandardCharsets.UTF_8);
+            asyncSink.log(LogLevel.INFO, LogFormat.TEXT, buffer, 0, 5);
+            System.arraycopy("xxxxx".getBytes(StandardCharsets.UTF_8), 0, buffer, 0, 5);
+            asyncSink.flush();
+
+            assertEquals(Collections.singletonList("first"), sink.messages);
+        }
+    }
+
+    @Test
+    public void pendingMessagesAreWrittenAsOneBatch() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocking = true;
+        try (AsyncLogSink asyncSink = new AsyncLogSink(sink, 64)) {
+            // the writer takes the first message and blocks in the sink while the rest queue up behind it
+            asyncSink.log("first".getBytes(StandardCharsets.UTF_8));
+            assertTrue(sink.entered.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                asyncSink.log(("queued " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            sink.released.countDown();
+            asyncSink.flush();
+
+            assertEquals(11, sink.messages.size());
+            assertEquals(1, (int) sink.batchSizes.get(0));
+            assertEquals(10, sink.batchSizes.stream().skip(1).mapToInt(Integer::intValue).sum());
+            assertEquals(2, sink.batchSizes.size(), "expected the queued messages to be coalesced: " + sink.batchSizes);
+        }
+    }
+
+    @Test
+    public void producersWaitWhenTheRingIsFull() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blocking = true;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (AsyncLogSink asyncSink = new AsyncLogSink(sink, 4)) {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                producers.add(executor.submit(() -> logMessages(asyncSink, thread, 50)));
+            }
+            Thread.sleep(100);
+            assertTrue(sink.messages.isEmpty());
+
+            sink.released.countDown();
+            for (Future<?> producer : producers) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+            asyncSink.flush();
+
+            assertEquals(200, sink.messages.size());
+            for (int t = 0; t < 4; t++) {
+                assertMessagesInOrder(sink.messages, t, 50);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void closeFlushesAndClosesTheUnderlyingSink() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        AsyncLogSink asyncSink = new AsyncLogSink(sink);
+        asyncSink.log("last words".getBytes(StandardCharsets.UTF_8));
+        asyncSink.close();
+
+        assertEquals(Collections.singletonList("last words"), sink.messages);
+        assertTrue(sink.closed);
+
+        // messages logged after close are written directly
+        asyncSink.log("after close".getBytes(StandardCharsets.UTF_8));
+        assertEquals("after close", sink.messages.get(1));
+    }
+
+    @Test
+    public void messagesLoggedWhileClosingAreWritten() throws Exception {
+        int threads = 4;
+        int messagesPerThread = 20_000;
+        for (int round = 0; round < 20; round++) {
+            RecordingSink sink = new RecordingSink();
+            AsyncLogSink asyncSink = new AsyncLogSink(sink, 16);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Future<?>> loggers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                loggers.add(executor.submit(() -> {
+                    started.countDown();
+                    logMessages(asyncSink, thread, messagesPerThread);
+                }));
+            }
+            started.await();
+            asyncSink.close();
+            for (Future<?> logger : loggers) {
+                logger.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(threads * messagesPerThread, sink.messages.size());
+        }
+    }
+
+    @Test
+    public void failedWritesAreNotReportedThroughCapturedStdErr() {
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void log(LogRecord[] records, int offset, int count) {
+                throw new IllegalStateException("write failed");
+            }
+        };
+        PrintStream stdErr = System.err;
+        AsyncLogSink asyncSink = new AsyncLogSink(sink, 2);
+        try {
+            // the way the runtime captures System.err into its log sink
+            System.setErr(new PrintStream(new LogSinkOutputStream(asyncSink, new ByteArrayOutputStream()), true));
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 4; i++) {
+                    asyncSink.log(("message " + i).getBytes(StandardCharsets.UTF_8));
+                }
+                asyncSink.flush();
+            });
+        } finally {
+            System.setErr(stdErr);
+        }
+    }
+
+    @Test
+    public void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogSink(new RecordingSink(), 12));
+    }
+
+    private static void logMessages(AsyncLogSink asyncSink, int thread, int count) {
+        for (int i = 0; i < count; i++) {
+            asyncSink.log(LogLevel.INFO, LogFormat.TEXT, (thread + ":" + i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void assertMessagesInOrder(List<String> messages, int thread, int count) {
+        int next = 0;
+        for (String message : messages) {
+            if (message.startsWith(thread + ":")) {
+                assertEquals(thread + ":" + next, message);
+                next++;
+            }
+        }
+        assertEquals(count, next);
+    }
+}
@@ -130,6 +130,75 @@ public class FramedTelemetryLogSinkTest {
             assertEquals(ZERO_BYTE, buf.get());
     }
 
+    @Test
+    public void logRecordBatch() throws IOException {
+        byte[][] messages = {"first".getBytes(), "second\n".getBytes(), "third message".getBytes()};
+        LogRecord[] records = new LogRecord[messages.length + 1];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new LogRecord();
+        }
+        // the batch starts at offset 1 and the first slot must be ignored
+        records[0].set(LogLevel.FATAL, LogFormat.TEXT, "ignored".getBytes(), 0, 7, 1L);
+        for (int i = 0; i < messages.length; i++) {
+            records[i + 1].set(LogLevel.INFO, LogFormat.JSON, messages[i], 0, messages[i].length, 1000L + i);
+        }
+
+        File tmpFile = tmpFolder.resolve("pipe").toFile();
+        FileOutputStream fos = new FileOutputStream(tmpFile);
+        try (FramedTelemetryLogSink logSink = new FramedTelemetryLogSink(fos.getFD())) {
+            logSink.log(records, 1, messages.length);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        ReadableByteChannel readChannel = new FileInputStream(tmpFile).getChannel();
+        readChannel.read(buf);
+        buf.position(0);
+
+        for (int i = 0; i < messages.length; i++) {
+            assertEquals(FrameType.getValue(LogLevel.INFO, LogFormat.JSON), buf.getInt());
+            assertEquals(messages[i].length, buf.getInt());
+            // frames keep the timestamp the message was logged at
+            assertEquals(1000L + i, buf.getLong());
+            byte[] actual = new byte[messages[i].length];
+            buf.get(actual);
+            assertArrayEquals(messages[i], actual);
+        }
+
+        while (buf.hasRemaining())
+            assertEquals(ZERO_BYTE, buf.get());
+    }
+
+    @Test
+    public void logFramesLargerThanTheFrameBuffer() throws IOException {
+        byte[] largeMessage = new byte[256 * 1024];
+        Arrays.fill(largeMessage, (byte) 'x');
+        byte[] smallMessage = "small".getBytes();
+
+        File tmpFile = tmpFolder.resolve("pipe").toFile();
+        FileOutputStream fos = new FileOutputStream(tmpFile);
+        try (FramedTelemetryLogSink logSink = new FramedTelemetryLogSink(fos.getFD())) {
+            logSink.log(LogLevel.INFO, LogFormat.TEXT, largeMessage);
+            logSink.log(LogLevel.INFO, LogFormat.TEXT, smallMessage);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(largeMessage.length + DEFAULT_BUFFER_SIZE);
+        ReadableByteChannel readChannel = new FileInputStream(tmpFile).getChannel();
+        while (readChannel.read(buf) > 0) {
+            // read the whole file
+        }
+        buf.flip();
+
+        for (byte[] message : Arrays.asList(largeMessage, smallMessage)) {
+            assertEquals(FrameType.getValue(LogLevel.INFO, LogFormat.TEXT), buf.getInt());
+            assertEquals(message.length, buf.getInt());
+            buf.getLong();
+            byte[] actual = new byte[message.length];
+            buf.get(actual);
+            assertArrayEquals(message, actual);
+        }
+        assertEquals(0, buf.remaining());
+    }
+
     /**
      * The implementation of FramedTelemetryLogSink was based on java.nio.channels.WritableByteChannel which would
      * throw ClosedByInterruptException if Thread.currentThread.interrupt() was called. The implementation was changed
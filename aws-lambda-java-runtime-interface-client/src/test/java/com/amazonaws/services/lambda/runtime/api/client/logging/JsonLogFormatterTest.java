@@ -1,12 +1,21 @@
 package com.amazonaws.services.lambda.runtime.api.client.logging;
 
+import com.amazonaws.lambda.thirdparty.org.json.JSONObject;
 import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
 import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
 import com.amazonaws.services.lambda.runtime.serialization.factories.GsonFactory;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazonaws.services.lambda.runtime.logging.LogLevel;
 
@@ -55,6 +64,168 @@ public class JsonLogFormatterTest {
         assertFormatsString("test log", LogLevel.WARN, context);
     }
 
+    @Test
+    void testOutputMatchesGsonSerialization() {
+        LambdaContext context = new LambdaContext(0, 0, "request-\"id\"", null, null, "function-name", null, null,
+                "function-arn", null, null, null);
+        String[] messages = {
+                "plain",
+                "quotes \" and backslashes \\ and slashes /",
+                "tab\tnewline\ncarriage\rbackspace\bformfeed\f",
+                "control \u0000 \u0001 \u001f \u007f",
+                "html <b>&amp;</b> = 'quoted'",
+                "non-ascii \u00e9 \u20ac \u4e2d \ud83d\ude00",
+                "separators \u2028 \u2029",
+                "unpaired \ud83d surrogates \ude00",
+                "",
+                null
+        };
+        for (LogLevel logLevel : LogLevel.values()) {
+            for (String message : messages) {
+                assertMatchesGson(message, logLevel, null);
+                assertMatchesGson(message, logLevel, context);
+            }
+        }
+    }
+
+    @Test
+    void testTimestampIsCurrentUtcTime() {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String output = new JsonLogFormatter().format("test log", LogLevel.INFO);
+        Instant after = Instant.now();
+
+        StructuredLogMessage result = GsonFactory.getInstance().getSerializer(StructuredLogMessage.class).fromJson(output);
+        Instant timestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                .withZone(ZoneOffset.UTC)
+                .parse(result.timestamp, Instant::from);
+        assertTrue(!timestamp.isBefore(before) && !timestamp.isAfter(after),
+                "unexpected timestamp " + result.timestamp);
+    }
+
+    @Test
+    void testFormattingIntoBufferAppendsToExistingContent() {
+        JsonLogFormatter logFormatter = new JsonLogFormatter();
+        LogBuffer buffer = new LogBuffer();
+        logFormatter.format("first", LogLevel.INFO, buffer);
+        int firstLength = buffer.size();
+        logFormatter.format("second", LogLevel.INFO, buffer);
+
+        String output = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.substring(0, firstLength).contains("\"message\":\"first\""));
+        assertTrue(output.substring(firstLength).contains("\"message\":\"second\""));
+        assertTrue(output.endsWith("}\n"));
+    }
+
+    @Test
+    void testStructuredFieldsAreTopLevelFields() {
+        JsonLogFormatter logFormatter = new JsonLogFormatter();
+        logFormatter.setLambdaContext(new LambdaContext(0, 0, "request-id", null, null, "function-name", null, null,
+                "function-arn", null, null, null));
+        LogFields fields = new LogFields();
+        fields.add("orderId", "o-\"1\"");
+        fields.add("items", 3L);
+        fields.add("min", Long.MIN_VALUE);
+        fields.add("total", 12.5);
+        fields.add("ratio", Double.NaN);
+        fields.add("paid", true);
+        fields.add("note", (String) null);
+
+        LogBuffer buffer = new LogBuffer();
+        logFormatter.format("Order processed", LogLevel.INFO, fields, buffer);
+        String output = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(output.endsWith("}\n"));
+
+        JSONObject json = new JSONObject(output);
+        assertEquals("Order processed", json.getString("message"));
+        assertEquals("INFO", json.getString("level"));
+        assertEquals("request-id", json.getString("AWSRequestId"));
+        assertEquals("o-\"1\"", json.getString("orderId"));
+        assertEquals(3, json.getLong("items"));
+        assertEquals(Long.MIN_VALUE, json.getLong("min"));
+        assertEquals(12.5, json.getDouble("total"));
+        assertEquals("NaN", json.getString("ratio"));
+        assertTrue(json.getBoolean("paid"));
+        assertTrue(json.isNull("note"));
+    }
+
+    @Test
+    void testStructuredFieldsDoNotOverwriteRuntimeFields() {
+        JsonLogFormatter logFormatter = new JsonLogFormatter();
+        logFormatter.setLambdaContext(new LambdaContext(0, 0, "request-id", null, null, "function-name", null, null,
+                "function-arn", "tenant-id", null, null));
+        LogFields fields = new LogFields();
+        fields.add("timestamp", 1L);
+        fields.add("message", "field message");
+        fields.add("level", "TRACE");
+        fields.add("AWSRequestId", "other-request-id");
+        fields.add("tenantId", "other-tenant-id");
+
+        LogBuffer buffer = new LogBuffer();
+        logFormatter.format("Order processed", LogLevel.INFO, fields, buffer);
+        // the parser rejects duplicate keys
+        JSONObject json = new JSONObject(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+
+        assertEquals("Order processed", json.getString("message"));
+        assertEquals("INFO", json.getString("level"));
+        assertEquals("request-id", json.getString("AWSRequestId"));
+        assertEquals("tenant-id", json.getString("tenantId"));
+        assertEquals(1, json.getLong("_timestamp"));
+        assertEquals("field message", json.getString("_message"));
+        assertEquals("TRACE", json.getString("_level"));
+        assertEquals("other-request-id", json.getString("_AWSRequestId"));
+        assertEquals("other-tenant-id", json.getString("_tenantId"));
+    }
+
+    @Test
+    void testStructuredFieldsAddedTwiceKeepTheLastValue() {
+        LogFields fields = new LogFields();
+        fields.add("orderId", "o-1");
+        fields.add("items", 3L);
+        fields.add("orderId", 2L);
+        fields.add("message", "first");
+        fields.add("_message", "second");
+
+        LogBuffer buffer = new LogBuffer();
+        fields.writeJson(buffer);
+        assertEquals(",\"orderId\":2,\"items\":3,\"_message\":\"second\"",
+                new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(3, fields.size());
+    }
+
+    @Test
+    void testStructuredFieldsInText() {
+        LogFields fields = new LogFields();
+        fields.add("orderId", "o-1");
+        fields.add("items", -3L);
+        fields.add("paid", false);
+
+        LogBuffer buffer = new LogBuffer();
+        new TextLogFormatter().format("Order processed", LogLevel.WARN, fields, buffer);
+        assertEquals("[WARN] Order processed orderId=o-1 items=-3 paid=false",
+                new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    void assertMatchesGson(String message, LogLevel logLevel, LambdaContext context) {
+        JsonLogFormatter logFormatter = new JsonLogFormatter();
+        logFormatter.setLambdaContext(context);
+        String output = logFormatter.format(message, logLevel);
+
+        PojoSerializer<StructuredLogMessage> serializer = GsonFactory.getInstance().getSerializer(StructuredLogMessage.class);
+        StructuredLogMessage expected = new StructuredLogMessage();
+        expected.timestamp = serializer.fromJson(output).timestamp;
+        expected.message = message;
+        expected.level = logLevel;
+        if (context != null) {
+            expected.AWSRequestId = context.getAwsRequestId();
+            expected.tenantId = context.getTenantId();
+        }
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        serializer.toJson(expected, stream);
+        stream.write('\n');
+
+        assertEquals(new String(stream.toByteArray(), StandardCharsets.UTF_8), output);
+    }
+
     void assertFormatsString(String message, LogLevel logLevel, LambdaContext context) {
         JsonLogFormatter logFormatter = new JsonLogFormatter();
         if (context != null) {
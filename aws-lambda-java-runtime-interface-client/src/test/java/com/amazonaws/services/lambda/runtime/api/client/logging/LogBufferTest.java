@@ -0,0 +1,64 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LogBufferTest {
+
+    @Test
+    public void testUtf8EncodingMatchesStringGetBytes() {
+        String[] values = {"ascii", "\u00e9\u20ac\u4e2d", "\ud83d\ude00", "\ud83d unpaired", "unpaired \ude00", "trailing \ud83d", ""};
+        for (String value : values) {
+            LogBuffer buffer = new LogBuffer();
+            buffer.writeUtf8(value);
+            assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), buffer.toByteArray(), value);
+        }
+    }
+
+    @Test
+    public void testResetKeepsUsualSizedBuffer() {
+        LogBuffer buffer = new LogBuffer();
+        buffer.write(new byte[4096]);
+        byte[] array = buffer.array();
+        buffer.reset();
+
+        assertEquals(0, buffer.size());
+        assertSame(array, buffer.array());
+    }
+
+    @Test
+    public void testResetReleasesOversizedBuffer() {
+        LogBuffer buffer = new LogBuffer();
+        buffer.write(new byte[1024 * 1024]);
+        byte[] array = buffer.array();
+        buffer.reset();
+
+        assertEquals(0, buffer.size());
+        assertNotSame(array, buffer.array());
+    }
+
+    @Test
+    public void writeLong() {
+        long[] values = {0, 7, -7, 9, 10, 99, 100, 1234567890123L, -1234567890123L, 999_999_999_999_999_999L,
+            Long.MAX_VALUE, Long.MIN_VALUE};
+        LogBuffer buffer = new LogBuffer();
+        StringBuilder expected = new StringBuilder();
+        for (long value : values) {
+            buffer.writeLong(value);
+            buffer.write(' ');
+            expected.append(value).append(' ');
+        }
+        assertEquals(expected.toString(), new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
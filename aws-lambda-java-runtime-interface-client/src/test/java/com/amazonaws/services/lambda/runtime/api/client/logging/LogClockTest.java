@@ -0,0 +1,93 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogClockTest {
+    private static final DateTimeFormatter ISO_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    @Test
+    public void testRenderedTimestampsMatchDateTimeFormatter() {
+        long[] timestamps = {
+                0L,
+                1L,
+                86_399_999L,
+                951_782_400_000L,  // 2000-02-29
+                951_868_799_999L,  // 2000-02-29T23:59:59.999
+                4_107_542_400_000L, // 2100-03-01
+                1_704_067_199_999L, // 2023-12-31T23:59:59.999
+                253_402_300_799_999L // 9999-12-31T23:59:59.999
+        };
+        for (long millis : timestamps) {
+            assertRendersLikeDateTimeFormatter(millis);
+        }
+
+        // every day in a few centuries, at a varying time of day
+        for (long day = 0; day < 4 * 146_097; day += 7) {
+            assertRendersLikeDateTimeFormatter(day * 86_400_000L + day * 12_345 % 86_400_000L);
+        }
+    }
+
+    @Test
+    public void testClockMatchesWallClock() {
+        Instant before = Instant.now();
+        LogClock clock = LogClock.now();
+        long epochMicros = clock.epochMicros();
+        String isoTimestamp = new String(clock.isoTimestamp(), StandardCharsets.US_ASCII);
+        Instant after = Instant.now();
+
+        assertTrue(toMicros(before) <= epochMicros && epochMicros <= toMicros(after),
+                before + " <= " + epochMicros + " <= " + after);
+
+        Instant rendered = ISO_FORMATTER.parse(isoTimestamp, Instant::from);
+        assertTrue(!rendered.isBefore(before.truncatedTo(ChronoUnit.MILLIS)) && !rendered.isAfter(after),
+                before + " <= " + rendered + " <= " + after);
+    }
+
+    @Test
+    public void testTimestampsOnOneThreadNeverGoBackwards() {
+        long previous = LogClock.now().epochMicros();
+        for (int i = 0; i < 100_000; i++) {
+            long current = LogClock.now().epochMicros();
+            assertTrue(current >= previous, previous + " > " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void testClockIsPerThread() throws InterruptedException {
+        LogClock clock = LogClock.now();
+        assertSame(clock, LogClock.now());
+
+        LogClock[] otherThreadClock = new LogClock[1];
+        Thread thread = new Thread(() -> otherThreadClock[0] = LogClock.now());
+        thread.start();
+        thread.join();
+        assertTrue(otherThreadClock[0] != null && otherThreadClock[0] != clock);
+    }
+
+    private static void assertRendersLikeDateTimeFormatter(long millis) {
+        byte[] rendered = new byte[LogClock.ISO_TIMESTAMP_LENGTH];
+        LogClock.renderIsoTimestamp(millis, rendered);
+        assertEquals(ISO_FORMATTER.format(Instant.ofEpochMilli(millis)), new String(rendered, StandardCharsets.US_ASCII));
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.api.client.api.LambdaContext;
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogFilteringTest {
+
+    static class TestSink implements LogSink {
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void log(byte[] message) {
+            log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
+        }
+
+        @Override
+        public void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
+            messages.add(new String(message, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final TestSink sink = new TestSink();
+
+    private static LambdaContext contextFor(String requestId) {
+        return new LambdaContext(0, 0, requestId, null, null, "function-name", null, null, "function-arn", null, null, null);
+    }
+
+    @Test
+    public void parseLevelSettings() {
+        Map<LogLevel, Integer> perLevel = LogFiltering.parseLevelSettings(" WARN=100, info = 5", Integer::valueOf);
+        assertEquals(2, perLevel.size());
+        assertEquals(100, perLevel.get(LogLevel.WARN));
+        assertEquals(5, perLevel.get(LogLevel.INFO));
+
+        Map<LogLevel, Integer> allLevels = LogFiltering.parseLevelSettings("20", Integer::valueOf);
+        assertEquals(LogLevel.values().length - 1, allLevels.size());
+        assertFalse(allLevels.containsKey(LogLevel.UNDEFINED));
+
+        assertThrows(IllegalArgumentException.class, () -> LogFiltering.parseLevelSettings("WARN=many", Integer::valueOf));
+        assertThrows(IllegalArgumentException.class, () -> LogFiltering.parseLevelSettings("LOUD=1", Integer::valueOf));
+        assertThrows(IllegalArgumentException.class, () -> LogFiltering.createFilters(null, "DEBUG=2", false));
+        assertThrows(IllegalArgumentException.class, () -> LogFiltering.createFilters("0", null, false));
+        assertTrue(LogFiltering.createFilters(null, " ", false).isEmpty());
+        assertEquals(3, LogFiltering.createFilters("10", "DEBUG=0.5", true).size());
+    }
+
+    @Test
+    public void rateLimitPerLevel() {
+        AtomicLong clock = new AtomicLong();
+        Map<LogLevel, Integer> limits = new EnumMap<>(LogLevel.class);
+        limits.put(LogLevel.WARN, 2);
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT,
+                Collections.singletonList(new RateLimitingLogFilter(limits, clock::get)));
+
+        for (int i = 0; i < 5; i++) {
+            logger.log("warn " + i, LogLevel.WARN);
+            logger.log("info " + i, LogLevel.INFO);
+            logger.log("undefined " + i);
+        }
+        assertEquals(2 + 5 + 5, sink.messages.size());
+        assertTrue(sink.messages.contains("[WARN] warn 1"));
+        assertFalse(sink.messages.contains("[WARN] warn 2"));
+
+        // half a second refills one message
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        sink.messages.clear();
+        logger.log("warn 5", LogLevel.WARN);
+        logger.log("warn 6", LogLevel.WARN);
+        assertEquals(Arrays.asList("[WARN] 3 WARN messages were dropped by the log rate limit of 2 per second", "[WARN] warn 5"),
+                sink.messages);
+
+        sink.messages.clear();
+        logger.flush();
+        assertEquals(Collections.singletonList("[WARN] 1 WARN messages were dropped by the log rate limit of 2 per second"),
+                sink.messages);
+    }
+
+    @Test
+    public void samplingIsDeterministicPerRequest() {
+        Map<LogLevel, Double> rates = new EnumMap<>(LogLevel.class);
+        rates.put(LogLevel.DEBUG, 0.25);
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.DEBUG, LogFormat.TEXT,
+                Collections.singletonList(new SamplingLogFilter(rates)));
+
+        // no invocation context, e.g. during init
+        assertTrue(logger.isEnabled(LogLevel.DEBUG));
+
+        int sampled = 0;
+        int requests = 10_000;
+        for (int i = 0; i < requests; i++) {
+            String requestId = "request-" + i;
+            logger.setLambdaContext(contextFor(requestId));
+            boolean enabled = logger.isEnabled(LogLevel.DEBUG);
+            assertEquals(SamplingLogFilter.position(requestId) < 0.25, enabled);
+            assertTrue(logger.isEnabled(LogLevel.INFO));
+            if (enabled) {
+                sampled++;
+            }
+
+            sink.messages.clear();
+            logger.log("debug", LogLevel.DEBUG);
+            logger.log("debug again", LogLevel.DEBUG);
+            assertEquals(enabled ? 2 : 0, sink.messages.size());
+        }
+        assertTrue(sampled > requests * 0.22 && sampled < requests * 0.28, "sampled " + sampled);
+    }
+
+    @Test
+    public void duplicatesAreCounted() {
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT,
+                Collections.singletonList(new DuplicateSuppressingLogFilter()));
+
+        logger.log("retrying", LogLevel.WARN);
+        logger.log("retrying", LogLevel.WARN);
+        logger.log("retrying", LogLevel.WARN);
+        logger.log("retrying", LogLevel.ERROR);
+        logger.log("done", LogLevel.INFO);
+        logger.log("done", LogLevel.INFO);
+        logger.log("not compared".getBytes(StandardCharsets.UTF_8), LogLevel.INFO);
+        logger.log("not compared".getBytes(StandardCharsets.UTF_8), LogLevel.INFO);
+        logger.flush();
+        logger.log("done", LogLevel.INFO);
+
+        assertEquals(Arrays.asList(
+                "[WARN] retrying",
+                "[WARN] Previous message repeated 2 more times",
+                "[ERROR] retrying",
+                "[INFO] done",
+                "not compared",
+                "not compared",
+                "[INFO] Previous message repeated 1 more time",
+                "[INFO] done"), sink.messages);
+    }
+
+    @Test
+    public void duplicatesAreCountedPerThread() throws Exception {
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT,
+                Collections.singletonList(new DuplicateSuppressingLogFilter()));
+        CyclicBarrier interleave = new CyclicBarrier(2);
+
+        // two concurrent invocations logging their own message in turns
+        Thread other = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3; i++) {
+                    interleave.await();
+                    logger.log("other", LogLevel.INFO);
+                    interleave.await();
+                }
+                interleave.await();
+                logger.flush();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        other.start();
+        for (int i = 0; i < 3; i++) {
+            interleave.await();
+            interleave.await();
+            logger.log("retrying", LogLevel.WARN);
+        }
+        logger.flush();
+        interleave.await();
+        other.join();
+
+        assertEquals(Arrays.asList(
+                "[INFO] other",
+                "[WARN] retrying",
+                "[WARN] Previous message repeated 2 more times",
+                "[INFO] Previous message repeated 2 more times"), sink.messages);
+    }
+
+    @Test
+    public void duplicatesDoNotUseUpTheRateLimit() {
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.INFO, LogFormat.TEXT,
+                LogFiltering.createFilters("WARN=2", null, true));
+
+        for (int i = 0; i < 100; i++) {
+            logger.log("same", LogLevel.WARN);
+        }
+        logger.log("different", LogLevel.WARN);
+
+        assertEquals(Arrays.asList("[WARN] same", "[WARN] Previous message repeated 99 more times", "[WARN] different"),
+                sink.messages);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogSinkOutputStreamTest {
+
+    static class RecordingSink implements LogSink {
+        final List<String> messages = new ArrayList<>();
+        OutputStream failureOutput;
+
+        @Override
+        public void log(byte[] message) {
+            log(LogLevel.UNDEFINED, LogFormat.TEXT, message);
+        }
+
+        @Override
+        public void log(LogLevel logLevel, LogFormat logFormat, byte[] message) {
+            if (failureOutput != null) {
+                new PrintStream(failureOutput, true).println("write failed");
+            }
+            messages.add(new String(message, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final RecordingSink sink = new RecordingSink();
+    private final ByteArrayOutputStream fallback = new ByteArrayOutputStream();
+    private final LogSinkOutputStream stream = new LogSinkOutputStream(sink, fallback);
+
+    @Test
+    public void multiLinePrintIsOneMessage() throws IOException {
+        PrintStream out = new PrintStream(stream, false, "UTF-8");
+        out.println("first\nsecond");
+
+        assertEquals(Arrays.asList("first\nsecond\n"), sink.messages);
+    }
+
+    @Test
+    public void partialLineIsHeldUntilCompleted() throws IOException {
+        stream.write("no newline".getBytes(StandardCharsets.UTF_8));
+        assertTrue(sink.messages.isEmpty());
+
+        stream.write(" yet\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("no newline yet\n"), sink.messages);
+    }
+
+    @Test
+    public void flushEmitsPartialLine() throws IOException {
+        stream.write("partial".getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+        stream.flush();
+
+        assertEquals(Arrays.asList("partial"), sink.messages);
+    }
+
+    @Test
+    public void singleBytes() throws IOException {
+        for (byte b : "a\nb".getBytes(StandardCharsets.UTF_8)) {
+            stream.write(b);
+        }
+        stream.close();
+
+        assertEquals(Arrays.asList("a\n", "b"), sink.messages);
+    }
+
+    @Test
+    public void longOutputIsSplitAtLastCompleteLine() throws IOException {
+        char[] line = new char[LogSinkOutputStream.MAX_MESSAGE_LENGTH];
+        Arrays.fill(line, 'x');
+        line[line.length - 1] = '\n';
+        stream.write(new String(line).getBytes(StandardCharsets.UTF_8));
+        sink.messages.clear();
+
+        stream.write("complete\n".getBytes(StandardCharsets.UTF_8));
+        stream.write("a partial line".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, sink.messages.size());
+
+        byte[] tail = new byte[LogSinkOutputStream.MAX_MESSAGE_LENGTH];
+        Arrays.fill(tail, (byte) 'y');
+        stream.write(tail);
+        assertEquals(2, sink.messages.size());
+        assertTrue(sink.messages.get(1).startsWith("a partial lineyyy"));
+        assertEquals("a partial line".length() + tail.length, sink.messages.get(1).length());
+    }
+
+    @Test
+    public void longOutputWithoutNewlineIsEmittedInFull() throws IOException {
+        byte[] bytes = new byte[LogSinkOutputStream.MAX_MESSAGE_LENGTH + 1];
+        Arrays.fill(bytes, (byte) 'z');
+        stream.write(bytes);
+
+        assertEquals(1, sink.messages.size());
+        assertEquals(bytes.length, sink.messages.get(0).length());
+    }
+
+    @Test
+    public void outputOfTheSinkGoesToFallback() throws IOException {
+        sink.failureOutput = stream;
+        stream.write("message\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Arrays.asList("message\n"), sink.messages);
+        assertEquals("write failed\n", new String(fallback.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void loggerFlushEmitsCapturedPartialLines() throws IOException {
+        LambdaContextLogger logger = new LambdaContextLogger(sink, LogLevel.UNDEFINED, LogFormat.TEXT);
+        OutputStream captured = logger.newCaptureStream(fallback);
+        captured.write("pending".getBytes(StandardCharsets.UTF_8));
+        assertTrue(sink.messages.isEmpty());
+
+        logger.flush();
+        assertEquals(Arrays.asList("pending"), sink.messages);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.logging;
+
+import com.amazonaws.lambda.thirdparty.org.json.JSONArray;
+import com.amazonaws.lambda.thirdparty.org.json.JSONObject;
+import com.amazonaws.services.lambda.runtime.logging.LogFormat;
+import com.amazonaws.services.lambda.runtime.logging.LogLevel;
+import com.amazonaws.services.lambda.runtime.logging.LogMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoggingMetricsTest {
+
+    private static final int HEADER_LENGTH = 16;
+
+    @TempDir
+    public Path tmpFolder;
+
+    @Test
+    public void countsFramesAndBytesPerInvocation() throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(tmpFolder.resolve("pipe").toFile());
+             LambdaContextLogger logger = new LambdaContextLogger(new FramedTelemetryLogSink(fos.getFD()), LogLevel.INFO, LogFormat.TEXT)) {
+            logger.log("before the invocation");
+            long totalBefore = LoggingMetrics.total().getMessagesWritten();
+
+            LoggingMetrics.startInvocation();
+            logger.log("hello");
+            logger.log("dropped", LogLevel.DEBUG);
+            logger.log("world", LogLevel.INFO);
+
+            LogMetrics invocation = LoggingMetrics.invocation();
+            assertEquals(2, invocation.getMessagesWritten());
+            assertEquals(2 * HEADER_LENGTH + "hello".length() + "[INFO] world".length(), invocation.getBytesWritten());
+            assertTrue(invocation.getSinkBlockedNanos() > 0);
+            assertTrue(invocation.getFormattingNanos() > 0);
+            assertEquals(totalBefore + 2, LoggingMetrics.total().getMessagesWritten());
+
+            LoggingMetrics.startInvocation();
+            assertEquals(0, LoggingMetrics.invocation().getMessagesWritten());
+            assertEquals(0, LoggingMetrics.invocation().getBytesWritten());
+        }
+    }
+
+    @Test
+    public void emfLine() {
+        LogBuffer buffer = new LogBuffer();
+        LoggingMetrics.writeEmf(new TestMetrics(3, 120, 5_000, 2_000), "my-\"function\"", 1700000000123L, buffer);
+        String line = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(line.endsWith("}\n"));
+        assertFalse(line.substring(0, line.length() - 1).contains("\n"));
+
+        JSONObject emf = new JSONObject(line);
+        JSONObject aws = emf.getJSONObject("_aws");
+        assertEquals(1700000000123L, aws.getLong("Timestamp"));
+        JSONObject directive = aws.getJSONArray("CloudWatchMetrics").getJSONObject(0);
+        assertEquals(LoggingMetrics.EMF_NAMESPACE, directive.getString("Namespace"));
+        assertEquals("FunctionName", directive.getJSONArray("Dimensions").getJSONArray(0).getString(0));
+        JSONArray definitions = directive.getJSONArray("Metrics");
+        assertEquals(4, definitions.length());
+        for (int i = 0; i < definitions.length(); i++) {
+            assertTrue(emf.has(definitions.getJSONObject(i).getString("Name")));
+        }
+
+        assertEquals("my-\"function\"", emf.getString("FunctionName"));
+        assertEquals(3, emf.getLong("LogMessages"));
+        assertEquals(120, emf.getLong("LogBytes"));
+        assertEquals(5, emf.getLong("LogSinkBlockedTime"));
+        assertEquals(2, emf.getLong("LogFormattingTime"));
+    }
+
+    @Test
+    public void emfLineWithoutFunctionName() {
+        LogBuffer buffer = new LogBuffer();
+        LoggingMetrics.writeEmf(new TestMetrics(0, 0, 0, 0), null, 0, buffer);
+
+        JSONObject emf = new JSONObject(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, emf.getJSONObject("_aws").getJSONArray("CloudWatchMetrics").getJSONObject(0).getJSONArray("Dimensions").length());
+        assertFalse(emf.has("FunctionName"));
+    }
+
+    private static class TestMetrics implements LogMetrics {
+        private final long messages;
+        private final long bytes;
+        private final long blockedNanos;
+        private final long formattingNanos;
+
+        TestMetrics(long messages, long bytes, long blockedNanos, long formattingNanos) {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.blockedNanos = blockedNanos;
+            this.formattingNanos = formattingNanos;
+        }
+
+        @Override
+        public long getMessagesWritten() {
+            return messages;
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return bytes;
+        }
+
+        @Override
+        public long getSinkBlockedNanos() {
+            return blockedNanos;
+        }
+
+        @Override
+        public long getFormattingNanos() {
+            return formattingNanos;
+        }
+    }
+}
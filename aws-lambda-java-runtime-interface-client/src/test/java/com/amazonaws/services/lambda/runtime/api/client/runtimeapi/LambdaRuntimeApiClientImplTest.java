@@ -11,6 +11,7 @@ import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -18,12 +19,24 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.amazonaws.services.lambda.runtime.api.client.logging.LambdaContextLogger;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.ErrorRequest;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.InvocationRequest;
+import com.amazonaws.services.lambda.runtime.api.client.util.ReusableByteArrayOutputStream;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.StackElement;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.XRayErrorCause;
 import com.amazonaws.services.lambda.runtime.api.client.runtimeapi.dto.XRayException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -40,6 +53,7 @@ import okhttp3.HttpUrl;
 import static java.net.HttpURLConnection.HTTP_ACCEPTED;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import okhttp3.mockwebserver.MockWebServer;
 
 import okhttp3.mockwebserver.MockResponse;
@@ -285,6 +299,42 @@ public class LambdaRuntimeApiClientImplTest {
         }
     }
 
+    @Test
+    public void reportErrorsReuseConnectionTest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockResponse mockResponse = new MockResponse();
+            mockResponse.setResponseCode(HTTP_ACCEPTED);
+            mockWebServer.enqueue(mockResponse);
+        }
+        MockResponse restoreResponse = new MockResponse();
+        restoreResponse.setResponseCode(HTTP_OK);
+        mockWebServer.enqueue(restoreResponse);
+
+        LambdaError lambdaError = new LambdaError(errorRequest, RapidErrorType.UserException);
+        lambdaRuntimeApiClientImpl.reportInvocationSuccess(requestId, "{}".getBytes(UTF_8));
+        lambdaRuntimeApiClientImpl.reportInvocationError(requestId, lambdaError);
+        lambdaRuntimeApiClientImpl.reportInitError(lambdaError);
+        lambdaRuntimeApiClientImpl.restoreNext();
+
+        // requests on the same thread share one keep-alive connection
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, mockWebServer.takeRequest().getSequenceNumber());
+        }
+    }
+
+    @Test
+    public void reportInvocationErrorRequestNotMadeTest() throws IOException {
+        int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            closedPort = serverSocket.getLocalPort();
+        }
+        LambdaRuntimeApiClientImpl client = new LambdaRuntimeApiClientImpl("127.0.0.1:" + closedPort);
+        LambdaError lambdaError = new LambdaError(errorRequest, RapidErrorType.UserException);
+
+        LambdaRuntimeClientException e = assertThrows(LambdaRuntimeClientException.class, () -> client.reportInvocationError(requestId, lambdaError));
+        assertEquals("Failed to post error. Response code: '-1'.", e.getMessage());
+    }
+
     @Test
     public void reportLambdaErrorWithXRayTest() {
         try {
@@ -353,6 +403,205 @@ public class LambdaRuntimeApiClientImplTest {
         }
     }
 
+    @Test
+    public void reportInvocationSuccessWithLengthTest() {
+        try {
+            MockResponse mockResponse = new MockResponse();
+            mockResponse.setResponseCode(HTTP_ACCEPTED);
+            mockWebServer.enqueue(mockResponse);
+
+            ReusableByteArrayOutputStream output = new ReusableByteArrayOutputStream(64);
+            output.write("{\"msg\":\"test\"}".getBytes(UTF_8));
+            assertTrue(output.getBuffer().length > output.size());
+
+            lambdaRuntimeApiClientImpl.reportInvocationSuccess(requestId, output.getBuffer(), output.size());
+            RecordedRequest recordedRequest = mockWebServer.takeRequest();
+            assertEquals(String.valueOf(output.size()), recordedRequest.getHeader("Content-Length"));
+            assertEquals("{\"msg\":\"test\"}", recordedRequest.getBody().readUtf8());
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void reportInvocationSuccessEmptyResponseTest() {
+        try {
+            MockResponse mockResponse = new MockResponse();
+            mockResponse.setResponseCode(HTTP_ACCEPTED);
+            mockWebServer.enqueue(mockResponse);
+
+            lambdaRuntimeApiClientImpl.reportInvocationSuccess(requestId, new byte[16], 0);
+            RecordedRequest recordedRequest = mockWebServer.takeRequest();
+            assertEquals(0, recordedRequest.getBodySize());
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void streamInvocationResponseTest() {
+        try {
+            MockResponse mockResponse = new MockResponse();
+            mockResponse.setResponseCode(HTTP_ACCEPTED);
+            mockWebServer.enqueue(mockResponse);
+
+            InvocationResponseStream stream = lambdaRuntimeApiClientImpl.openInvocationResponseStream(requestId);
+            assertFalse(stream.isStarted());
+            stream.write("hello".getBytes(UTF_8));
+            stream.flush();
+            assertTrue(stream.isStarted());
+            stream.write(' ');
+            stream.write("world".getBytes(UTF_8));
+            stream.close();
+
+            RecordedRequest recordedRequest = mockWebServer.takeRequest();
+            String expectedUrl = "http://" + getHostnamePort() + "/2018-06-01/runtime/invocation/1234/response";
+            assertEquals(expectedUrl, recordedRequest.getRequestUrl().toString());
+            assertEquals("streaming", recordedRequest.getHeader("Lambda-Runtime-Function-Response-Mode"));
+            assertEquals("chunked", recordedRequest.getHeader("Transfer-Encoding"));
+            assertEquals(Arrays.asList(5, 6), recordedRequest.getChunkSizes());
+            assertEquals("hello world", recordedRequest.getBody().readUtf8());
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void streamInvocationResponseLargerThanChunkTest() {
+        try {
+            MockResponse mockResponse = new MockResponse();
+            mockResponse.setResponseCode(HTTP_ACCEPTED);
+            mockWebServer.enqueue(mockResponse);
+
+            byte[] payload = new byte[3 * InvocationResponseStream.DEFAULT_CHUNK_SIZE + 7];
+            Arrays.fill(payload, (byte) 'x');
+            try (InvocationResponseStream stream = lambdaRuntimeApiClientImpl.openInvocationResponseStream(requestId)) {
+                stream.write(payload, 0, 10);
+                stream.write(payload, 10, payload.length - 10);
+            }
+
+            RecordedRequest recordedRequest = mockWebServer.takeRequest();
+            assertEquals(Arrays.asList(10, payload.length - 10), recordedRequest.getChunkSizes());
+            assertEquals(payload.length, recordedRequest.getBodySize());
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    // MockWebServer does not accept chunked trailers, so the raw request is captured with a plain socket instead
+    @Test
+    public void streamInvocationResponseWithErrorTest() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<String> rawRequest = CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    InputStream in = socket.getInputStream();
+                    StringBuilder request = new StringBuilder();
+                    int b;
+                    while ((b = in.read()) != -1) {
+                        request.append((char) b);
+                        // the request ends with the last chunk followed by the trailers and an empty line
+                        int lastChunk = request.indexOf("\r\n0\r\n");
+                        if (lastChunk >= 0 && request.length() >= lastChunk + 7 && request.toString().endsWith("\r\n\r\n")) {
+                            break;
+                        }
+                    }
+                    socket.getOutputStream().write("HTTP/1.1 202 Accepted\r\nContent-Length: 0\r\n\r\n".getBytes(UTF_8));
+                    socket.getOutputStream().flush();
+                    return request.toString();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            LambdaRuntimeApiClientImpl client = new LambdaRuntimeApiClientImpl("127.0.0.1:" + serverSocket.getLocalPort());
+            InvocationResponseStream stream = client.openInvocationResponseStream(requestId);
+            stream.write("partial".getBytes(UTF_8));
+            stream.flush();
+            stream.closeWithError(new LambdaError(errorRequest, RapidErrorType.BadFunctionCode));
+
+            String request = rawRequest.get(10, TimeUnit.SECONDS);
+            String expectedErrorBody = Base64.getEncoder().encodeToString(DtoSerializers.serialize(errorRequest));
+            assertTrue(request.contains("\r\n7\r\npartial\r\n0\r\n"));
+            assertTrue(request.contains("Lambda-Runtime-Function-Error-Type: Runtime.BadFunctionCode\r\n"));
+            assertTrue(request.contains("Lambda-Runtime-Function-Error-Body: " + expectedErrorBody + "\r\n"));
+            assertThrows(IOException.class, () -> stream.closeWithError(new LambdaError(errorRequest, RapidErrorType.BadFunctionCode)));
+        }
+    }
+
+    @Test
+    public void streamInvocationResponseWrongStatusCodeTest() {
+        MockResponse mockResponse = new MockResponse();
+        mockResponse.setResponseCode(HTTP_INTERNAL_ERROR);
+        mockWebServer.enqueue(mockResponse);
+
+        InvocationResponseStream stream = lambdaRuntimeApiClientImpl.openInvocationResponseStream(requestId);
+        LambdaRuntimeClientException e = assertThrows(LambdaRuntimeClientException.class, stream::close);
+        assertEquals("Failed to finish streamed response. Response code: '500'.", e.getMessage());
+        assertTrue(stream.isStarted());
+
+        // the failed finish does not count as closing the stream, so the error is not mistaken for a double close
+        LambdaError error = new LambdaError(errorRequest, RapidErrorType.AfterRestoreError);
+        assertThrows(LambdaRuntimeClientException.class, () -> stream.closeWithError(error));
+    }
+
+    @Test
+    public void streamInvocationResponseStartFailureTest() throws IOException {
+        int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = serverSocket.getLocalPort();
+        }
+        LambdaRuntimeApiClientImpl client = new LambdaRuntimeApiClientImpl("127.0.0.1:" + closedPort);
+
+        InvocationResponseStream stream = client.openInvocationResponseStream(requestId);
+        stream.write("partial".getBytes(UTF_8));
+        assertThrows(LambdaRuntimeClientException.class, stream::flush);
+        assertFalse(stream.isStarted());
+    }
+
+    @Test
+    public void streamInvocationResponseWriteAfterCloseTest() throws IOException {
+        MockResponse mockResponse = new MockResponse();
+        mockResponse.setResponseCode(HTTP_ACCEPTED);
+        mockWebServer.enqueue(mockResponse);
+
+        InvocationResponseStream stream = lambdaRuntimeApiClientImpl.openInvocationResponseStream(requestId);
+        stream.close();
+        stream.close();
+        assertThrows(IOException.class, () -> stream.write(1));
+    }
+
+    @Test
+    public void streamInvocationResponseRunsBeforeFinishOnceTest() throws Exception {
+        MockResponse mockResponse = new MockResponse();
+        mockResponse.setResponseCode(HTTP_ACCEPTED);
+        mockWebServer.enqueue(mockResponse);
+
+        AtomicInteger runs = new AtomicInteger();
+        InvocationResponseStream stream = lambdaRuntimeApiClientImpl.openInvocationResponseStream(requestId);
+        stream.beforeFinish(() -> {
+            runs.incrementAndGet();
+            // the response is still open
+            try {
+                assertNull(mockWebServer.takeRequest(100, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        stream.write("hello".getBytes(UTF_8));
+        stream.flush();
+        assertEquals(0, runs.get());
+        // the handler closing the stream, then the runtime
+        stream.close();
+        stream.close();
+
+        assertEquals(1, runs.get());
+        assertEquals("hello", mockWebServer.takeRequest().getBody().readUtf8());
+    }
+
     @Test
     public void restoreNextTest() {
         try {
@@ -451,6 +700,50 @@ public class LambdaRuntimeApiClientImplTest {
         }
     }
 
+    @Test
+    public void nextDirectPayloadBufferTest() {
+        try {
+            LambdaRuntimeApiClientImpl directClient = new LambdaRuntimeApiClientImpl(getHostnamePort(), true);
+            MockResponse mockResponse = buildMockResponseForNextInvocation();
+            mockResponse.setBody("{\"key\":\"value\"}");
+            mockWebServer.enqueue(mockResponse);
+
+            InvocationRequest invocationRequest = directClient.nextInvocation();
+            verifyNextInvocationRequest();
+            assertEquals("1234567890", invocationRequest.getId());
+            assertTrue(invocationRequest.getContentBuffer().isDirect());
+
+            byte[] streamed = new byte[64];
+            int length = invocationRequest.getContentAsStream().read(streamed);
+            assertEquals("{\"key\":\"value\"}", new String(streamed, 0, length, UTF_8));
+            assertEquals("{\"key\":\"value\"}", new String(invocationRequest.getContent(), UTF_8));
+        } catch(Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void nextDirectPayloadBufferReusedAcrossInvocationsTest() {
+        try {
+            LambdaRuntimeApiClientImpl directClient = new LambdaRuntimeApiClientImpl(getHostnamePort(), true);
+            MockResponse first = buildMockResponseForNextInvocation();
+            first.setBody("first-payload");
+            mockWebServer.enqueue(first);
+            MockResponse second = buildMockResponseForNextInvocation();
+            second.setBody("2nd");
+            mockWebServer.enqueue(second);
+
+            InvocationRequest firstRequest = directClient.nextInvocation();
+            assertEquals("first-payload", new String(firstRequest.getContent(), UTF_8));
+
+            InvocationRequest secondRequest = directClient.nextInvocation();
+            assertEquals(3, secondRequest.getContentBuffer().remaining());
+            assertEquals("2nd", new String(secondRequest.getContent(), UTF_8));
+        } catch(Exception e) {
+            fail();
+        }
+    }
+
     @Test
     public void createUrlMalformedTest() {
         RapidErrorType rapidErrorType = RapidErrorType.AfterRestoreError;
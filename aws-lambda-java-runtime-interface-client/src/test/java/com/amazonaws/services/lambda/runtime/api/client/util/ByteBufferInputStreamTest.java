@@ -0,0 +1,78 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferInputStreamTest {
+
+    private static ByteBuffer directBufferOf(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    void readSingleBytes() {
+        ByteBufferInputStream stream = new ByteBufferInputStream(directBufferOf("ab"));
+        assertEquals('a', stream.read());
+        assertEquals('b', stream.read());
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    void readReturnsUnsignedValues() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{(byte) 0xFF});
+        assertEquals(255, new ByteBufferInputStream(buffer).read());
+    }
+
+    @Test
+    void readIntoArray() {
+        ByteBufferInputStream stream = new ByteBufferInputStream(directBufferOf("hello world"));
+        byte[] out = new byte[5];
+        assertEquals(5, stream.read(out, 0, 5));
+        assertEquals("hello", new String(out, StandardCharsets.UTF_8));
+        assertEquals(6, stream.available());
+
+        byte[] rest = new byte[16];
+        assertEquals(6, stream.read(rest, 0, rest.length));
+        assertEquals(" world", new String(rest, 0, 6, StandardCharsets.UTF_8));
+        assertEquals(-1, stream.read(rest, 0, rest.length));
+    }
+
+    @Test
+    void readZeroLengthAtEnd() {
+        ByteBufferInputStream stream = new ByteBufferInputStream(directBufferOf(""));
+        assertEquals(0, stream.read(new byte[4], 0, 0));
+        assertEquals(-1, stream.read(new byte[4], 0, 4));
+    }
+
+    @Test
+    void readInvalidBounds() {
+        ByteBufferInputStream stream = new ByteBufferInputStream(directBufferOf("abc"));
+        assertThrows(IndexOutOfBoundsException.class, () -> stream.read(new byte[2], 1, 2));
+    }
+
+    @Test
+    void skipAndMarkReset() {
+        ByteBufferInputStream stream = new ByteBufferInputStream(directBufferOf("0123456789"));
+        assertEquals(3, stream.skip(3));
+        assertTrue(stream.markSupported());
+        stream.mark(0);
+        assertEquals('3', stream.read());
+        stream.reset();
+        assertEquals('3', stream.read());
+        assertEquals(6, stream.skip(100));
+        assertEquals(0, stream.skip(-1));
+    }
+}
@@ -16,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -87,4 +89,64 @@ class ConcurrencyConfigTest {
         assertEquals(0, config.getNumberOfPlatformThreads());
         assertEquals(false, config.isMultiConcurrent());
     }
+
+    @Test
+    void testVirtualThreadsNotUsedByDefault() {
+        when(envReader.getEnv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY)).thenReturn("4");
+
+        ConcurrencyConfig config = new ConcurrencyConfig(lambdaLogger, envReader);
+        assertFalse(config.useVirtualThreads());
+    }
+
+    @Test
+    void testVirtualThreadsIgnoredWithoutMultiConcurrency() {
+        when(envReader.getEnv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY)).thenReturn(null);
+
+        ConcurrencyConfig config = new ConcurrencyConfig(lambdaLogger, envReader);
+        verifyNoInteractions(lambdaLogger);
+        assertFalse(config.useVirtualThreads());
+    }
+
+    @Test
+    void testVirtualThreadsConfig() {
+        when(envReader.getEnv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY)).thenReturn("64");
+        when(envReader.getEnvOrDefault(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_VIRTUAL_THREADS, "false")).thenReturn("true");
+        if (!VirtualThreads.isSupported()) {
+            when(lambdaLogger.getLogFormat()).thenReturn(LogFormat.JSON);
+        }
+
+        ConcurrencyConfig config = new ConcurrencyConfig(lambdaLogger, envReader);
+        assertEquals(VirtualThreads.isSupported(), config.useVirtualThreads());
+        assertEquals(64, config.getNumberOfPlatformThreads());
+        assertTrue(config.getNumberOfPollerThreads() >= 2 && config.getNumberOfPollerThreads() <= 64);
+        if (VirtualThreads.isSupported()) {
+            verifyNoInteractions(lambdaLogger);
+            assertTrue(config.getConcurrencyConfigMessage().startsWith("Starting up to 64 concurrent function handler virtual threads"));
+        } else {
+            verify(lambdaLogger).log(contains("Falling back to platform threads."), eq(LogLevel.WARN));
+            assertEquals("Starting 64 concurrent function handler threads.", config.getConcurrencyConfigMessage());
+        }
+    }
+
+    @Test
+    void testPipelinedDispatcherConfig() {
+        when(envReader.getEnv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY)).thenReturn("8");
+        when(envReader.getEnvOrDefault(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_VIRTUAL_THREADS, "false")).thenReturn("false");
+        when(envReader.getEnvOrDefault(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_JAVA_PIPELINED_DISPATCHER, "false")).thenReturn("true");
+
+        ConcurrencyConfig config = new ConcurrencyConfig(lambdaLogger, envReader);
+        verifyNoInteractions(lambdaLogger);
+        assertTrue(config.usePipelinedDispatcher());
+        assertFalse(config.useVirtualThreads());
+        assertEquals(config.getNumberOfPollerThreads(), config.getNumberOfReporterThreads());
+        assertTrue(config.getConcurrencyConfigMessage().startsWith("Starting 8 concurrent function handler threads fed by"));
+    }
+
+    @Test
+    void testPipelinedDispatcherIgnoredWithoutMultiConcurrency() {
+        when(envReader.getEnv(ReservedRuntimeEnvironmentVariables.AWS_LAMBDA_MAX_CONCURRENCY)).thenReturn(null);
+
+        ConcurrencyConfig config = new ConcurrencyConfig(lambdaLogger, envReader);
+        assertFalse(config.usePipelinedDispatcher());
+    }
 }
@@ -0,0 +1,52 @@
+/*
+Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+SPDX-License-Identifier: Apache-2.0
+*/
+
+package com.amazonaws.services.lambda.runtime.api.client.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testSupportMatchesJavaVersion() {
+        assertEquals(hasOfVirtual(), VirtualThreads.isSupported());
+    }
+
+    @Test
+    void testExecutorRunsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-");
+        try {
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            assertTrue(name.get().startsWith("test-vt-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testExecutorUnsupportedBeforeJava21() {
+        assumeFalse(VirtualThreads.isSupported());
+        assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-"));
+    }
+
+    private static boolean hasOfVirtual() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
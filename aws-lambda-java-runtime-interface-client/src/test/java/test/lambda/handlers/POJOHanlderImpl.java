@@ -2,6 +2,10 @@ package test.lambda.handlers;
 
 import com.amazonaws.services.lambda.runtime.Context;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 @SuppressWarnings("unused")
 public class POJOHanlderImpl {
     @SuppressWarnings("unused")
@@ -23,4 +27,28 @@ public class POJOHanlderImpl {
     public String twoParamsHandler(String event, Context context) {
         return "success";
     }
+
+    @SuppressWarnings("unused")
+    public static String staticHandler(String event, Context context) {
+        return "success";
+    }
+
+    @SuppressWarnings("unused")
+    public void voidHandler(String event) {
+    }
+
+    @SuppressWarnings("unused")
+    public String checkedExceptionHandler(String event) throws IOException {
+        throw new IOException("checked failure");
+    }
+
+    @SuppressWarnings("unused")
+    public void streamHandler(InputStream input, OutputStream output, Context context) throws IOException {
+        output.write("\"success\"".getBytes());
+    }
+
+    @SuppressWarnings("unused")
+    public void streamOutputOnlyHandler(OutputStream output) throws IOException {
+        output.write("\"success\"".getBytes());
+    }
 }
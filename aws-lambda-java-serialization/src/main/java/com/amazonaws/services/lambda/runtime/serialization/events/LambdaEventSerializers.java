@@ -25,11 +25,15 @@ import com.amazonaws.services.lambda.runtime.serialization.events.modules.DateMo
 import com.amazonaws.services.lambda.runtime.serialization.events.modules.DateTimeModule;
 import com.amazonaws.services.lambda.runtime.serialization.events.serializers.OrgJsonSerializer;
 import com.amazonaws.services.lambda.runtime.serialization.events.serializers.S3EventSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.serializers.SQSEventSerializer;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,7 +55,7 @@ import java.util.stream.Stream;
  *
  * Option 2 (longer - for event models that do not work with Jackson or GSON):
  * 1. Add Class name to SUPPORTED_EVENTS
- * 2. Add serializer (using org.json) to
+ * 2. Add serializer (using the Jackson streaming API, see S3EventSerializer) to
  * com.amazonaws.services.lambda.runtime.serialization.events.serializers
  * 3. Add class name and serializer to SERIALIZER_MAP
  */
@@ -92,13 +96,29 @@ public class LambdaEventSerializers {
      * Classes are incompatible with Jackson for any of the following reasons:
      * 1. different constructor/setter types from getter types
      * 2. various bugs within Jackson
+     * 3. high volume events that are cheaper to read and write with the Jackson streaming API than with bean
+     *    introspection (SQS), while keeping the JSON of their mixins
      */
     private static final Map<String, OrgJsonSerializer> SERIALIZER_MAP  = Stream.of(
             new SimpleEntry<>("com.amazonaws.services.s3.event.S3EventNotification", new S3EventSerializer<>()),
             new SimpleEntry<>("com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification", new S3EventSerializer<>()),
-            new SimpleEntry<>("com.amazonaws.services.lambda.runtime.events.S3Event", new S3EventSerializer<>()))
+            new SimpleEntry<>("com.amazonaws.services.lambda.runtime.events.S3Event", new S3EventSerializer<>()),
+            new SimpleEntry<>("com.amazonaws.services.lambda.runtime.events.SQSEvent", new SQSEventSerializer<>()))
             .collect(Collectors.toMap(SimpleEntry::getKey, SimpleEntry::getValue));
 
+    /**
+     * serializers already created, by event class and class loader. The serializers of an event class are stored with
+     * the class itself and weakly keyed by class loader, so neither is kept loaded by this cache
+     */
+    @SuppressWarnings("rawtypes")
+    private static final ClassValue<Map<ClassLoader, PojoSerializer>> SERIALIZERS =
+            new ClassValue<Map<ClassLoader, PojoSerializer>>() {
+                @Override
+                protected Map<ClassLoader, PojoSerializer> computeValue(Class<?> eventClass) {
+                    return Collections.synchronizedMap(new WeakHashMap<>());
+                }
+            };
+
     /**
      * Maps supported event classes to mixin classes with Jackson annotations.
      * Jackson annotations are not loaded through the ClassLoader so if a Java field is serialized or deserialized from a
@@ -240,22 +260,44 @@ public class LambdaEventSerializers {
 
         /**
          * Return a serializer for the event class
+         * The serializer is created on the first call for the event class and class loader, and shared afterwards.
+         * A serializer holds on to its class loader, so it is only shared if the class loader is the one of the event
+         * class or one of its parents, which the event class keeps loaded anyway.
          * 
          * @return a specific PojoSerializer or modified JacksonFactory instance with
          *         mixins and modules added in
          */
         @SuppressWarnings({ "unchecked" })
         public static <T> PojoSerializer<T> serializerFor(Class<T> eventClass, ClassLoader classLoader) {
+                if (!isSelfOrParent(classLoader, eventClass.getClassLoader())) {
+                        return createSerializer(eventClass, classLoader);
+                }
+                return (PojoSerializer<T>) SERIALIZERS.get(eventClass).computeIfAbsent(classLoader,
+                                key -> createSerializer(eventClass, classLoader));
+        }
+
+        private static boolean isSelfOrParent(ClassLoader classLoader, ClassLoader child) {
+                for (ClassLoader loader = child; loader != null; loader = loader.getParent()) {
+                        if (loader == classLoader) {
+                                return true;
+                        }
+                }
+                // the bootstrap class loader is the parent of all
+                return classLoader == null;
+        }
+
+        @SuppressWarnings({ "unchecked" })
+        private static <T> PojoSerializer<T> createSerializer(Class<T> eventClass, ClassLoader classLoader) {
                 // if serializer specifically defined for event then use that
                 if (SERIALIZER_MAP.containsKey(eventClass.getName())) {
                         return SERIALIZER_MAP.get(eventClass.getName()).withClass(eventClass)
                                         .withClassLoader(classLoader);
                 }
-                // else use a Jackson ObjectMapper instance
-                JacksonFactory factory = JacksonFactory.getInstance();
+                // else use a copy of the Jackson ObjectMapper with everything the event needs applied at once
+                Map<Class<?>, Class<?>> mixins = new HashMap<>();
                 // if mixins required for class, then apply
                 if (MIXIN_MAP.containsKey(eventClass.getName())) {
-                        factory = factory.withMixin(eventClass, MIXIN_MAP.get(eventClass.getName()));
+                        mixins.put(eventClass, MIXIN_MAP.get(eventClass.getName()));
                 }
                 // if event model has nested classes then load those classes and check if mixins
                 // apply
@@ -264,28 +306,24 @@ public class LambdaEventSerializers {
                         for (NestedClass nestedClass : nestedClasses) {
                                 // if mixin exists for nested class then apply
                                 if (MIXIN_MAP.containsKey(nestedClass.className)) {
-                                        factory = tryLoadingNestedClass(classLoader, factory, nestedClass);
+                                        tryLoadingNestedClass(classLoader, mixins, nestedClass);
                                 }
                         }
                 }
-                // load DateModules
-                factory.getMapper().registerModules(new DateModule(), new DateTimeModule(classLoader));
-                // load naming strategy if needed
-                if (NAMING_STRATEGY_MAP.containsKey(eventClass.getName())) {
-                        factory = factory.withNamingStrategy(NAMING_STRATEGY_MAP.get(eventClass.getName()));
-                }
+                // load DateModules and naming strategy if needed
+                JacksonFactory factory = JacksonFactory.getInstance().withConfiguration(mixins,
+                                NAMING_STRATEGY_MAP.get(eventClass.getName()),
+                                new DateModule(), new DateTimeModule(classLoader));
                 return factory.getSerializer(eventClass);
         }
 
         /**
-         * Tries to load a nested class with its defined mixin from {@link #MIXIN_MAP}
-         * into the {@link JacksonFactory} object.
+         * Tries to load a nested class and adds it with its defined mixin from {@link #MIXIN_MAP}
+         * to the mixins.
          * Will allow initial failure for {@link AlternateNestedClass} objects and try
          * again with their alternate class name
-         * 
-         * @return a modified JacksonFactory instance with mixins added in
          */
-        private static JacksonFactory tryLoadingNestedClass(ClassLoader classLoader, JacksonFactory factory,
+        private static void tryLoadingNestedClass(ClassLoader classLoader, Map<Class<?>, Class<?>> mixins,
                         NestedClass nestedClass) {
                 Class<?> eventClazz;
                 Class<?> mixinClazz;
@@ -303,7 +341,7 @@ public class LambdaEventSerializers {
                         }
                 }
 
-                return factory.withMixin(eventClazz, mixinClazz);
+                mixins.put(eventClazz, mixinClazz);
         }
 
         private static class NestedClass {
@@ -2,6 +2,8 @@
 
 package com.amazonaws.services.lambda.runtime.serialization.events.modules;
 
+import com.amazonaws.services.lambda.runtime.serialization.util.Functions;
+import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
 import com.amazonaws.services.lambda.runtime.serialization.util.SerializeUtil;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
@@ -35,7 +37,15 @@ public class DateTimeModule extends JodaModule {
      * @param classLoader classLoader that's used to load any DateTime classes
      * @return JsonSerializer with generic DateTime
      */
+    @SuppressWarnings({"unchecked"})
     private <T> JsonSerializer<T> getSerializer(Class<T> dateTimeClass, ClassLoader classLoader) {
+        // ISODateTimeFormat.dateTime().print(dateTime), looked up once for the module
+        Class dateTimeFormatterClass = SerializeUtil.loadCustomerClass("com.amazonaws.lambda.unshade.thirdparty.org.joda.time.format.DateTimeFormatter", classLoader);
+        Class dateTimeFormatClass = SerializeUtil.loadCustomerClass("com.amazonaws.lambda.unshade.thirdparty.org.joda.time.format.ISODateTimeFormat", classLoader);
+        Class readableInstantInterface = SerializeUtil.loadCustomerClass("com.amazonaws.lambda.unshade.thirdparty.org.joda.time.ReadableInstant", classLoader);
+        Object dateTimeFormatter = ReflectUtil.loadStaticR0(dateTimeFormatClass, "dateTime", true, dateTimeFormatterClass).call();
+        Functions.R1<String, T> printMethod =
+                ReflectUtil.bindInstanceR1(dateTimeFormatter, "print", true, String.class, readableInstantInterface);
         return new JsonSerializer<T>() {
 
             /**
@@ -48,7 +58,7 @@ public class DateTimeModule extends JodaModule {
             @Override
             public void serialize(T dateTime, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
                     throws IOException, JsonProcessingException {
-                jsonGenerator.writeString(SerializeUtil.serializeDateTime(dateTime, classLoader));
+                jsonGenerator.writeString(printMethod.call(dateTime));
             }
         };
     }
@@ -59,6 +69,9 @@ public class DateTimeModule extends JodaModule {
      * @return JsonDeserializer with generic DateTime
      */
     private <T> JsonDeserializer<T> getDeserializer(Class<T> dateTimeClass) {
+        // DateTime.parse(string), looked up once for the module
+        Functions.R1<T, String> parseMethod =
+                ReflectUtil.loadStaticR1(dateTimeClass, "parse", true, dateTimeClass, String.class);
         return new JsonDeserializer<T>() {
 
             /**
@@ -71,7 +84,7 @@ public class DateTimeModule extends JodaModule {
             @Override
             public T deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
                     throws IOException, JsonProcessingException {
-                return SerializeUtil.deserializeDateTime(dateTimeClass, jsonParser.getValueAsString());
+                return parseMethod.call(jsonParser.getValueAsString());
             }
         };
     }
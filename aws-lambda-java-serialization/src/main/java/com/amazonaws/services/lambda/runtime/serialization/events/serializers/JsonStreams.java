@@ -0,0 +1,127 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.serialization.events.serializers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.amazonaws.services.lambda.runtime.serialization.factories.JacksonFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Helpers shared by the event serializers that use the Jackson streaming API
+ */
+final class JsonStreams {
+
+    /**
+     * JsonFactory with the same parser and generator features as the Jackson event serializers
+     */
+    static final JsonFactory JSON_FACTORY = JacksonFactory.getInstance().getMapper().getFactory();
+
+    private JsonStreams() {}
+
+    /**
+     * Reads a value starting at the current token of the parser
+     */
+    interface Decoder<T> {
+        T decode(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Decodes the value at offset in json, which must be UTF-8. The location of a parse error is the one in json, not
+     * the one in the decoded value.
+     */
+    static <T> T decode(byte[] json, int offset, int length, Decoder<T> decoder) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+            parser.nextToken();
+            return decoder.decode(parser);
+        } catch (JsonProcessingException e) {
+            if (e.getLocation() == null || e.getLocation().getByteOffset() < 0) {
+                throw e;
+            }
+            throw new JsonParseException(null, e.getOriginalMessage(), locationInJson(json, offset, e.getLocation()), e);
+        }
+    }
+
+    /**
+     * Returns the location in json of a location in the value at offset. Like the locations of the parser, columns
+     * count bytes.
+     */
+    private static JsonLocation locationInJson(byte[] json, int offset, JsonLocation location) {
+        int byteOffset = (int) Math.min(offset + location.getByteOffset(), json.length);
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < byteOffset; i++) {
+            if (json[i] == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new JsonLocation(location.contentReference(), byteOffset, -1, line, byteOffset - lineStart + 1);
+    }
+
+    /**
+     * Returns the byte offset of the current token, or -1 if the parser does not read bytes
+     */
+    static int tokenOffset(JsonParser parser) {
+        return (int) parser.currentTokenLocation().getByteOffset();
+    }
+
+    /**
+     * Returns the byte offset right after the last token read, or -1 if the parser does not read bytes
+     */
+    static int endOffset(JsonParser parser) {
+        return (int) parser.currentLocation().getByteOffset();
+    }
+
+    /**
+     * Reads the input stream to the end. The bytes are not copied again when the stream knows how many bytes are
+     * available, as the runtime's input streams do.
+     */
+    static byte[] readAllBytes(InputStream input) throws IOException {
+        byte[] bytes = new byte[Math.max(input.available(), 8192)];
+        int length = 0;
+        int read;
+        while ((read = input.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+            if (length == bytes.length) {
+                int next = input.read();
+                if (next == -1) {
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                bytes[length++] = (byte) next;
+            }
+        }
+        return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Returns whether the parser is positioned at the start of an object. Other values, such as null, are skipped.
+     */
+    static boolean startObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+
+    /**
+     * Advances to the value of the next field of the current object.
+     * @return false once the end of the object has been reached
+     */
+    static boolean nextField(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return false;
+        }
+        parser.nextToken();
+        return true;
+    }
+}
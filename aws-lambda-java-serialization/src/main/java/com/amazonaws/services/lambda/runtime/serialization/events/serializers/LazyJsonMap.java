@@ -0,0 +1,78 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.serialization.events.serializers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map that is decoded from a slice of the original JSON payload the first time it is used, and then delegates to the
+ * decoded map.
+ */
+final class LazyJsonMap<V> extends AbstractMap<String, V> {
+
+    private byte[] json;
+    private final int offset;
+    private final int length;
+    private JsonStreams.Decoder<Map<String, V>> decoder;
+    private Map<String, V> map;
+
+    LazyJsonMap(byte[] json, int offset, int length, JsonStreams.Decoder<Map<String, V>> decoder) {
+        this.json = json;
+        this.offset = offset;
+        this.length = length;
+        this.decoder = decoder;
+    }
+
+    private synchronized Map<String, V> map() {
+        if (map == null) {
+            try {
+                map = JsonStreams.decode(json, offset, length, decoder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // the payload may be released once everything backed by it has been decoded
+            json = null;
+            decoder = null;
+        }
+        return map;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return map().entrySet();
+    }
+
+    @Override
+    public int size() {
+        return map().size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map().containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return map().get(key);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        return map().put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return map().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        map().clear();
+    }
+}
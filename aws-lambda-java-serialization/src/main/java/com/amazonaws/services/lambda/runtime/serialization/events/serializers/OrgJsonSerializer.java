@@ -8,7 +8,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
- * Interface for event serializers that use org json
+ * Interface for event serializers that do not use Jackson databind. The first of them were written with org json,
+ * hence the name.
  */
 public interface OrgJsonSerializer<T> extends PojoSerializer<T> {
 
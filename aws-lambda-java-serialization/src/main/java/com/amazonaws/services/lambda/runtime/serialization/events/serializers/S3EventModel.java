@@ -0,0 +1,188 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.serialization.events.serializers;
+
+import java.util.List;
+
+import com.amazonaws.services.lambda.runtime.serialization.util.Functions;
+import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
+
+/**
+ * Constructors and getters of the S3 event notification classes visible to one class loader.
+ * Everything is looked up once per event class, so serializing and deserializing S3 events does no reflective
+ * lookups per event or per record.
+ * @see S3EventSerializer
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class S3EventModel {
+
+    /**
+     * Newer version of S3EventNotification from aws-lambda-java-events v3+
+     * @see com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification;
+     */
+    private static final String S3_EVENT_NOTIFICATION_CLASS_V3 = "com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification";
+
+    /**
+     * S3EventNotification used by aws-lambda-java-events pre-v3 (relies on aws-s3-sdk)
+     * @see com.amazonaws.services.s3.event.S3EventNotification;
+     */
+    private static final String S3_EVENT_NOTIFICATION_CLASS_V2 = "com.amazonaws.services.s3.event.S3EventNotification";
+
+    /**
+     * models already resolved, stored with the S3EventNotification class they were resolved for, so that a model does
+     * not keep the classes it refers to loaded
+     */
+    private static final ClassValue<S3EventModel> models = new ClassValue<S3EventModel>() {
+        @Override
+        protected S3EventModel computeValue(Class<?> notificationClass) {
+            return new S3EventModel(notificationClass);
+        }
+    };
+
+    final Functions.R1<List, Object> getRecords;
+
+    final Functions.R9<Object, String, String, String, String, String, Object, Object, Object, Object> newRecord;
+    final Functions.R1<String, Object> getAwsRegion;
+    final Functions.R1<String, Object> getEventName;
+    final Functions.R1<String, Object> getEventSource;
+    final Functions.R1<Object, Object> getEventTime;
+    final Functions.R1<String, Object> getEventVersion;
+    final Functions.R1<Object, Object> getRequestParameters;
+    final Functions.R1<Object, Object> getResponseElements;
+    final Functions.R1<Object, Object> getS3;
+    final Functions.R1<Object, Object> getUserIdentity;
+
+    final Functions.R4<Object, String, Object, Object, String> newS3Entity;
+    final Functions.R1<String, Object> getConfigurationId;
+    final Functions.R1<Object, Object> getBucket;
+    final Functions.R1<Object, Object> getObject;
+    final Functions.R1<String, Object> getS3SchemaVersion;
+
+    final Functions.R3<Object, String, Object, String> newBucket;
+    final Functions.R1<String, Object> getName;
+    final Functions.R1<Object, Object> getOwnerIdentity;
+    final Functions.R1<String, Object> getArn;
+
+    /**
+     * legacy s3 event models only have the 4 argument constructor and no urlDecodedKey or sequencer, in which case
+     * newObjectWithSequencer and the two getters are null
+     */
+    final Functions.R5<Object, String, Long, String, String, String> newObjectWithSequencer;
+    final Functions.R4<Object, String, Long, String, String> newLegacyObject;
+    final Functions.R1<String, Object> getKey;
+    final Functions.R1<Long, Object> getSizeAsLong;
+    final Functions.R1<String, Object> getETag;
+    final Functions.R1<String, Object> getVersionId;
+    final Functions.R1<String, Object> getUrlDecodedKey;
+    final Functions.R1<String, Object> getSequencer;
+
+    final Functions.R1<Object, String> newUserIdentity;
+    final Functions.R1<String, Object> getPrincipalId;
+
+    final Functions.R1<Object, String> newRequestParameters;
+    final Functions.R1<String, Object> getSourceIPAddress;
+
+    final Functions.R2<Object, String, String> newResponseElements;
+    final Functions.R1<String, Object> getXAmzId2;
+    final Functions.R1<String, Object> getXAmzRequestId;
+
+    /**
+     * ISODateTimeFormat.dateTime().print(eventTime)
+     */
+    final Functions.R1<String, Object> printDateTime;
+
+    private S3EventModel(Class notificationClass) {
+        ClassLoader classLoader = notificationClass.getClassLoader();
+        String baseClassName = notificationClass.getName();
+        Class recordClass = ReflectUtil.loadClass(classLoader, baseClassName + "$S3EventNotificationRecord");
+        Class s3EntityClass = ReflectUtil.loadClass(classLoader, baseClassName + "$S3Entity");
+        Class s3BucketClass = ReflectUtil.loadClass(classLoader, baseClassName + "$S3BucketEntity");
+        Class s3ObjectClass = ReflectUtil.loadClass(classLoader, baseClassName + "$S3ObjectEntity");
+        Class requestParametersClass = ReflectUtil.loadClass(classLoader, baseClassName + "$RequestParametersEntity");
+        Class responseElementsClass = ReflectUtil.loadClass(classLoader, baseClassName + "$ResponseElementsEntity");
+        Class userIdentityClass = ReflectUtil.loadClass(classLoader, baseClassName + "$UserIdentityEntity");
+        // Workaround not to let maven shade plugin relocating string literals https://issues.apache.org/jira/browse/MSHADE-156
+        Class dateTimeClass = ReflectUtil.loadClass(classLoader, "com.amazonaws.lambda.unshade.thirdparty.org.joda.time.DateTime");
+        Class readableInstantInterface = ReflectUtil.loadClass(classLoader, "com.amazonaws.lambda.unshade.thirdparty.org.joda.time.ReadableInstant");
+        Class dateTimeFormatterClass = ReflectUtil.loadClass(classLoader, "com.amazonaws.lambda.unshade.thirdparty.org.joda.time.format.DateTimeFormatter");
+        Class dateTimeFormatClass = ReflectUtil.loadClass(classLoader, "com.amazonaws.lambda.unshade.thirdparty.org.joda.time.format.ISODateTimeFormat");
+
+        getRecords = ReflectUtil.loadInstanceR0(notificationClass, "getRecords", true, List.class);
+
+        newRecord = ReflectUtil.loadConstuctor9(recordClass, true, String.class, String.class, String.class,
+                String.class, String.class, requestParametersClass, responseElementsClass, s3EntityClass, userIdentityClass);
+        getAwsRegion = ReflectUtil.loadInstanceR0(recordClass, "getAwsRegion", true, String.class);
+        getEventName = ReflectUtil.loadInstanceR0(recordClass, "getEventName", true, String.class);
+        getEventSource = ReflectUtil.loadInstanceR0(recordClass, "getEventSource", true, String.class);
+        getEventTime = ReflectUtil.loadInstanceR0(recordClass, "getEventTime", true, dateTimeClass);
+        getEventVersion = ReflectUtil.loadInstanceR0(recordClass, "getEventVersion", true, String.class);
+        getRequestParameters = ReflectUtil.loadInstanceR0(recordClass, "getRequestParameters", true, requestParametersClass);
+        getResponseElements = ReflectUtil.loadInstanceR0(recordClass, "getResponseElements", true, responseElementsClass);
+        getS3 = ReflectUtil.loadInstanceR0(recordClass, "getS3", true, s3EntityClass);
+        getUserIdentity = ReflectUtil.loadInstanceR0(recordClass, "getUserIdentity", true, userIdentityClass);
+
+        newS3Entity = ReflectUtil.loadConstuctor4(s3EntityClass, true, String.class, s3BucketClass, s3ObjectClass, String.class);
+        getConfigurationId = ReflectUtil.loadInstanceR0(s3EntityClass, "getConfigurationId", true, String.class);
+        getBucket = ReflectUtil.loadInstanceR0(s3EntityClass, "getBucket", true, s3BucketClass);
+        getObject = ReflectUtil.loadInstanceR0(s3EntityClass, "getObject", true, s3ObjectClass);
+        getS3SchemaVersion = ReflectUtil.loadInstanceR0(s3EntityClass, "getS3SchemaVersion", true, String.class);
+
+        newBucket = ReflectUtil.loadConstuctor3(s3BucketClass, true, String.class, userIdentityClass, String.class);
+        getName = ReflectUtil.loadInstanceR0(s3BucketClass, "getName", true, String.class);
+        getOwnerIdentity = ReflectUtil.loadInstanceR0(s3BucketClass, "getOwnerIdentity", true, userIdentityClass);
+        getArn = ReflectUtil.loadInstanceR0(s3BucketClass, "getArn", true, String.class);
+
+        newObjectWithSequencer = loadOptional(() -> ReflectUtil.loadConstuctor5(s3ObjectClass, true, String.class, Long.class,
+                String.class, String.class, String.class));
+        newLegacyObject = newObjectWithSequencer != null ? null : ReflectUtil.loadConstuctor4(s3ObjectClass, true, String.class,
+                Long.class, String.class, String.class);
+        getKey = ReflectUtil.loadInstanceR0(s3ObjectClass, "getKey", true, String.class);
+        getSizeAsLong = ReflectUtil.loadInstanceR0(s3ObjectClass, "getSizeAsLong", true, Long.class);
+        getETag = ReflectUtil.loadInstanceR0(s3ObjectClass, "geteTag", true, String.class);
+        getVersionId = ReflectUtil.loadInstanceR0(s3ObjectClass, "getVersionId", true, String.class);
+        getUrlDecodedKey = loadOptional(() -> ReflectUtil.loadInstanceR0(s3ObjectClass, "getUrlDecodedKey", true, String.class));
+        getSequencer = loadOptional(() -> ReflectUtil.loadInstanceR0(s3ObjectClass, "getSequencer", true, String.class));
+
+        newUserIdentity = ReflectUtil.loadConstructor1(userIdentityClass, true, String.class);
+        getPrincipalId = ReflectUtil.loadInstanceR0(userIdentityClass, "getPrincipalId", true, String.class);
+
+        newRequestParameters = ReflectUtil.loadConstructor1(requestParametersClass, true, String.class);
+        getSourceIPAddress = ReflectUtil.loadInstanceR0(requestParametersClass, "getSourceIPAddress", true, String.class);
+
+        newResponseElements = ReflectUtil.loadConstructor2(responseElementsClass, true, String.class, String.class);
+        getXAmzId2 = ReflectUtil.loadInstanceR0(responseElementsClass, "getxAmzId2", true, String.class);
+        getXAmzRequestId = ReflectUtil.loadInstanceR0(responseElementsClass, "getxAmzRequestId", true, String.class);
+
+        Object dateTimeFormatter = ReflectUtil.loadStaticR0(dateTimeFormatClass, "dateTime", true, dateTimeFormatterClass).call();
+        printDateTime = ReflectUtil.bindInstanceR1(dateTimeFormatter, "print", true, String.class, readableInstantInterface);
+    }
+
+    /**
+     * Returns the S3 event model of the class loader, resolving it on first use. The aws-lambda-java-events v3+ model
+     * is preferred over the pre-v3 one that relies on aws-s3-sdk.
+     * @param classLoader ClassLoader that S3 event classes will be loaded from
+     * @return S3 event model
+     */
+    static S3EventModel forClassLoader(ClassLoader classLoader) {
+        try {
+            return models.get(ReflectUtil.loadClass(classLoader, S3_EVENT_NOTIFICATION_CLASS_V3));
+        } catch (ReflectUtil.ReflectException ex) {
+            return models.get(ReflectUtil.loadClass(classLoader, S3_EVENT_NOTIFICATION_CLASS_V2));
+        }
+    }
+
+    private static <F> F loadOptional(Functions.R0<F> loader) {
+        try {
+            return loader.call();
+        } catch (ReflectUtil.ReflectException e) {
+            return null;
+        }
+    }
+
+    Object newObject(String key, Long size, String eTag, String versionId, String sequencer) {
+        if (newObjectWithSequencer != null) {
+            return newObjectWithSequencer.call(key, size, eTag, versionId, sequencer);
+        }
+        return newLegacyObject.call(key, size, eTag, versionId);
+    }
+}
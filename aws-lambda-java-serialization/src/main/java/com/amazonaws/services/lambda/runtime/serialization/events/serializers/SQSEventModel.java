@@ -0,0 +1,122 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.serialization.events.serializers;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.lambda.runtime.serialization.util.Functions;
+import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
+
+/**
+ * Constructors, getters and setters of the SQS event classes visible to one class loader.
+ * Everything is looked up once per event class, so serializing and deserializing SQS events does no reflective
+ * lookups per event or per message.
+ * @see SQSEventSerializer
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class SQSEventModel {
+
+    private static final String SQS_EVENT_CLASS = "com.amazonaws.services.lambda.runtime.events.SQSEvent";
+
+    /**
+     * models already resolved, stored with the SQS event class they were resolved for, so that a model does not keep
+     * the classes it refers to loaded
+     */
+    private static final ClassValue<SQSEventModel> models = new ClassValue<SQSEventModel>() {
+        @Override
+        protected SQSEventModel computeValue(Class<?> eventClass) {
+            return new SQSEventModel(eventClass);
+        }
+    };
+
+    final Functions.R1<List, Object> getRecords;
+    final Functions.V2<Object, List> setRecords;
+
+    final Functions.R0<Object> newMessage;
+    final Functions.R1<String, Object> getMessageId;
+    final Functions.V2<Object, String> setMessageId;
+    final Functions.R1<String, Object> getReceiptHandle;
+    final Functions.V2<Object, String> setReceiptHandle;
+    final Functions.R1<String, Object> getBody;
+    final Functions.V2<Object, String> setBody;
+    final Functions.R1<String, Object> getMd5OfBody;
+    final Functions.V2<Object, String> setMd5OfBody;
+    final Functions.R1<String, Object> getMd5OfMessageAttributes;
+    final Functions.V2<Object, String> setMd5OfMessageAttributes;
+    final Functions.R1<String, Object> getEventSourceArn;
+    final Functions.V2<Object, String> setEventSourceArn;
+    final Functions.R1<String, Object> getEventSource;
+    final Functions.V2<Object, String> setEventSource;
+    final Functions.R1<String, Object> getAwsRegion;
+    final Functions.V2<Object, String> setAwsRegion;
+    final Functions.R1<Map, Object> getAttributes;
+    final Functions.V2<Object, Map> setAttributes;
+    final Functions.R1<Map, Object> getMessageAttributes;
+    final Functions.V2<Object, Map> setMessageAttributes;
+
+    final Functions.R0<Object> newMessageAttribute;
+    final Functions.R1<String, Object> getStringValue;
+    final Functions.V2<Object, String> setStringValue;
+    final Functions.R1<ByteBuffer, Object> getBinaryValue;
+    final Functions.V2<Object, ByteBuffer> setBinaryValue;
+    final Functions.R1<List, Object> getStringListValues;
+    final Functions.V2<Object, List> setStringListValues;
+    final Functions.R1<List, Object> getBinaryListValues;
+    final Functions.V2<Object, List> setBinaryListValues;
+    final Functions.R1<String, Object> getDataType;
+    final Functions.V2<Object, String> setDataType;
+
+    private SQSEventModel(Class eventClass) {
+        ClassLoader classLoader = eventClass.getClassLoader();
+        Class messageClass = ReflectUtil.loadClass(classLoader, SQS_EVENT_CLASS + "$SQSMessage");
+        Class messageAttributeClass = ReflectUtil.loadClass(classLoader, SQS_EVENT_CLASS + "$MessageAttribute");
+
+        getRecords = ReflectUtil.loadInstanceR0(eventClass, "getRecords", true, List.class);
+        setRecords = ReflectUtil.loadInstanceV1(eventClass, "setRecords", true, List.class);
+
+        newMessage = ReflectUtil.loadConstructor0(messageClass, true);
+        getMessageId = ReflectUtil.loadInstanceR0(messageClass, "getMessageId", true, String.class);
+        setMessageId = ReflectUtil.loadInstanceV1(messageClass, "setMessageId", true, String.class);
+        getReceiptHandle = ReflectUtil.loadInstanceR0(messageClass, "getReceiptHandle", true, String.class);
+        setReceiptHandle = ReflectUtil.loadInstanceV1(messageClass, "setReceiptHandle", true, String.class);
+        getBody = ReflectUtil.loadInstanceR0(messageClass, "getBody", true, String.class);
+        setBody = ReflectUtil.loadInstanceV1(messageClass, "setBody", true, String.class);
+        getMd5OfBody = ReflectUtil.loadInstanceR0(messageClass, "getMd5OfBody", true, String.class);
+        setMd5OfBody = ReflectUtil.loadInstanceV1(messageClass, "setMd5OfBody", true, String.class);
+        getMd5OfMessageAttributes = ReflectUtil.loadInstanceR0(messageClass, "getMd5OfMessageAttributes", true, String.class);
+        setMd5OfMessageAttributes = ReflectUtil.loadInstanceV1(messageClass, "setMd5OfMessageAttributes", true, String.class);
+        getEventSourceArn = ReflectUtil.loadInstanceR0(messageClass, "getEventSourceArn", true, String.class);
+        setEventSourceArn = ReflectUtil.loadInstanceV1(messageClass, "setEventSourceArn", true, String.class);
+        getEventSource = ReflectUtil.loadInstanceR0(messageClass, "getEventSource", true, String.class);
+        setEventSource = ReflectUtil.loadInstanceV1(messageClass, "setEventSource", true, String.class);
+        getAwsRegion = ReflectUtil.loadInstanceR0(messageClass, "getAwsRegion", true, String.class);
+        setAwsRegion = ReflectUtil.loadInstanceV1(messageClass, "setAwsRegion", true, String.class);
+        getAttributes = ReflectUtil.loadInstanceR0(messageClass, "getAttributes", true, Map.class);
+        setAttributes = ReflectUtil.loadInstanceV1(messageClass, "setAttributes", true, Map.class);
+        getMessageAttributes = ReflectUtil.loadInstanceR0(messageClass, "getMessageAttributes", true, Map.class);
+        setMessageAttributes = ReflectUtil.loadInstanceV1(messageClass, "setMessageAttributes", true, Map.class);
+
+        newMessageAttribute = ReflectUtil.loadConstructor0(messageAttributeClass, true);
+        getStringValue = ReflectUtil.loadInstanceR0(messageAttributeClass, "getStringValue", true, String.class);
+        setStringValue = ReflectUtil.loadInstanceV1(messageAttributeClass, "setStringValue", true, String.class);
+        getBinaryValue = ReflectUtil.loadInstanceR0(messageAttributeClass, "getBinaryValue", true, ByteBuffer.class);
+        setBinaryValue = ReflectUtil.loadInstanceV1(messageAttributeClass, "setBinaryValue", true, ByteBuffer.class);
+        getStringListValues = ReflectUtil.loadInstanceR0(messageAttributeClass, "getStringListValues", true, List.class);
+        setStringListValues = ReflectUtil.loadInstanceV1(messageAttributeClass, "setStringListValues", true, List.class);
+        getBinaryListValues = ReflectUtil.loadInstanceR0(messageAttributeClass, "getBinaryListValues", true, List.class);
+        setBinaryListValues = ReflectUtil.loadInstanceV1(messageAttributeClass, "setBinaryListValues", true, List.class);
+        getDataType = ReflectUtil.loadInstanceR0(messageAttributeClass, "getDataType", true, String.class);
+        setDataType = ReflectUtil.loadInstanceV1(messageAttributeClass, "setDataType", true, String.class);
+    }
+
+    /**
+     * Returns the SQS event model of the class loader, resolving it on first use.
+     * @param classLoader ClassLoader that SQS event classes will be loaded from
+     * @return SQS event model
+     */
+    static SQSEventModel forClassLoader(ClassLoader classLoader) {
+        return models.get(ReflectUtil.loadClass(classLoader, SQS_EVENT_CLASS));
+    }
+}
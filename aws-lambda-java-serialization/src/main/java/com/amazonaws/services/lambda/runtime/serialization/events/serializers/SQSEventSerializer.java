@@ -0,0 +1,497 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+
+package com.amazonaws.services.lambda.runtime.serialization.events.serializers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.lambda.runtime.serialization.util.Functions;
+import com.amazonaws.services.lambda.runtime.serialization.util.ReflectUtil;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Serializer for SQS event
+ * Reads and writes the event with the Jackson streaming API instead of Jackson databind, so no bean introspection or
+ * mixins are needed at runtime. The JSON is the same as the one the Jackson ObjectMapper reads and writes with
+ * SQSEventMixin: "Records" and "eventSourceARN" are renamed, null properties and map values are left out, binary values
+ * are base64 encoded, an empty string or an empty array is read as a null object, and an object in a single element
+ * array is unwrapped. The event classes are created and accessed through
+ * their constructors, getters and setters, which are looked up once per class loader (see {@link SQSEventModel}).
+ */
+public class SQSEventSerializer<T> implements OrgJsonSerializer<T> {
+
+    /**
+     * Set to "true" to decode the attributes and message attributes of the messages of events read from an input stream
+     * only when they are first used. Their offsets in the payload are indexed while the messages are read, the payload
+     * is kept in memory until they are decoded, and values that cannot be decoded fail when they are used instead of
+     * when the event is deserialized.
+     */
+    static final String LAZY_EVENTS_ENV_VAR = "AWS_LAMBDA_JAVA_SERIALIZATION_LAZY_EVENTS";
+
+    private static final boolean LAZY_EVENTS = Boolean.parseBoolean(System.getenv(LAZY_EVENTS_ENV_VAR));
+
+    /**
+     * SQS event class
+     * @see com.amazonaws.services.lambda.runtime.events.SQSEvent;
+     */
+    private final Class<T> eventClass;
+
+    /**
+     * ClassLoader to be used when loading SQS event classes
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * SQS event model and event constructor, resolved on first use
+     */
+    private volatile SQSEventModel model;
+    private volatile Functions.R0<T> eventConstructor;
+
+    public SQSEventSerializer() {
+        this(null, null);
+    }
+
+    private SQSEventSerializer(Class<T> eventClass, ClassLoader classLoader) {
+        this.eventClass = eventClass;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param eventClass SQS event class
+     * @return a new SQSEventSerializer for the event class
+     */
+    @Override
+    public SQSEventSerializer<T> withClass(Class<T> eventClass) {
+        return new SQSEventSerializer<>(eventClass, classLoader);
+    }
+
+    /**
+     * @param classLoader ClassLoader that SQS event classes will be loaded from
+     * @return a new SQSEventSerializer loading SQS event classes from the class loader
+     */
+    @Override
+    public SQSEventSerializer<T> withClassLoader(ClassLoader classLoader) {
+        return new SQSEventSerializer<>(eventClass, classLoader);
+    }
+
+    /**
+     * deserialize an instance of an SQS event from an input stream
+     * @param input InputStream reading from
+     * @return SQSEvent Object
+     */
+    public T fromJson(InputStream input) {
+        try {
+            if (LAZY_EVENTS) {
+                return fromJson(JsonStreams.readAllBytes(input));
+            }
+            try (JsonParser parser = JsonStreams.JSON_FACTORY.createParser(input)) {
+                return deserializeEvent(parser, null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private T fromJson(byte[] json) throws IOException {
+        try (JsonParser parser = JsonStreams.JSON_FACTORY.createParser(json)) {
+            return deserializeEvent(parser, json);
+        }
+    }
+
+    /**
+     * deserialize an instance of an SQS event from a string
+     * @param input String with JSON
+     * @return SQSEvent object
+     */
+    public T fromJson(String input) {
+        try (JsonParser parser = JsonStreams.JSON_FACTORY.createParser(input)) {
+            return deserializeEvent(parser, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * serialize an SQS event object to the output stream
+     * @param value SQS event object
+     * @param output OutputStream serializing to
+     */
+    public void toJson(T value, OutputStream output) {
+        // the generator is closed so that it gets flushed, the output stream is left open
+        try (JsonGenerator generator = JsonStreams.JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            serializeEvent(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SQSEventModel model() {
+        SQSEventModel resolved = model;
+        if (resolved == null) {
+            resolved = SQSEventModel.forClassLoader(classLoader);
+            model = resolved;
+        }
+        return resolved;
+    }
+
+    private Functions.R0<T> eventConstructor() {
+        Functions.R0<T> constructor = eventConstructor;
+        if (constructor == null) {
+            constructor = ReflectUtil.loadConstructor0(eventClass, true);
+            eventConstructor = constructor;
+        }
+        return constructor;
+    }
+
+    private void serializeEvent(JsonGenerator generator, T value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        SQSEventModel model = model();
+        generator.writeStartObject();
+        List<?> records = model.getRecords.call(value);
+        if (records != null) {
+            generator.writeArrayFieldStart("Records");
+            for (Object message : records) {
+                serializeMessage(generator, model, message);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @param json payload the parser reads, to decode the attribute maps lazily, or null to decode them now
+     */
+    private T deserializeEvent(JsonParser parser, byte[] json) throws IOException {
+        SQSEventModel model = model();
+        parser.nextToken();
+        // byte offsets are only known when the parser reads UTF-8 bytes
+        byte[] payload = JsonStreams.tokenOffset(parser) >= 0 ? json : null;
+        return readObject(parser, eventParser -> deserializeEventFields(eventParser, model, payload));
+    }
+
+    private T deserializeEventFields(JsonParser parser, SQSEventModel model, byte[] payload) throws IOException {
+        T event = eventConstructor().call();
+        while (JsonStreams.nextField(parser)) {
+            if ("Records".equals(parser.currentName())) {
+                List<Object> records = null;
+                if (parser.currentToken() == JsonToken.START_ARRAY) {
+                    records = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        records.add(readObject(parser, messageParser -> deserializeMessage(messageParser, model, payload)));
+                    }
+                } else if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                    records = new ArrayList<>(Collections.singletonList(
+                            readObject(parser, messageParser -> deserializeMessage(messageParser, model, payload))));
+                }
+                model.setRecords.call(event, records);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private static void serializeMessage(JsonGenerator generator, SQSEventModel model, Object message) throws IOException {
+        if (message == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeString(generator, "messageId", model.getMessageId.call(message));
+        writeString(generator, "receiptHandle", model.getReceiptHandle.call(message));
+        writeString(generator, "body", model.getBody.call(message));
+        writeString(generator, "md5OfBody", model.getMd5OfBody.call(message));
+        writeString(generator, "md5OfMessageAttributes", model.getMd5OfMessageAttributes.call(message));
+        writeString(generator, "eventSource", model.getEventSource.call(message));
+        writeString(generator, "awsRegion", model.getAwsRegion.call(message));
+        Map<String, String> attributes = model.getAttributes.call(message);
+        if (attributes != null) {
+            generator.writeObjectFieldStart("attributes");
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writeString(generator, attribute.getKey(), attribute.getValue());
+            }
+            generator.writeEndObject();
+        }
+        Map<String, Object> messageAttributes = model.getMessageAttributes.call(message);
+        if (messageAttributes != null) {
+            generator.writeObjectFieldStart("messageAttributes");
+            for (Map.Entry<String, Object> messageAttribute : messageAttributes.entrySet()) {
+                if (messageAttribute.getValue() != null) {
+                    generator.writeFieldName(messageAttribute.getKey());
+                    serializeMessageAttribute(generator, model, messageAttribute.getValue());
+                }
+            }
+            generator.writeEndObject();
+        }
+        // the mixin renames eventSourceArn, which Jackson then writes after the other properties
+        writeString(generator, "eventSourceARN", model.getEventSourceArn.call(message));
+        generator.writeEndObject();
+    }
+
+    /**
+     * @param json payload the parser reads, to decode the attribute maps lazily, or null to decode them now
+     */
+    private static Object deserializeMessage(JsonParser parser, SQSEventModel model, byte[] json) throws IOException {
+        Object message = model.newMessage.call();
+        while (JsonStreams.nextField(parser)) {
+            switch (parser.currentName()) {
+                case "messageId":
+                    model.setMessageId.call(message, readString(parser));
+                    break;
+                case "receiptHandle":
+                    model.setReceiptHandle.call(message, readString(parser));
+                    break;
+                case "body":
+                    model.setBody.call(message, readString(parser));
+                    break;
+                case "md5OfBody":
+                    model.setMd5OfBody.call(message, readString(parser));
+                    break;
+                case "md5OfMessageAttributes":
+                    model.setMd5OfMessageAttributes.call(message, readString(parser));
+                    break;
+                case "eventSourceARN":
+                    model.setEventSourceArn.call(message, readString(parser));
+                    break;
+                case "eventSource":
+                    model.setEventSource.call(message, readString(parser));
+                    break;
+                case "awsRegion":
+                    model.setAwsRegion.call(message, readString(parser));
+                    break;
+                case "attributes":
+                    model.setAttributes.call(message, readMap(parser, json, SQSEventSerializer::readStringMap));
+                    break;
+                case "messageAttributes":
+                    model.setMessageAttributes.call(message, readMap(parser, json,
+                            attributesParser -> readMessageAttributes(attributesParser, model)));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private static void serializeMessageAttribute(JsonGenerator generator, SQSEventModel model,
+                                                  Object messageAttribute) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "stringValue", model.getStringValue.call(messageAttribute));
+        ByteBuffer binaryValue = model.getBinaryValue.call(messageAttribute);
+        if (binaryValue != null) {
+            generator.writeFieldName("binaryValue");
+            writeBinary(generator, binaryValue);
+        }
+        List<String> stringListValues = model.getStringListValues.call(messageAttribute);
+        if (stringListValues != null) {
+            generator.writeArrayFieldStart("stringListValues");
+            for (String stringValue : stringListValues) {
+                generator.writeString(stringValue);
+            }
+            generator.writeEndArray();
+        }
+        List<ByteBuffer> binaryListValues = model.getBinaryListValues.call(messageAttribute);
+        if (binaryListValues != null) {
+            generator.writeArrayFieldStart("binaryListValues");
+            for (ByteBuffer binary : binaryListValues) {
+                writeBinary(generator, binary);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "dataType", model.getDataType.call(messageAttribute));
+        generator.writeEndObject();
+    }
+
+    private static Map<String, Object> readMessageAttributes(JsonParser parser, SQSEventModel model) throws IOException {
+        return readObject(parser, mapParser -> {
+            Map<String, Object> messageAttributes = new LinkedHashMap<>();
+            while (JsonStreams.nextField(mapParser)) {
+                messageAttributes.put(mapParser.currentName(),
+                        readObject(mapParser, attributeParser -> deserializeMessageAttribute(attributeParser, model)));
+            }
+            return messageAttributes;
+        });
+    }
+
+    private static Object deserializeMessageAttribute(JsonParser parser, SQSEventModel model) throws IOException {
+        Object messageAttribute = model.newMessageAttribute.call();
+        while (JsonStreams.nextField(parser)) {
+            switch (parser.currentName()) {
+                case "stringValue":
+                    model.setStringValue.call(messageAttribute, readString(parser));
+                    break;
+                case "binaryValue":
+                    model.setBinaryValue.call(messageAttribute, readBinary(parser));
+                    break;
+                case "stringListValues":
+                    model.setStringListValues.call(messageAttribute, readStringList(parser));
+                    break;
+                case "binaryListValues":
+                    model.setBinaryListValues.call(messageAttribute, readBinaryList(parser));
+                    break;
+                case "dataType":
+                    model.setDataType.call(messageAttribute, readString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return messageAttribute;
+    }
+
+    /**
+     * Reads the current value as an object with the decoder, which is called with the parser positioned at the start
+     * of the object. Like with DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT and
+     * ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, null, an empty string and an empty array are read as null, and like with
+     * UNWRAP_SINGLE_VALUE_ARRAYS, a single value in an array is unwrapped.
+     */
+    private static <V> V readObject(JsonParser parser, JsonStreams.Decoder<V> decoder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return readSingleObject(parser, decoder);
+        }
+        if (parser.nextToken() == JsonToken.END_ARRAY) {
+            return null;
+        }
+        V value = readSingleObject(parser, decoder);
+        if (parser.nextToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected a single object in the array");
+        }
+        return value;
+    }
+
+    private static <V> V readSingleObject(JsonParser parser, JsonStreams.Decoder<V> decoder) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL || (token == JsonToken.VALUE_STRING && parser.getTextLength() == 0)) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an object but found " + token);
+        }
+        return decoder.decode(parser);
+    }
+
+    /**
+     * Reads the current value as a string. Like Jackson, numbers and booleans are read as their text and a single
+     * value in an array is unwrapped.
+     */
+    private static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        if (token == JsonToken.START_ARRAY) {
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return null;
+            }
+            String value = readString(parser);
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a single string value in the array");
+            }
+            return value;
+        }
+        throw new JsonParseException(parser, "Expected a string but found " + token);
+    }
+
+    /**
+     * Reads the current value with the decoder, unless it is an object and the payload is given, in which case it is
+     * decoded from the payload when the map is first used
+     */
+    private static <V> Map<String, V> readMap(JsonParser parser, byte[] json,
+                                              JsonStreams.Decoder<Map<String, V>> decoder) throws IOException {
+        if (json == null || parser.currentToken() != JsonToken.START_OBJECT) {
+            return decoder.decode(parser);
+        }
+        int start = JsonStreams.tokenOffset(parser);
+        parser.skipChildren();
+        return new LazyJsonMap<>(json, start, JsonStreams.endOffset(parser) - start, decoder);
+    }
+
+    private static Map<String, String> readStringMap(JsonParser parser) throws IOException {
+        return readObject(parser, mapParser -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            while (JsonStreams.nextField(mapParser)) {
+                values.put(mapParser.currentName(), readString(mapParser));
+            }
+            return values;
+        });
+    }
+
+    private static List<String> readStringList(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        if (token != JsonToken.START_ARRAY) {
+            values.add(readString(parser));
+            return values;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(parser));
+        }
+        return values;
+    }
+
+    private static ByteBuffer readBinary(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ByteBuffer.wrap(parser.getBinaryValue());
+    }
+
+    private static List<ByteBuffer> readBinaryList(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        List<ByteBuffer> values = new ArrayList<>();
+        if (token != JsonToken.START_ARRAY) {
+            values.add(readBinary(parser));
+            return values;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readBinary(parser));
+        }
+        return values;
+    }
+
+    private static void writeString(JsonGenerator generator, String fieldName, String value) throws IOException {
+        // like the Jackson serializers, null properties and null map values are left out
+        if (value != null) {
+            generator.writeStringField(fieldName, value);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer as base64, without moving its position.
+     */
+    private static void writeBinary(JsonGenerator generator, ByteBuffer value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value.hasArray()) {
+            generator.writeBinary(value.array(), value.arrayOffset() + value.position(), value.remaining());
+        } else {
+            byte[] bytes = new byte[value.remaining()];
+            value.duplicate().get(bytes);
+            generator.writeBinary(bytes);
+        }
+    }
+}
@@ -3,7 +3,6 @@
 package com.amazonaws.services.lambda.runtime.serialization.util;
 
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Scanner;
 
 /**
@@ -11,11 +10,6 @@ import java.util.Scanner;
  */
 public class SerializeUtil {
 
-    /**
-     * cached of classes being loaded for faster reflect loading
-     */
-    private static final HashMap<String, Class> cachedClasses = new HashMap<>();
-
     /**
      * converts an input stream to a string
      * @param inputStream InputStream object
@@ -28,16 +22,13 @@ public class SerializeUtil {
 
     /**
      * load a customer class
+     * The class is not cached here: the class loader already keeps track of the classes it loaded, and a cache by
+     * class name would return the classes of the first class loader to any other one and keep them loaded.
      * @param className name of class to load
      * @return Class object
      */
     public static Class loadCustomerClass(String className, ClassLoader customerClassLoader) {
-        Class cachedClass = cachedClasses.get(className);
-        if (cachedClass == null) {
-            cachedClass = ReflectUtil.loadClass(customerClassLoader, className);
-            cachedClasses.put(className, cachedClass);
-        }
-        return cachedClass;
+        return ReflectUtil.loadClass(customerClassLoader, className);
     }
 
     /**
@@ -0,0 +1,86 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+package com.amazonaws.services.lambda.runtime.tests;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.KinesisEvent;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import com.amazonaws.services.lambda.runtime.serialization.factories.JacksonFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies that {@code AWS_LAMBDA_JAVA_SERIALIZATION_ACCELERATED} switches the Jackson mapper to the Blackbird
+ * accessors without changing its output. The {@code accelerated-serialization-test} execution runs this test with the
+ * variable set, together with the other serialization tests. The expected output in {@code serialization_output} was
+ * written by the default mapper, byte for byte.
+ */
+public class AcceleratedSerializationTest {
+
+    private static final String ACCELERATED_ENV_VAR = "AWS_LAMBDA_JAVA_SERIALIZATION_ACCELERATED";
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = ACCELERATED_ENV_VAR, matches = "true")
+    public void testBlackbirdModuleIsRegisteredWhenAccelerated() {
+        assertThat(JacksonFactory.getInstance().getMapper().getRegisteredModuleIds())
+                .anyMatch(id -> id.toString().endsWith(".BlackbirdModule"));
+    }
+
+    @Test
+    @DisabledIfEnvironmentVariable(named = ACCELERATED_ENV_VAR, matches = "true")
+    public void testBlackbirdModuleIsNotRegisteredByDefault() {
+        assertThat(JacksonFactory.getInstance().getMapper().getRegisteredModuleIds())
+                .noneMatch(id -> id.toString().endsWith(".BlackbirdModule"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("events")
+    void testOutputMatchesDefaultMapper(String fixture, Class<?> eventClass) throws IOException {
+        String expected = read("serialization_output/" + fixture.replaceAll(".*/", "")).trim();
+        assertThat(serialize(fixture, eventClass)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> events() {
+        return Stream.of(
+                Arguments.of("sns_event.json", SNSEvent.class),
+                Arguments.of("cloudwatch_event.json", ScheduledEvent.class),
+                Arguments.of("kinesis/kinesis_event_roundtrip.json", KinesisEvent.class),
+                Arguments.of("ddb/dynamo_event_roundtrip.json", DynamodbEvent.class));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static String serialize(String fixture, Class<?> eventClass) throws IOException {
+        PojoSerializer serializer = LambdaEventSerializers.serializerFor(eventClass, ClassLoader.getSystemClassLoader());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream stream = AcceleratedSerializationTest.class.getClassLoader().getResourceAsStream(fixture)) {
+            serializer.toJson(serializer.fromJson(stream), output);
+        }
+        return new String(output.toByteArray(), UTF_8);
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream stream = AcceleratedSerializationTest.class.getClassLoader().getResourceAsStream(resource)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), UTF_8);
+        }
+    }
+}
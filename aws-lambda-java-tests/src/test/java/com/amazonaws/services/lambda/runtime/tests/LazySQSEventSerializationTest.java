@@ -0,0 +1,147 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+package com.amazonaws.services.lambda.runtime.tests;
+
+import com.amazonaws.lambda.thirdparty.com.fasterxml.jackson.core.JsonParseException;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.MessageAttribute;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies the SQS events read with {@code AWS_LAMBDA_JAVA_SERIALIZATION_LAZY_EVENTS=true}, whose attribute maps are
+ * decoded from the payload when they are first used. The {@code lazy-events-test} execution runs this test with the
+ * variable set, together with the other serialization tests.
+ */
+@EnabledIfEnvironmentVariable(named = "AWS_LAMBDA_JAVA_SERIALIZATION_LAZY_EVENTS", matches = "true")
+public class LazySQSEventSerializationTest {
+
+    private static final String EVENT = "{\"Records\":[{\"messageId\":\"m1\",\n"
+            + "\"attributes\":{\"ApproximateReceiveCount\":\"1\",\"SentTimestamp\":\"1545082649183\",\"SenderId\":\"S\"},\n"
+            + "\"messageAttributes\":{\"text\":{\"stringValue\":\"value\",\"dataType\":\"String\"},\n"
+            + "\"bytes\":{\"binaryValue\":\"AQID\",\"dataType\":\"Binary\"},\"gone\":null}},\n"
+            + "{\"messageId\":\"m2\",\"attributes\":null,\"messageAttributes\":[]}]}";
+
+    private final PojoSerializer<SQSEvent> serializer = LambdaEventSerializers.serializerFor(SQSEvent.class,
+            ClassLoader.getSystemClassLoader());
+
+    @Test
+    public void testAttributesAreDecodedWhenFirstUsed() {
+        SQSMessage message = readStream(EVENT).getRecords().get(0);
+
+        assertThat(message.getAttributes().getClass().getSimpleName()).isEqualTo("LazyJsonMap");
+        assertThat(message.getAttributes().get("SenderId")).isEqualTo("S");
+        assertThat(message.getAttributes().containsKey("SentTimestamp")).isTrue();
+        MessageAttribute bytes = message.getMessageAttributes().get("bytes");
+        assertThat(bytes.getBinaryValue()).isEqualTo(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        assertThat(message.getMessageAttributes().get("gone")).isNull();
+        assertThat(message.getMessageAttributes().containsKey("gone")).isTrue();
+    }
+
+    @Test
+    public void testAttributesIterateInPayloadOrder() {
+        SQSMessage message = readStream(EVENT).getRecords().get(0);
+
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, String> attribute : message.getAttributes().entrySet()) {
+            keys.add(attribute.getKey());
+        }
+        assertThat(keys).containsExactly("ApproximateReceiveCount", "SentTimestamp", "SenderId");
+        assertThat(message.getMessageAttributes().keySet()).containsExactly("text", "bytes", "gone");
+    }
+
+    @Test
+    public void testAttributesEqualTheEagerlyDecodedOnes() {
+        SQSEvent lazy = readStream(EVENT);
+        // events read from a string are decoded right away
+        SQSEvent eager = serializer.fromJson(EVENT);
+
+        SQSMessage lazyMessage = lazy.getRecords().get(0);
+        SQSMessage eagerMessage = eager.getRecords().get(0);
+        assertThat(eagerMessage.getAttributes().getClass().getSimpleName()).isNotEqualTo("LazyJsonMap");
+        assertThat(lazyMessage.getAttributes()).hasSize(3).isEqualTo(eagerMessage.getAttributes());
+        assertThat(eagerMessage.getAttributes()).isEqualTo(lazyMessage.getAttributes());
+        assertThat(lazyMessage.getAttributes().hashCode()).isEqualTo(eagerMessage.getAttributes().hashCode());
+        assertThat(lazyMessage.getMessageAttributes()).hasSize(3).isEqualTo(eagerMessage.getMessageAttributes());
+        assertThat(lazy).isEqualTo(eager);
+        assertThat(lazy.getRecords().get(1).getAttributes()).isNull();
+        assertThat(lazy.getRecords().get(1).getMessageAttributes()).isNull();
+    }
+
+    @Test
+    public void testAttributesCanBeChanged() {
+        SQSMessage message = readStream(EVENT).getRecords().get(0);
+
+        message.getAttributes().put("SenderId", "T");
+        message.getAttributes().remove("SentTimestamp");
+        message.getMessageAttributes().clear();
+
+        assertThat(message.getAttributes()).isEqualTo(new HashMap<String, String>() {{
+            put("ApproximateReceiveCount", "1");
+            put("SenderId", "T");
+        }});
+        assertThat(message.getMessageAttributes()).isEmpty();
+        assertThat(toJson(message)).isEqualTo("{\"Records\":[{\"messageId\":\"m1\","
+                + "\"attributes\":{\"ApproximateReceiveCount\":\"1\",\"SenderId\":\"T\"},\"messageAttributes\":{}}]}");
+    }
+
+    @Test
+    public void testMalformedAttributesFailWhenFirstUsed() {
+        SQSEvent event = readStream("{\"Records\":[{\"messageId\":\"m1\",\n"
+                + "\"messageAttributes\":{\"bytes\":{\"binaryValue\":\"#\"}},\n"
+                + "\"attributes\":{\"SenderId\":{\"nested\":true}}}]}");
+        SQSMessage message = event.getRecords().get(0);
+
+        assertThatThrownBy(() -> message.getMessageAttributes().get("bytes"))
+                .isInstanceOf(UncheckedIOException.class)
+                .cause()
+                .isInstanceOfSatisfying(JsonParseException.class, e -> {
+                    // the location in the payload, not in the message attributes
+                    assertThat(e.getLocation().getLineNr()).isEqualTo(2);
+                    assertThat(e.getLocation().getColumnNr()).isEqualTo(47);
+                });
+        assertThatThrownBy(() -> message.getAttributes().size())
+                .isInstanceOf(UncheckedIOException.class)
+                .cause()
+                .isInstanceOfSatisfying(JsonParseException.class, e -> {
+                    assertThat(e.getOriginalMessage()).contains("Expected a string");
+                    assertThat(e.getLocation().getLineNr()).isEqualTo(3);
+                    assertThat(e.getLocation().getColumnNr()).isEqualTo(27);
+                    assertThat(e.getLocation().getByteOffset()).isEqualTo(108);
+                });
+    }
+
+    @Test
+    public void testMalformedPayloadsFailWhenRead() {
+        assertThatThrownBy(() -> readStream("{\"Records\":[{\"messageId\":\"m1\",\"attributes\":{\"a\":\"b\"]}]}"))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    private SQSEvent readStream(String json) {
+        return serializer.fromJson(new ByteArrayInputStream(json.getBytes(UTF_8)));
+    }
+
+    private String toJson(SQSMessage message) {
+        SQSEvent event = new SQSEvent();
+        List<SQSMessage> records = new ArrayList<>();
+        records.add(message);
+        event.setRecords(records);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        serializer.toJson(event, output);
+        return new String(output.toByteArray(), UTF_8);
+    }
+}
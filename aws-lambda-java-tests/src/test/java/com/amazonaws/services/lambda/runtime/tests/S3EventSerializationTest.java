@@ -0,0 +1,142 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+package com.amazonaws.services.lambda.runtime.tests;
+
+import com.amazonaws.services.lambda.runtime.events.S3Event;
+import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification.S3EventNotificationRecord;
+import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification.S3ObjectEntity;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies how {@code S3EventSerializer} reads and writes S3 events: the exact output, including the order of the
+ * fields, and the handling of missing, null, reordered and URL-encoded fields.
+ */
+public class S3EventSerializationTest {
+
+    private static final String FIXTURE_OUTPUT = "{\"Records\":[{"
+            + "\"awsRegion\":\"eu-central-1\",\"eventName\":\"ObjectCreated:Put\",\"eventSource\":\"aws:s3\","
+            + "\"eventTime\":\"1970-01-01T00:00:00.000Z\",\"eventVersion\":\"2.0\","
+            + "\"requestParameters\":{\"sourceIPAddress\":\"127.0.0.1\"},"
+            + "\"responseElements\":{\"x-amz-id-2\":\"EXAMPLE123/5678abcdefghijklambdaisawesome/mnopqrstuvwxyzABCDEFGH\","
+            + "\"x-amz-request-id\":\"EXAMPLE123456789\"},"
+            + "\"s3\":{\"configurationId\":\"testConfigRule\","
+            + "\"bucket\":{\"name\":\"example-bucket\",\"ownerIdentity\":{\"principalId\":\"EXAMPLE\"},"
+            + "\"arn\":\"arn:aws:s3:::example-bucket\"},"
+            + "\"object\":{\"key\":\"test/key\",\"size\":1024,\"eTag\":\"0123456789abcdef0123456789abcdef\","
+            + "\"versionId\":\"\",\"urlDecodedKey\":\"test/key\",\"sequencer\":\"0A1B2C3D4E5F678901\"},"
+            + "\"s3SchemaVersion\":\"1.0\"},"
+            + "\"userIdentity\":{\"principalId\":\"EXAMPLE\"}}]}";
+
+    private final PojoSerializer<S3Event> serializer = LambdaEventSerializers.serializerFor(S3Event.class,
+            ClassLoader.getSystemClassLoader());
+
+    @Test
+    public void testFixtureIsWrittenInFieldOrder() throws IOException {
+        S3Event event;
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream("s3_event.json")) {
+            event = serializer.fromJson(stream);
+        }
+
+        assertThat(toJson(event)).isEqualTo(FIXTURE_OUTPUT);
+        assertThat(toJson(serializer.fromJson(FIXTURE_OUTPUT))).isEqualTo(FIXTURE_OUTPUT);
+    }
+
+    @Test
+    public void testReorderedAndUnknownFieldsAreRead() {
+        String json = "{\"extra\":[1,{\"Records\":[]}],\"Records\":[{"
+                + "\"s3\":{\"object\":{\"sequencer\":\"0A\",\"versionId\":\"v1\",\"eTag\":\"e\",\"size\":7,\"key\":\"z\"},"
+                + "\"bucket\":{\"arn\":\"arn:aws:s3:::b\",\"ownerIdentity\":{\"principalId\":\"P\"},\"name\":\"b\"},"
+                + "\"configurationId\":\"c\",\"s3SchemaVersion\":\"1.0\"},"
+                + "\"glacierEventData\":{\"restoreEventData\":{\"lifecycleRestoreStorageClass\":\"GLACIER\"}},"
+                + "\"userIdentity\":{\"principalId\":\"U\"},\"eventName\":\"ObjectRestore:Completed\","
+                + "\"eventTime\":\"1970-01-01T00:00:00.000Z\",\"awsRegion\":\"eu-west-1\"}]}";
+
+        S3Event event = serializer.fromJson(json);
+
+        assertThat(event.getRecords()).hasSize(1);
+        S3EventNotificationRecord record = event.getRecords().get(0);
+        assertThat(record.getEventName()).isEqualTo("ObjectRestore:Completed");
+        assertThat(record.getAwsRegion()).isEqualTo("eu-west-1");
+        assertThat(record.getS3().getBucket().getOwnerIdentity().getPrincipalId()).isEqualTo("P");
+        assertThat(record.getS3().getObject().getSizeAsLong()).isEqualTo(7L);
+        assertThat(record.getS3().getObject().getSequencer()).isEqualTo("0A");
+        assertThat(toJson(event)).isEqualTo("{\"Records\":[{"
+                + "\"awsRegion\":\"eu-west-1\",\"eventName\":\"ObjectRestore:Completed\",\"eventSource\":\"\","
+                + "\"eventTime\":\"1970-01-01T00:00:00.000Z\",\"eventVersion\":\"\","
+                + "\"requestParameters\":{\"sourceIPAddress\":\"\"},"
+                + "\"responseElements\":{\"x-amz-id-2\":\"\",\"x-amz-request-id\":\"\"},"
+                + "\"s3\":{\"configurationId\":\"c\","
+                + "\"bucket\":{\"name\":\"b\",\"ownerIdentity\":{\"principalId\":\"P\"},\"arn\":\"arn:aws:s3:::b\"},"
+                + "\"object\":{\"key\":\"z\",\"size\":7,\"eTag\":\"e\",\"versionId\":\"v1\",\"urlDecodedKey\":\"z\","
+                + "\"sequencer\":\"0A\"},\"s3SchemaVersion\":\"1.0\"},"
+                + "\"userIdentity\":{\"principalId\":\"U\"}}]}");
+    }
+
+    @Test
+    public void testMissingFieldsAreReadAsEmpty() {
+        S3Event event = serializer.fromJson("{\"Records\":[{\"eventName\":\"ObjectRemoved:Delete\"}]}");
+
+        S3EventNotificationRecord record = event.getRecords().get(0);
+        assertThat(record.getEventName()).isEqualTo("ObjectRemoved:Delete");
+        assertThat(record.getAwsRegion()).isEmpty();
+        assertThat(record.getEventTime()).isNull();
+        assertThat(record.getUserIdentity().getPrincipalId()).isEmpty();
+        assertThat(record.getS3().getBucket().getName()).isEmpty();
+        assertThat(record.getS3().getObject().getKey()).isEmpty();
+        assertThat(record.getS3().getObject().getSizeAsLong()).isEqualTo(0L);
+        // a missing eventTime is left out of the output
+        assertThat(toJson(event)).doesNotContain("eventTime");
+    }
+
+    @Test
+    public void testNullFieldsAreReadAsEmpty() {
+        S3Event event = serializer.fromJson("{\"Records\":[{\"eventName\":\"ObjectCreated:Put\",\"awsRegion\":null,"
+                + "\"eventTime\":null,\"userIdentity\":null,\"requestParameters\":null,"
+                + "\"s3\":{\"bucket\":{\"name\":\"b\",\"ownerIdentity\":null,\"arn\":null},"
+                + "\"object\":{\"key\":\"k\",\"size\":null,\"eTag\":null}}}]}");
+
+        S3EventNotificationRecord record = event.getRecords().get(0);
+        assertThat(record.getAwsRegion()).isEmpty();
+        assertThat(record.getEventTime()).isNull();
+        assertThat(record.getUserIdentity().getPrincipalId()).isEmpty();
+        assertThat(record.getRequestParameters().getSourceIPAddress()).isEmpty();
+        assertThat(record.getS3().getBucket().getArn()).isEmpty();
+        assertThat(record.getS3().getBucket().getOwnerIdentity().getPrincipalId()).isEmpty();
+        assertThat(record.getS3().getObject().getSizeAsLong()).isEqualTo(0L);
+        assertThat(record.getS3().getObject().geteTag()).isEmpty();
+    }
+
+    @Test
+    public void testMissingRecordsAreReadAsEmpty() {
+        assertThat(serializer.fromJson("{}").getRecords()).isEmpty();
+        assertThat(toJson(serializer.fromJson("{\"Records\":[]}"))).isEqualTo("{\"Records\":[]}");
+    }
+
+    @Test
+    public void testUrlEncodedKeyIsKeptAndDecoded() {
+        S3Event event = serializer.fromJson("{\"Records\":[{\"eventTime\":\"2024-05-01T12:30:45.123Z\","
+                + "\"s3\":{\"object\":{\"key\":\"photos/summer+2024/caf%C3%A9%2B1.jpg\",\"size\":42}}}]}");
+
+        S3ObjectEntity object = event.getRecords().get(0).getS3().getObject();
+        assertThat(object.getKey()).isEqualTo("photos/summer+2024/caf%C3%A9%2B1.jpg");
+        assertThat(object.getUrlDecodedKey()).isEqualTo("photos/summer 2024/café+1.jpg");
+        assertThat(toJson(event))
+                .contains("\"key\":\"photos/summer+2024/caf%C3%A9%2B1.jpg\"")
+                .contains("\"urlDecodedKey\":\"photos/summer 2024/café+1.jpg\"")
+                .contains("\"eventTime\":\"2024-05-01T12:30:45.123Z\"");
+    }
+
+    private String toJson(S3Event event) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        serializer.toJson(event, output);
+        return new String(output.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+package com.amazonaws.services.lambda.runtime.tests;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.MessageAttribute;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies how {@code SQSEventSerializer} reads and writes SQS events. The expected JSON is the one the Jackson
+ * ObjectMapper with {@code SQSEventMixin} reads and writes.
+ */
+public class SQSEventSerializationTest {
+
+    private final PojoSerializer<SQSEvent> serializer = LambdaEventSerializers.serializerFor(SQSEvent.class,
+            ClassLoader.getSystemClassLoader());
+
+    @Test
+    public void testFixturesRoundTrip() {
+        LambdaEventAssert.assertSerializationRoundTrip("sqs/sqs_event_nobody.json", SQSEvent.class);
+        LambdaEventAssert.assertSerializationRoundTrip("sqs/sqs_event_product.json", SQSEvent.class);
+    }
+
+    @Test
+    public void testStringAndBinaryMessageAttributesRoundTrip() {
+        String json = "{\"Records\":[{\"messageId\":\"m1\",\"body\":\"hello\","
+                + "\"attributes\":{\"ApproximateReceiveCount\":\"1\",\"SentTimestamp\":\"1545082649183\"},"
+                + "\"messageAttributes\":{"
+                + "\"text\":{\"stringValue\":\"value\",\"stringListValues\":[\"a\",\"b\"],\"dataType\":\"String\"},"
+                + "\"bytes\":{\"binaryValue\":\"AQID\",\"binaryListValues\":[\"BA==\",\"\"],\"dataType\":\"Binary\"}},"
+                + "\"eventSourceARN\":\"arn:aws:sqs:us-east-1:123456789012:queue\"}]}";
+
+        SQSEvent event = serializer.fromJson(json);
+
+        SQSMessage message = event.getRecords().get(0);
+        assertThat(message.getEventSourceArn()).isEqualTo("arn:aws:sqs:us-east-1:123456789012:queue");
+        assertThat(message.getAttributes()).containsEntry("ApproximateReceiveCount", "1");
+        MessageAttribute text = message.getMessageAttributes().get("text");
+        assertThat(text.getStringValue()).isEqualTo("value");
+        assertThat(text.getStringListValues()).containsExactly("a", "b");
+        assertThat(text.getBinaryValue()).isNull();
+        MessageAttribute bytes = message.getMessageAttributes().get("bytes");
+        assertThat(bytes.getBinaryValue()).isEqualTo(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        assertThat(bytes.getBinaryListValues()).containsExactly(ByteBuffer.wrap(new byte[]{4}), ByteBuffer.allocate(0));
+        assertThat(toJson(event)).isEqualTo(json);
+    }
+
+    @Test
+    public void testBinaryValuesAreWrittenWithoutMovingTheirPosition() {
+        MessageAttribute attribute = new MessageAttribute();
+        ByteBuffer binaryValue = ByteBuffer.wrap(new byte[]{0, 1, 2, 3});
+        binaryValue.position(1);
+        attribute.setBinaryValue(binaryValue);
+        attribute.setBinaryListValues(Collections.singletonList(ByteBuffer.allocateDirect(1)));
+        attribute.setDataType("Binary");
+        SQSMessage message = new SQSMessage();
+        message.setMessageAttributes(Collections.singletonMap("bytes", attribute));
+        SQSEvent event = new SQSEvent();
+        event.setRecords(Collections.singletonList(message));
+
+        assertThat(toJson(event)).isEqualTo("{\"Records\":[{\"messageAttributes\":{\"bytes\":"
+                + "{\"binaryValue\":\"AQID\",\"binaryListValues\":[\"AA==\"],\"dataType\":\"Binary\"}}}]}");
+        assertThat(binaryValue.position()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMissingAndNullAttributesAreLeftOut() {
+        SQSEvent event = serializer.fromJson("{\"Records\":[{\"messageId\":\"m1\",\"attributes\":null,"
+                + "\"messageAttributes\":{\"gone\":null,\"empty\":[]}},{\"messageId\":\"m2\"}]}");
+
+        assertThat(event.getRecords()).hasSize(2);
+        assertThat(event.getRecords().get(0).getAttributes()).isNull();
+        assertThat(event.getRecords().get(0).getMessageAttributes()).containsOnlyKeys("gone", "empty");
+        assertThat(event.getRecords().get(1).getAttributes()).isNull();
+        assertThat(event.getRecords().get(1).getMessageAttributes()).isNull();
+        assertThat(toJson(event)).isEqualTo("{\"Records\":[{\"messageId\":\"m1\",\"messageAttributes\":{}},"
+                + "{\"messageId\":\"m2\"}]}");
+    }
+
+    @Test
+    public void testEmptyAndMissingRecords() {
+        assertThat(serializer.fromJson("{\"Records\":[]}").getRecords()).isEmpty();
+        assertThat(toJson(serializer.fromJson("{\"Records\":[]}"))).isEqualTo("{\"Records\":[]}");
+        assertThat(serializer.fromJson("{}").getRecords()).isNull();
+        assertThat(toJson(serializer.fromJson("{\"Records\":null}"))).isEqualTo("{}");
+    }
+
+    @Test
+    public void testEmptyValuesAreReadAsNullEvents() {
+        assertThat(serializer.fromJson("[]")).isNull();
+        assertThat(serializer.fromJson("\"\"")).isNull();
+        assertThat(serializer.fromJson("null")).isNull();
+        assertThat(toJson(null)).isEqualTo("null");
+    }
+
+    @Test
+    public void testSingleObjectsInArraysAreUnwrapped() {
+        SQSEvent event = serializer.fromJson("[{\"Records\":[[{\"messageId\":\"m1\"}],[],\"\","
+                + "{\"messageId\":\"m2\",\"attributes\":[{\"a\":\"b\"}],\"messageAttributes\":[]}]}]");
+
+        assertThat(event.getRecords()).hasSize(4);
+        assertThat(event.getRecords().get(0).getMessageId()).isEqualTo("m1");
+        assertThat(event.getRecords().subList(1, 3)).containsOnlyNulls();
+        assertThat(event.getRecords().get(3).getAttributes()).containsExactly(entry("a", "b"));
+        assertThat(event.getRecords().get(3).getMessageAttributes()).isNull();
+        assertThatThrownBy(() -> serializer.fromJson("[{},{}]")).hasMessageContaining("single object");
+    }
+
+    @Test
+    public void testSingleMessageRecordsAreReadAsList() {
+        SQSEvent event = serializer.fromJson("{\"Records\":{\"messageId\":\"m1\"}}");
+
+        assertThat(event.getRecords()).extracting(SQSMessage::getMessageId).isEqualTo(Arrays.asList("m1"));
+    }
+
+    private String toJson(SQSEvent event) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        serializer.toJson(event, output);
+        return new String(output.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+/* Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved. */
+package com.amazonaws.services.lambda.runtime.tests;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.S3Event;
+import com.amazonaws.services.lambda.runtime.serialization.PojoSerializer;
+import com.amazonaws.services.lambda.runtime.serialization.events.LambdaEventSerializers;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies that {@link LambdaEventSerializers} shares the serializers it creates without keeping the class loaders
+ * of the event classes loaded.
+ */
+public class SerializerCacheTest {
+
+    @Test
+    public void testSerializersAreSharedByEventClassAndClassLoader() {
+        ClassLoader classLoader = SNSEvent.class.getClassLoader();
+
+        assertThat(LambdaEventSerializers.serializerFor(SNSEvent.class, classLoader))
+                .isSameAs(LambdaEventSerializers.serializerFor(SNSEvent.class, classLoader));
+        assertThat(LambdaEventSerializers.serializerFor(S3Event.class, classLoader))
+                .isSameAs(LambdaEventSerializers.serializerFor(S3Event.class, classLoader))
+                .isNotSameAs(LambdaEventSerializers.serializerFor(SNSEvent.class, classLoader));
+    }
+
+    @Test
+    public void testSerializersDoNotKeepTheEventClassLoaderLoaded() throws Exception {
+        List<WeakReference<ClassLoader>> classLoaders = Arrays.asList(
+                serializeWithIsolatedClassLoader("sns_event.json", SNSEvent.class.getName()),
+                serializeWithIsolatedClassLoader("s3_event.json", S3Event.class.getName()),
+                serializeWithIsolatedClassLoader("sqs/sqs_event_product.json", SQSEvent.class.getName()));
+
+        for (int i = 0; i < 50 && classLoaders.stream().anyMatch(classLoader -> classLoader.get() != null); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertThat(classLoaders).allMatch(classLoader -> classLoader.get() == null);
+    }
+
+    /**
+     * Loads the event class from a class loader of its own, as the runtime does for a function's classes,
+     * deserializes the fixture into it and serializes it back.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static WeakReference<ClassLoader> serializeWithIsolatedClassLoader(String fixture, String eventClassName)
+            throws Exception {
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{
+                location(SNSEvent.class), location(DateTime.class)}, null);
+        Class eventClass = classLoader.loadClass(eventClassName);
+        assertThat(eventClass).isNotSameAs(Class.forName(eventClassName));
+
+        PojoSerializer serializer = LambdaEventSerializers.serializerFor(eventClass, classLoader);
+        try (InputStream stream = SerializerCacheTest.class.getClassLoader().getResourceAsStream(fixture)) {
+            serializer.toJson(serializer.fromJson(stream), new ByteArrayOutputStream());
+        }
+        assertThat(LambdaEventSerializers.serializerFor(eventClass, classLoader)).isSameAs(serializer);
+        classLoader.close();
+        return new WeakReference<>(classLoader);
+    }
+
+    private static URL location(Class<?> type) {
+        return type.getProtectionDomain().getCodeSource().getLocation();
+    }
+}